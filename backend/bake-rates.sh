@@ -0,0 +1,17 @@
+#!/bin/sh
+# Bake a rate snapshot into the application, then build it: the configured invoice.preload window,
+# base currencies and currencies are fetched from Frankfurter into src/main/resources/rates, so the
+# image starts with them cached and warms up on them (see RateWarmup). Extra arguments go to the
+# final build, e.g. a native image:
+#   ./bake-rates.sh -Dnative
+set -e
+cd "$(dirname "$0")"
+SNAPSHOT=src/main/resources/rates/baked-rates.bin
+
+rm -f "$SNAPSHOT"
+./mvnw -B -q package -DskipTests
+java -Dinvoice.preload.on-startup=true -Dinvoice.preload.exit-when-done=true \
+    -Dinvoice.rate-cache.snapshot-path="$SNAPSHOT" -Dinvoice.warmup.iterations=0 \
+    -Dquarkus.http.port=0 ${BAKE_JAVA_OPTS} -jar target/quarkus-app/quarkus-run.jar
+echo "Baked $(( ($(wc -c < "$SNAPSHOT") - 16) / 16 )) rates into $SNAPSHOT"
+./mvnw -B package "$@"
@@ -0,0 +1,73 @@
+package com.verifyme.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Print the change of every benchmark between two JMH JSON results (time per op and bytes allocated
+ * per op), flagging the ones slower by more than the threshold:
+ * <pre>
+ * java -cp target/benchmarks.jar com.verifyme.benchmarks.BaselineComparison baseline/baseline.json result.json [10]
+ * </pre>
+ * Exits with status 1 when a benchmark regressed, so it can gate a build.
+ */
+public final class BaselineComparison {
+
+  private record Score(double time, String unit, double allocated) {}
+
+  public static void main(String[] args) throws IOException {
+    if (args.length < 2) {
+      System.err.println("usage: BaselineComparison <baseline.json> <result.json> [threshold %]");
+      System.exit(2);
+    }
+    Map<String, Score> baseline = read(Path.of(args[0]));
+    Map<String, Score> current = read(Path.of(args[1]));
+    double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10;
+
+    boolean regressed = false;
+    System.out.printf(Locale.ROOT, "%-70s %12s %12s %8s %10s %10s%n",
+        "benchmark", "baseline", "current", "change", "B/op base", "B/op now");
+    for (Map.Entry<String, Score> entry : current.entrySet()) {
+      Score before = baseline.get(entry.getKey());
+      Score now = entry.getValue();
+      if (before == null) {
+        System.out.printf(Locale.ROOT, "%-70s %12s %12.3f %8s%n", entry.getKey(), "-", now.time(), "new");
+        continue;
+      }
+      double change = (now.time() - before.time()) / before.time() * 100;
+      boolean slower = change > threshold;
+      regressed |= slower;
+      System.out.printf(Locale.ROOT, "%-70s %12.3f %12.3f %+7.1f%% %10.0f %10.0f %s%s%n",
+          entry.getKey(), before.time(), now.time(), change, before.allocated(), now.allocated(),
+          now.unit(), slower ? "  REGRESSION" : "");
+    }
+    System.exit(regressed ? 1 : 0);
+  }
+
+  private static Map<String, Score> read(Path file) throws IOException {
+    Map<String, Score> scores = new LinkedHashMap<>();
+    for (JsonNode run : new ObjectMapper().readTree(file.toFile())) {
+      StringBuilder name = new StringBuilder(run.path("benchmark").asText()
+          .replaceFirst("^com\\.verifyme\\.", ""));
+      for (Map.Entry<String, JsonNode> param : run.path("params").properties()) {
+        name.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+      }
+      double allocated = Double.NaN;
+      for (Map.Entry<String, JsonNode> metric : run.path("secondaryMetrics").properties()) {
+        if (metric.getKey().endsWith("gc.alloc.rate.norm")) {
+          allocated = metric.getValue().path("score").asDouble();
+        }
+      }
+      JsonNode primary = run.path("primaryMetric");
+      scores.put(name.toString(),
+          new Score(primary.path("score").asDouble(), primary.path("scoreUnit").asText(), allocated));
+    }
+    return scores;
+  }
+}
@@ -0,0 +1,137 @@
+package com.verifyme.benchmarks;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.verifyme.common.client.FrankfurterClient;
+import com.verifyme.common.client.FrankfurterResponse;
+import com.verifyme.common.client.FrankfurterTimeSeriesResponse;
+import com.verifyme.invoice.config.InvoiceConfig;
+import com.verifyme.invoice.dto.InvoicePayload;
+import com.verifyme.invoice.model.InvoiceLine;
+
+import io.quarkus.runtime.configuration.DurationConverter;
+import io.smallrye.config.PropertiesConfigSource;
+import io.smallrye.config.SmallRyeConfig;
+import io.smallrye.config.SmallRyeConfigBuilder;
+import io.smallrye.mutiny.Uni;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Shared inputs of the benchmarks, built outside CDI from the backend's own application.properties
+ */
+public final class Fixtures {
+
+  /** line currencies cycled through, the first is the invoice currency */
+  public static final String[] CURRENCIES = {"USD", "EUR", "GBP", "JPY", "CHF", "CAD", "AUD", "SEK"};
+
+  public static final LocalDate DATE = LocalDate.of(2024, 3, 15);
+
+  private Fixtures() {}
+
+  public static InvoiceConfig config() {
+    return config(Map.of());
+  }
+
+  /** the backend configuration with {@code overrides} taking precedence */
+  public static InvoiceConfig config(Map<String, String> overrides) {
+    try {
+      SmallRyeConfig config = new SmallRyeConfigBuilder()
+          .withSources(new PropertiesConfigSource(
+              Fixtures.class.getClassLoader().getResource("application.properties"), 250))
+          .withSources(new PropertiesConfigSource(overrides, "overrides", 300))
+          .withConverter(Duration.class, 100, new DurationConverter()) // Quarkus syntax, "5M"
+          .withMapping(InvoiceConfig.class)
+          .build();
+      return config.getConfigMapping(InvoiceConfig.class);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** configured like the Quarkus one, unknown properties are ignored */
+  public static ObjectMapper objectMapper() {
+    return new ObjectMapper()
+        .registerModule(new JavaTimeModule())
+        .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+  }
+
+  public static InvoicePayload invoice(int lineCount) {
+    Random random = new Random(42);
+    InvoicePayload payload = new InvoicePayload();
+    payload.currency = CURRENCIES[0];
+    payload.date = DATE;
+    payload.lines = new ArrayList<>(lineCount);
+    for (int i = 0; i < lineCount; i++) {
+      InvoiceLine line = new InvoiceLine();
+      line.description = "Item " + i;
+      line.currency = CURRENCIES[i % CURRENCIES.length];
+      line.amount = BigDecimal.valueOf(random.nextInt(10_000_000), 2);
+      payload.lines.add(line);
+    }
+    return payload;
+  }
+
+  public static String invoiceJson(int lineCount) {
+    try {
+      return objectMapper().writeValueAsString(Map.of("invoice", invoice(lineCount)));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /** a Frankfurter answer for every symbol asked, same rates whatever the date */
+  public static FrankfurterResponse rates(String base, String symbols) {
+    FrankfurterResponse response = new FrankfurterResponse();
+    response.amount = 1.0;
+    response.base = base;
+    response.date = DATE.toString();
+    response.rates = new HashMap<>();
+    for (String symbol : symbols.split(",")) {
+      response.rates.put(symbol, 0.5 + (symbol.hashCode() & 0xFF) / 100.0);
+    }
+    return response;
+  }
+
+  /** answers from memory, so only our side of the call is measured */
+  public static FrankfurterClient frankfurter() {
+    return new FrankfurterClient() {
+      @Override
+      public FrankfurterResponse getHistoricalRate(String date, String from, String to) {
+        return rates(from, to);
+      }
+
+      @Override
+      public Uni<FrankfurterResponse> getHistoricalRateAsync(String date, String from, String to) {
+        return Uni.createFrom().item(rates(from, to));
+      }
+
+      @Override
+      public FrankfurterTimeSeriesResponse getTimeSeries(String start, String end, String from, String to) {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  /** a Frankfurter answer the size of a full ECB table */
+  public static String frankfurterJson() {
+    List<String> symbols = List.of("AUD", "BGN", "BRL", "CAD", "CHF", "CNY", "CZK", "DKK", "GBP", "HKD",
+        "HUF", "IDR", "ILS", "INR", "ISK", "JPY", "KRW", "MXN", "MYR", "NOK", "NZD", "PHP", "PLN", "RON",
+        "SEK", "SGD", "THB", "TRY", "USD", "ZAR");
+    try {
+      return objectMapper().writeValueAsString(rates("EUR", String.join(",", symbols)));
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+}
@@ -0,0 +1,45 @@
+package com.verifyme.common.client;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.verifyme.benchmarks.Fixtures;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Jackson binding of a Frankfurter answer carrying the full ECB table
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FrankfurterResponseBenchmark {
+
+  private ObjectReader reader;
+  private byte[] json;
+
+  @Setup
+  public void setUp() {
+    reader = Fixtures.objectMapper().readerFor(FrankfurterResponse.class);
+    json = Fixtures.frankfurterJson().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public FrankfurterResponse deserialize() throws IOException {
+    return reader.readValue(json);
+  }
+}
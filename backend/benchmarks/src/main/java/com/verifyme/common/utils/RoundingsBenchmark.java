@@ -0,0 +1,75 @@
+package com.verifyme.common.utils;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * {@link Roundings} over line-like amounts (amount * rate, 6 to 10 decimals) at several target scales
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RoundingsBenchmark {
+
+  private static final int VALUES = 1024;
+
+  @Param({"2", "4", "8"})
+  int scale;
+
+  private BigDecimal[] values;
+  private BigDecimal[] quotes;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    values = new BigDecimal[VALUES];
+    quotes = new BigDecimal[VALUES];
+    for (int i = 0; i < VALUES; i++) {
+      values[i] = BigDecimal.valueOf(random.nextInt(10_000_000), 2)
+          .multiply(BigDecimal.valueOf(random.nextInt(2_000_000) + 1, 4 + random.nextInt(5)));
+      quotes[i] = BigDecimal.valueOf(random.nextDouble() * 200 + 0.01);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(VALUES)
+  public void money(Blackhole bh) {
+    for (BigDecimal value : values) {
+      bh.consume(Roundings.money(value, scale));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(VALUES)
+  public void rate(Blackhole bh) {
+    for (BigDecimal value : values) {
+      bh.consume(Roundings.rate(value, scale));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(VALUES)
+  public void inverseRate(Blackhole bh) {
+    for (BigDecimal quote : quotes) {
+      bh.consume(Roundings.inverseRate(quote, scale));
+    }
+  }
+}
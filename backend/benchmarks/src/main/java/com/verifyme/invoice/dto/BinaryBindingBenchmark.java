@@ -0,0 +1,48 @@
+package com.verifyme.invoice.dto;
+
+import com.verifyme.benchmarks.Fixtures;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link BinaryInvoice} reading of the request body, the same invoices as {@link JsonBindingBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryBindingBenchmark {
+
+  @Param({"3", "1000"})
+  int lines;
+
+  private byte[] invoiceBinary;
+
+  @Setup
+  public void setUp() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryInvoice.write(Fixtures.invoice(lines), out);
+    invoiceBinary = out.toByteArray();
+  }
+
+  @Benchmark
+  public InvoiceRequest invoiceRequest() {
+    return BinaryInvoice.read(invoiceBinary);
+  }
+}
@@ -0,0 +1,49 @@
+package com.verifyme.invoice.dto;
+
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.verifyme.benchmarks.Fixtures;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Jackson binding of the request body, from UTF-8 bytes as they arrive
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonBindingBenchmark {
+
+  @Param({"3", "1000"})
+  int lines;
+
+  private ObjectReader invoiceReader;
+  private byte[] invoiceJson;
+
+  @Setup
+  public void setUp() {
+    invoiceReader = Fixtures.objectMapper().readerFor(InvoiceRequest.class);
+    invoiceJson = Fixtures.invoiceJson(lines).getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public InvoiceRequest invoiceRequest() throws IOException {
+    return invoiceReader.readValue(invoiceJson);
+  }
+}
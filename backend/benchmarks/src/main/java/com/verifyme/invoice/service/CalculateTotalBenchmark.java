@@ -0,0 +1,97 @@
+package com.verifyme.invoice.service;
+
+import com.verifyme.benchmarks.Fixtures;
+import com.verifyme.common.logging.RequestLog;
+import com.verifyme.invoice.dto.InvoicePayload;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link InvoiceService#calculateTotal} against an in-memory Frankfurter: {@code cachedRates} is the
+ * steady state, {@code uncachedRates} also pays for the rate lookup, inversion and caching, both
+ * with the result cache off; {@code cachedResult} answers a resubmitted invoice from the result cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalculateTotalBenchmark {
+
+  @Param({"1", "100", "10000"})
+  int lines;
+
+  private InvoiceService service;
+  private InvoiceService resultCacheService;
+  private InvoicePayload invoice;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    service = new InvoiceService();
+    service.config = Fixtures.config(Map.of("invoice.result-cache.enabled", "false"));
+    service.frankfurter = Fixtures.frankfurter();
+    service.rateCache = new ExchangeRateCache(service.config);
+    service.resultCache = new InvoiceResultCache(service.config);
+    service.metrics = new InvoiceMetrics(new SimpleMeterRegistry());
+    service.requestLog = new RequestLog(service.config);
+    invoice = Fixtures.invoice(lines);
+
+    resultCacheService = new InvoiceService();
+    resultCacheService.config = Fixtures.config();
+    resultCacheService.frankfurter = service.frankfurter;
+    resultCacheService.rateCache = service.rateCache;
+    resultCacheService.resultCache = new InvoiceResultCache(resultCacheService.config);
+    resultCacheService.metrics = service.metrics;
+    resultCacheService.requestLog = service.requestLog;
+  }
+
+  @Benchmark
+  public BigDecimal cachedRates() {
+    return service.calculateTotal(invoice);
+  }
+
+  @Benchmark
+  public BigDecimal cachedResult() {
+    return resultCacheService.calculateTotal(invoice);
+  }
+
+  @Benchmark
+  public BigDecimal uncachedRates(ColdCache cold) {
+    return cold.service.calculateTotal(invoice);
+  }
+
+  /** a service with an empty rate cache for every call */
+  @State(Scope.Thread)
+  public static class ColdCache {
+    InvoiceService service;
+
+    @Setup(Level.Invocation)
+    public void setUp(CalculateTotalBenchmark benchmark) {
+      service = new InvoiceService();
+      service.config = benchmark.service.config;
+      service.frankfurter = benchmark.service.frankfurter;
+      service.rateCache = new ExchangeRateCache(service.config);
+      service.resultCache = benchmark.service.resultCache;
+      service.metrics = benchmark.service.metrics;
+      service.requestLog = benchmark.service.requestLog;
+    }
+  }
+}
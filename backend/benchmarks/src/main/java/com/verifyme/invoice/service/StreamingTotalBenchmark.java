@@ -0,0 +1,96 @@
+package com.verifyme.invoice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.verifyme.benchmarks.Fixtures;
+import com.verifyme.common.logging.RequestLog;
+import com.verifyme.invoice.dto.InvoiceRequest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Request body to total with cached rates: {@code bound} binds, validates and computes the invoice like
+ * {@code POST /invoice/total}, {@code streamed} folds the lines while parsing like
+ * {@code POST /invoice/total/stream}. The result cache is off, so neither is answered from it.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StreamingTotalBenchmark {
+
+  @Param({"1000", "50000"})
+  int lines;
+
+  private InvoiceService service;
+  private InvoiceStreamReader streamReader;
+  private ObjectReader requestReader;
+  private Validator validator;
+  private byte[] invoiceJson;
+
+  @Setup
+  public void setUp() {
+    service = new InvoiceService();
+    service.config = Fixtures.config(Map.of("invoice.result-cache.enabled", "false"));
+    service.frankfurter = Fixtures.frankfurter();
+    service.rateCache = new ExchangeRateCache(service.config);
+    service.resultCache = new InvoiceResultCache(service.config);
+    service.metrics = new InvoiceMetrics(new SimpleMeterRegistry());
+    service.requestLog = new RequestLog(service.config);
+
+    ObjectMapper objectMapper = Fixtures.objectMapper();
+    validator = Validation.byDefaultProvider().configure()
+        .messageInterpolator(new ParameterMessageInterpolator())
+        .buildValidatorFactory().getValidator();
+    streamReader = new InvoiceStreamReader();
+    streamReader.invoiceService = service;
+    streamReader.objectMapper = objectMapper;
+    streamReader.invoiceValidator = new InvoiceValidator();
+    streamReader.invoiceValidator.validator = validator;
+    streamReader.invoiceValidator.config = service.config;
+
+    requestReader = objectMapper.readerFor(InvoiceRequest.class);
+    invoiceJson = Fixtures.invoiceJson(lines).getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public BigDecimal bound() throws IOException {
+    InvoiceRequest request = requestReader.readValue(invoiceJson);
+    var violations = validator.validate(request);
+    if (!violations.isEmpty()) {
+      throw new ConstraintViolationException(violations);
+    }
+    return service.calculateTotal(request.invoice);
+  }
+
+  @Benchmark
+  public BigDecimal streamed() {
+    return streamReader.readTotal(new ByteArrayInputStream(invoiceJson));
+  }
+}
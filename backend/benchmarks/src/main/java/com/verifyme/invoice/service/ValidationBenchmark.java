@@ -0,0 +1,67 @@
+package com.verifyme.invoice.service;
+
+import com.verifyme.benchmarks.Fixtures;
+import com.verifyme.invoice.dto.InvoicePayload;
+import com.verifyme.invoice.dto.InvoiceRequest;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Validation of a valid request body: {@code hibernateValidator} is the {@code @Valid} cascade,
+ * {@code fastPath} the checks of {@link InvoiceValidator}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidationBenchmark {
+
+  @Param({"10", "1000", "100000"})
+  int lines;
+
+  private Validator validator;
+  private InvoiceValidator invoiceValidator;
+  private InvoiceRequest request;
+
+  @Setup
+  public void setUp() {
+    validator = Validation.byDefaultProvider().configure()
+        .messageInterpolator(new ParameterMessageInterpolator())
+        .buildValidatorFactory().getValidator();
+    invoiceValidator = new InvoiceValidator();
+    invoiceValidator.validator = validator;
+    invoiceValidator.config = Fixtures.config();
+    request = new InvoiceRequest();
+    request.invoice = Fixtures.invoice(lines);
+  }
+
+  @Benchmark
+  public Set<ConstraintViolation<InvoiceRequest>> hibernateValidator() {
+    return validator.validate(request);
+  }
+
+  @Benchmark
+  public Set<? extends ConstraintViolation<?>> fastPath() {
+    return invoiceValidator.validateBody("total", request);
+  }
+}
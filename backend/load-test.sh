@@ -0,0 +1,10 @@
+#!/bin/sh
+# Package the application and load-test POST /invoice/total against a local Frankfurter stub.
+# Report in target/benchmarks/load-test.md; keep target/benchmarks/load-test.tsv of a release and
+# pass it to the next run to compare:
+#   ./load-test.sh -Dbench.baseline=load-test-1.0.tsv -Dbench.duration=60
+# Every -Dbench.* option is listed in src/test/java/com/verifyme/loadtest/LoadTest.java.
+set -e
+cd "$(dirname "$0")"
+./mvnw -B -q package -DskipTests
+exec java "$@" -cp target/test-classes com.verifyme.loadtest.LoadTest
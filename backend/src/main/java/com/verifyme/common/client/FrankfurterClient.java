@@ -1,5 +1,6 @@
 package com.verifyme.common.client;
 
+import io.smallrye.mutiny.Uni;
 import jakarta.ws.rs.*;
 import jakarta.ws.rs.core.MediaType;
 import org.eclipse.microprofile.rest.client.inject.RegisterRestClient;
@@ -15,4 +16,21 @@ public interface FrankfurterClient {
       @QueryParam("from") String from,
       @QueryParam("to") String to
   );
+
+  @GET
+  @Path("{date}")
+  Uni<FrankfurterResponse> getHistoricalRateAsync(
+      @PathParam("date") String date,
+      @QueryParam("from") String from,
+      @QueryParam("to") String to
+  );
+
+  @GET
+  @Path("{start}..{end}")
+  FrankfurterTimeSeriesResponse getTimeSeries(
+      @PathParam("start") String start,
+      @PathParam("end") String end,
+      @QueryParam("from") String from,
+      @QueryParam("to") String to
+  );
 }
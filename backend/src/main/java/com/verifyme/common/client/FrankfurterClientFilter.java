@@ -1,5 +1,8 @@
 package com.verifyme.common.client;
 
+import com.verifyme.common.logging.RequestLog;
+
+import jakarta.inject.Inject;
 import jakarta.ws.rs.client.ClientRequestContext;
 import jakarta.ws.rs.client.ClientRequestFilter;
 import jakarta.ws.rs.client.ClientResponseContext;
@@ -10,28 +13,34 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 
+/**
+ * Times every answered Frankfurter call into the sampled {@link RequestLog}, the request itself is
+ * only logged at DEBUG. A call that got no response is logged by the {@code InvoiceService} call that
+ * failed: the response filter does not run on every such failure, and never with the full duration.
+ */
 @Provider
 public class FrankfurterClientFilter implements ClientRequestFilter, ClientResponseFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(FrankfurterClientFilter.class);
 
+    private static final String START = FrankfurterClientFilter.class.getName() + ".start";
+
+    @Inject
+    RequestLog requestLog;
+
     @Override
     public void filter(ClientRequestContext requestContext) throws IOException {
-        logger.info("Calling Frankfurter API: {} {}", 
-                   requestContext.getMethod(), 
-                   requestContext.getUri());
+        requestContext.setProperty(START, System.nanoTime());
+        logger.debug("Calling Frankfurter API: {} {}", requestContext.getMethod(), requestContext.getUri());
     }
 
     @Override
     public void filter(ClientRequestContext requestContext, ClientResponseContext responseContext) throws IOException {
-        logger.info("Frankfurter API response: {} - Status: {}", 
-                   requestContext.getUri(), 
-                   responseContext.getStatus());
-        
-        if (responseContext.getStatus() >= 400) {
-            logger.error("Frankfurter API error: {} returned status {}", 
-                        requestContext.getUri(), 
-                        responseContext.getStatus());
+        if (responseContext.getStatus() == 0) {
+            return; // no response, logged where the call failed
         }
+        Object start = requestContext.getProperty(START);
+        requestLog.upstream(requestContext.getMethod(), requestContext.getUri(), responseContext.getStatus(),
+            start instanceof Long nanos ? nanos : System.nanoTime());
     }
 }
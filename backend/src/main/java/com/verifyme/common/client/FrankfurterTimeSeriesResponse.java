@@ -0,0 +1,16 @@
+package com.verifyme.common.client;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Map;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class FrankfurterTimeSeriesResponse {
+  public Map<String, Map<String, Double>> rates; // published date -> currency -> quote
+  public String base;
+  @JsonProperty("start_date")
+  public String startDate;
+  @JsonProperty("end_date")
+  public String endDate;
+  public Double amount;
+}
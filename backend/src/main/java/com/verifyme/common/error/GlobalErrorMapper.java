@@ -1,11 +1,15 @@
 package com.verifyme.common.error;
 
 import com.verifyme.invoice.config.InvoiceConfig;
+import com.verifyme.invoice.events.InvoiceErrorEvent;
+import com.verifyme.invoice.service.InvoiceMetrics;
 
 import jakarta.inject.Inject;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.ServiceUnavailableException;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 import jakarta.ws.rs.ext.ExceptionMapper;
@@ -21,6 +25,9 @@ public class GlobalErrorMapper implements ExceptionMapper<Throwable> {
   @Inject
   InvoiceConfig config;
 
+  @Inject
+  InvoiceMetrics metrics;
+
   private Response text(int status, String msg) {
     return Response.status(status).entity(msg).type(MediaType.TEXT_PLAIN).build();
   }
@@ -29,19 +36,33 @@ public class GlobalErrorMapper implements ExceptionMapper<Throwable> {
   public Response toResponse(Throwable ex) {
     if (ex instanceof ConstraintViolationException) {
       logger.warn("Validation error: {}", ex.getMessage());
-      return text(config.error().badRequestStatus(), config.error().validationErrorMessage());
+      return error("validation", config.error().badRequestStatus(), config.error().validationErrorMessage(), ex);
     }
     if (ex instanceof BadRequestException) {
       logger.warn("Bad request: {}", ex.getMessage());
-      return text(config.error().badRequestStatus(), "Error: " + ex.getMessage());
+      return error("bad_request", config.error().badRequestStatus(), "Error: " + ex.getMessage(), ex);
     }
     if (ex instanceof NotFoundException) {
       logger.warn("Not found: {}", ex.getMessage());
-      return text(config.error().notFoundStatus(), "Error: " + ex.getMessage());
+      return error("not_found", config.error().notFoundStatus(), "Error: " + ex.getMessage(), ex);
+    }
+    if (ex instanceof ServiceUnavailableException unavailable) {
+      // shed by admission control, under load that is every rejected request: not worth a warning each
+      logger.debug("Service unavailable: {}", ex.getMessage());
+      Response response = error("unavailable", config.error().serviceUnavailableStatus(), "Error: " + ex.getMessage(), ex);
+      return Response.fromResponse(response)
+          .header(HttpHeaders.RETRY_AFTER, unavailable.getResponse().getHeaderString(HttpHeaders.RETRY_AFTER))
+          .build();
     }
     
     // Log the full stack trace for 500 errors
     logger.error("Internal server error", ex);
-    return text(config.error().internalErrorStatus(), config.error().internalErrorMessage());
+    return error("internal", config.error().internalErrorStatus(), config.error().internalErrorMessage(), ex);
+  }
+
+  private Response error(String type, int status, String msg, Throwable ex) {
+    metrics.error(type);
+    InvoiceErrorEvent.commit(type, status, ex);
+    return text(status, msg);
   }
 }
@@ -1,5 +1,8 @@
 package com.verifyme.common.error;
 
+import com.verifyme.invoice.events.InvoiceErrorEvent;
+import com.verifyme.invoice.service.InvoiceMetrics;
+import jakarta.inject.Inject;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import jakarta.ws.rs.core.MediaType;
@@ -11,8 +14,13 @@ import java.util.stream.Collectors;
 @Provider
 public class ValidationErrorMapper implements ExceptionMapper<ConstraintViolationException> {
 
+  @Inject
+  InvoiceMetrics metrics;
+
   @Override
   public Response toResponse(ConstraintViolationException exception) {
+    metrics.error("validation");
+    InvoiceErrorEvent.commit("validation", Response.Status.BAD_REQUEST.getStatusCode(), exception);
     String errorMessage = exception.getConstraintViolations()
         .stream()
         .map(this::formatViolation)
@@ -0,0 +1,95 @@
+package com.verifyme.common.logging;
+
+import com.verifyme.invoice.config.InvoiceConfig;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Sampled request log of Frankfurter calls and invoice calculations, one {@code key=value} line per
+ * entry. Errors and calls slower than {@code invoice.request-log.slow-threshold} are always logged,
+ * the others with probability {@code invoice.request-log.sample-rate}; the {@code reason} key says
+ * which rule let an entry through. The category has its own asynchronous console handler with a
+ * bounded queue that drops entries when full (see application.properties), so callers never wait
+ * on the console.
+ */
+@ApplicationScoped
+public class RequestLog {
+
+  private static final Logger logger = LoggerFactory.getLogger(RequestLog.class);
+
+  static final String ERROR = "error";
+  static final String SLOW = "slow";
+  static final String SAMPLED = "sampled";
+
+  private final double sampleRate;
+  private final long slowThresholdNanos;
+
+  @Inject
+  public RequestLog(InvoiceConfig config) {
+    this.sampleRate = config.requestLog().sampleRate();
+    this.slowThresholdNanos = config.requestLog().slowThreshold().toNanos();
+  }
+
+  /**
+   * Log a Frankfurter response, a status outside 2xx and 3xx is an error
+   *
+   * @param status 0 when no response came back; the {@code InvoiceService} call that failed logs
+   *               those, the client filter only logs answered calls
+   */
+  public void upstream(String method, URI uri, int status, long startNanos) {
+    final long duration = System.nanoTime() - startNanos;
+    final String reason = reason(duration, status < 200 || status >= 400);
+    if (reason == null) {
+      return;
+    }
+    if (reason == ERROR) {
+      logger.warn("upstream method={} uri={} status={} duration_ms={} reason={}",
+          method, uri, status, millis(duration), reason);
+    } else {
+      logger.info("upstream method={} uri={} status={} duration_ms={} reason={}",
+          method, uri, status, millis(duration), reason);
+    }
+  }
+
+  /**
+   * Log a completed invoice calculation, failed ones are logged by the error mappers
+   */
+  public void invoice(String mode, String base, LocalDate date, int lines, BigDecimal total, long startNanos) {
+    final long duration = System.nanoTime() - startNanos;
+    final String reason = reason(duration, false);
+    if (reason != null) {
+      logger.info("invoice mode={} base={} date={} lines={} total={} duration_ms={} reason={}",
+          mode, base, date, lines, total, millis(duration), reason);
+    }
+  }
+
+  /**
+   * @return why an entry of that duration is logged, null when it is not
+   */
+  String reason(long durationNanos, boolean error) {
+    if (error) {
+      return ERROR;
+    }
+    if (durationNanos >= slowThresholdNanos) {
+      return SLOW;
+    }
+    if (sampleRate > 0 && (sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < sampleRate)) {
+      return SAMPLED;
+    }
+    return null;
+  }
+
+  private static long millis(long nanos) {
+    return TimeUnit.NANOSECONDS.toMillis(nanos);
+  }
+}
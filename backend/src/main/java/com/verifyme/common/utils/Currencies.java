@@ -0,0 +1,150 @@
+package com.verifyme.common.utils;
+
+import java.util.Arrays;
+import java.util.Currency;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Process-wide registry interning currency codes to small, dense int ids, so rate tables can be
+ * primitive arrays indexed by id and lines can be compared without normalizing strings.
+ *
+ * <p>Only 3 letter codes are interned, case and surrounding whitespace ignored; anything else is
+ * {@link #NONE}. The ECB reference currencies get the first ids so tables of published rates stay a
+ * few dozen slots long, the other ISO 4217 codes follow, unknown 3 letter codes are appended on first
+ * sight. Ids never change once given, lookups are lock-free and allocation-free.
+ */
+public final class Currencies {
+  private Currencies() {}
+
+  /** id of a code that is not 3 letters */
+  public static final int NONE = -1;
+
+  /** currencies of the ECB reference rates served by Frankfurter */
+  private static final String[] REFERENCE = {
+      "EUR", "USD", "JPY", "BGN", "CZK", "DKK", "GBP", "HUF", "PLN", "RON", "SEK", "CHF", "ISK", "NOK",
+      "TRY", "AUD", "BRL", "CAD", "CNY", "HKD", "IDR", "ILS", "INR", "KRW", "MXN", "MYR", "NZD", "PHP",
+      "SGD", "THB", "ZAR"};
+
+  private static final int PACKED_CODES = 26 * 26 * 26;
+
+  /** id + 1 per packed code, 0 when not registered yet */
+  private static final AtomicIntegerArray IDS = new AtomicIntegerArray(PACKED_CODES);
+
+  private static volatile String[] codes = new String[64];
+  private static volatile int size;
+
+  static {
+    for (String code : REFERENCE) {
+      id(code);
+    }
+    Currency.getAvailableCurrencies().stream()
+        .map(Currency::getCurrencyCode)
+        .sorted()
+        .forEach(Currencies::id);
+  }
+
+  /**
+   * @return the id of the code, registering it on first sight, or {@link #NONE} if it is not 3 letters
+   */
+  public static int id(String code) {
+    if (code == null) {
+      return NONE;
+    }
+    int start = 0;
+    int end = code.length();
+    while (start < end && Character.isWhitespace(code.charAt(start))) {
+      start++;
+    }
+    while (end > start && Character.isWhitespace(code.charAt(end - 1))) {
+      end--;
+    }
+    if (end - start != 3) {
+      return NONE;
+    }
+
+    int packed = 0;
+    for (int i = start; i < end; i++) {
+      int letter = letter(code.charAt(i));
+      if (letter < 0) {
+        return NONE;
+      }
+      packed = packed * 26 + letter;
+    }
+    int id = IDS.get(packed) - 1;
+    return id >= 0 ? id : register(packed);
+  }
+
+  /**
+   * The one normalization of currency codes, consistent with {@link #id}: a registered code is
+   * returned interned, anything else has the whitespace {@link #id} ignores stripped and is upper
+   * cased in {@link Locale#ROOT}, so a code never compares differently depending on the path taken
+   *
+   * @return the normalized code, or {@code null} for {@code null}
+   */
+  public static String normalize(String code) {
+    final int id = id(code);
+    if (id != NONE) {
+      return codes[id];
+    }
+    return code == null ? null : code.strip().toUpperCase(Locale.ROOT);
+  }
+
+  /**
+   * @return the id of the 3 ASCII letters at {@code offset}, registering it on first sight, or
+   *         {@link #NONE} if they are not all letters
+   */
+  public static int id(byte[] ascii, int offset) {
+    int packed = 0;
+    for (int i = offset; i < offset + 3; i++) {
+      int letter = letter((char) (ascii[i] & 0xFF));
+      if (letter < 0) {
+        return NONE;
+      }
+      packed = packed * 26 + letter;
+    }
+    int id = IDS.get(packed) - 1;
+    return id >= 0 ? id : register(packed);
+  }
+
+  /**
+   * @return the upper case code of a registered id
+   */
+  public static String code(int id) {
+    return codes[id];
+  }
+
+  /**
+   * @return the number of registered codes, every id is below it
+   */
+  public static int size() {
+    return size;
+  }
+
+  private static synchronized int register(int packed) {
+    int id = IDS.get(packed) - 1;
+    if (id >= 0) {
+      return id;
+    }
+    char[] letters = {
+        (char) ('A' + packed / (26 * 26)), (char) ('A' + packed / 26 % 26), (char) ('A' + packed % 26)};
+    id = size;
+    if (id == codes.length) {
+      codes = Arrays.copyOf(codes, id * 2);
+    }
+    codes[id] = new String(letters).intern(); // visible before the id, through the volatile writes below
+    size = id + 1;
+    IDS.set(packed, id + 1);
+    return id;
+  }
+
+  private static int letter(char c) {
+    if (c >= 'A' && c <= 'Z') {
+      return c - 'A';
+    }
+    if (c >= 'a' && c <= 'z') {
+      return c - 'a';
+    }
+    return -1;
+  }
+}
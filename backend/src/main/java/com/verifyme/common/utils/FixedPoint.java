@@ -0,0 +1,111 @@
+package com.verifyme.common.utils;
+
+import java.math.BigDecimal;
+
+/**
+ * Fixed-point arithmetic on scaled {@code long}s (value = unscaled / 10^scale) with the same HALF_UP
+ * rounding as {@link Roundings}, for hot loops that must not allocate a {@code BigDecimal} per step.
+ * Results that do not fit in a {@code long} come back as {@link #OVERFLOW}, without throwing, so the
+ * caller can redo the whole computation with {@code BigDecimal}.
+ */
+public final class FixedPoint {
+  private FixedPoint() {}
+
+  /** marks a value that is not representable, callers fall back to BigDecimal */
+  public static final long OVERFLOW = Long.MIN_VALUE;
+
+  /** largest scale difference handled, 10^18 is the largest power of ten in a long */
+  private static final int MAX_SHIFT = 18;
+
+  private static final long[] POW10 = new long[MAX_SHIFT + 1];
+
+  private static final BigDecimal MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+  private static final BigDecimal MIN = BigDecimal.valueOf(-Long.MAX_VALUE);
+
+  static {
+    POW10[0] = 1;
+    for (int i = 1; i <= MAX_SHIFT; i++) {
+      POW10[i] = POW10[i - 1] * 10;
+    }
+  }
+
+  /**
+   * @return the unscaled value of {@code v} at its own scale, or {@link #OVERFLOW} if it needs more than a long
+   */
+  public static long unscaled(BigDecimal v) {
+    if (Math.abs(v.scale()) > 2 * MAX_SHIFT) {
+      return OVERFLOW;
+    }
+    // moving the point keeps the compact long of the value, unscaledValue() would inflate a BigInteger
+    BigDecimal integral = v.scale() == 0 ? v : v.scaleByPowerOfTen(v.scale());
+    if (integral.compareTo(MAX) > 0 || integral.compareTo(MIN) < 0) {
+      return OVERFLOW;
+    }
+    return integral.longValue();
+  }
+
+  /**
+   * Change the scale of an unscaled value, rounding HALF_UP like {@link Roundings#money}
+   */
+  public static long rescale(long unscaled, int fromScale, int toScale) {
+    if (unscaled == OVERFLOW) {
+      return OVERFLOW;
+    }
+    if (fromScale == toScale) {
+      return unscaled;
+    }
+    if (toScale > fromScale) {
+      int shift = toScale - fromScale;
+      if (shift > MAX_SHIFT) {
+        return unscaled == 0 ? 0 : OVERFLOW;
+      }
+      long factor = POW10[shift];
+      long high = Math.multiplyHigh(unscaled, factor);
+      long result = unscaled * factor;
+      return high == (result >> 63) && result != OVERFLOW ? result : OVERFLOW;
+    }
+
+    int shift = fromScale - toScale;
+    if (shift > MAX_SHIFT) {
+      return unscaled == 0 ? 0 : OVERFLOW;
+    }
+    long divisor = POW10[shift];
+    long quotient = unscaled / divisor;
+    long remainder = unscaled % divisor;
+    // HALF_UP: a dropped part of at least one half rounds away from zero
+    if (Math.abs(remainder) >= divisor / 2) {
+      quotient += Long.signum(unscaled);
+    }
+    return quotient;
+  }
+
+  /**
+   * {@code a * b} rounded HALF_UP to {@code scale}, like {@code Roundings.money(a.multiply(b), scale)}
+   */
+  public static long multiply(long a, int aScale, long b, int bScale, int scale) {
+    if (a == OVERFLOW || b == OVERFLOW) {
+      return OVERFLOW;
+    }
+    long product = a * b;
+    if (Math.multiplyHigh(a, b) != (product >> 63) || product == OVERFLOW) {
+      return OVERFLOW;
+    }
+    return rescale(product, aScale + bScale, scale);
+  }
+
+  /**
+   * {@code a + b} at the same scale
+   */
+  public static long add(long a, long b) {
+    if (a == OVERFLOW || b == OVERFLOW) {
+      return OVERFLOW;
+    }
+    long sum = a + b;
+    // overflow iff both operands have the same sign and the sum's sign differs
+    return ((a ^ sum) & (b ^ sum)) < 0 ? OVERFLOW : sum;
+  }
+
+  public static BigDecimal toBigDecimal(long unscaled, int scale) {
+    return BigDecimal.valueOf(unscaled, scale);
+  }
+}
@@ -11,6 +11,11 @@ public final class Roundings {
     return v.setScale(scale, RoundingMode.HALF_UP);
   }
 
+  /** invert a quote (1 / v) and keep specified decimal places, round to nearest */
+  public static BigDecimal inverseRate(BigDecimal v, int scale) {
+    return BigDecimal.ONE.divide(v, scale, RoundingMode.HALF_UP);
+  }
+
   /** keep specified decimal places for money amounts, round to nearest */
   public static BigDecimal money(BigDecimal v, int scale) {
     return v.setScale(scale, RoundingMode.HALF_UP);
@@ -0,0 +1,90 @@
+package com.verifyme.common.utils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller runs the call, every caller
+ * arriving while it is in flight waits for and shares its outcome, value or failure alike.
+ * Nothing is kept once the call completes, so a failure is never served to later callers.
+ */
+public final class SingleFlight<K, V> {
+
+  private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+  /**
+   * Run the call for the key, or join the call already in flight for it
+   */
+  public V execute(K key, Supplier<V> call) {
+    CompletableFuture<V> future = new CompletableFuture<>();
+    CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+    if (existing != null) {
+      return await(existing);
+    }
+
+    V value;
+    try {
+      value = call.get();
+    } catch (RuntimeException | Error e) {
+      inFlight.remove(key, future);
+      future.completeExceptionally(e);
+      throw e;
+    }
+    inFlight.remove(key, future);
+    future.complete(value);
+    return value;
+  }
+
+  /**
+   * Non-blocking variant of {@link #execute}, sharing in-flight calls with blocking callers
+   */
+  public CompletionStage<V> executeAsync(K key, Supplier<? extends CompletionStage<V>> call) {
+    CompletableFuture<V> future = new CompletableFuture<>();
+    CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+    if (existing != null) {
+      return existing.minimalCompletionStage();
+    }
+
+    CompletionStage<V> stage;
+    try {
+      stage = call.get();
+    } catch (RuntimeException | Error e) {
+      inFlight.remove(key, future);
+      future.completeExceptionally(e);
+      return future.minimalCompletionStage();
+    }
+    stage.whenComplete((value, failure) -> {
+      inFlight.remove(key, future);
+      if (failure != null) {
+        future.completeExceptionally(failure instanceof CompletionException && failure.getCause() != null
+            ? failure.getCause() : failure);
+      } else {
+        future.complete(value);
+      }
+    });
+    return future.minimalCompletionStage();
+  }
+
+  /** number of calls currently in flight */
+  public int size() {
+    return inFlight.size();
+  }
+
+  private static <V> V await(CompletableFuture<V> future) {
+    try {
+      return future.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      if (e.getCause() instanceof Error cause) {
+        throw cause;
+      }
+      throw e;
+    }
+  }
+}
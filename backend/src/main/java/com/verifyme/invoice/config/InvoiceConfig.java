@@ -3,6 +3,10 @@ package com.verifyme.invoice.config;
 import io.smallrye.config.ConfigMapping;
 import io.smallrye.config.WithDefault;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
 @ConfigMapping(prefix = "invoice")
 public interface InvoiceConfig {
 
@@ -21,6 +25,56 @@ public interface InvoiceConfig {
      */
     ValidationConfig validation();
 
+    /**
+     * Exchange rate cache configuration
+     */
+    RateCacheConfig rateCache();
+
+    /**
+     * Invoice total cache configuration
+     */
+    ResultCacheConfig resultCache();
+
+    /**
+     * HTTP caching of the GET total endpoint
+     */
+    HttpCacheConfig httpCache();
+
+    /**
+     * NDJSON streaming configuration
+     */
+    StreamConfig stream();
+
+    /**
+     * Historical rate preload configuration
+     */
+    PreloadConfig preload();
+
+    /**
+     * Execution configuration of the blocking invoice endpoints
+     */
+    ExecutionConfig execution();
+
+    /**
+     * Admission control of the calculations waiting on Frankfurter
+     */
+    AdmissionConfig admission();
+
+    /**
+     * Exchange rate source configuration
+     */
+    RatesConfig rates();
+
+    /**
+     * Sampled request log configuration
+     */
+    RequestLogConfig requestLog();
+
+    /**
+     * Startup warm-up configuration
+     */
+    WarmupConfig warmup();
+
     interface DecimalConfig {
         /**
          * Number of decimal places for exchange rates
@@ -48,6 +102,9 @@ public interface InvoiceConfig {
         @WithDefault("500")
         int internalErrorStatus();
 
+        @WithDefault("503")
+        int serviceUnavailableStatus();
+
         /**
          * Error message templates
          */
@@ -79,5 +136,228 @@ public interface InvoiceConfig {
          */
         @WithDefault("0.0")
         String minAmount();
+
+        /**
+         * Check invoices with plain field checks first, Hibernate Validator only reports the
+         * violations of invalid ones; when off, every invoice goes through Hibernate Validator
+         */
+        @WithDefault("true")
+        boolean fastPath();
+    }
+
+    interface RateCacheConfig {
+        /**
+         * Maximum number of (date, from, to) exchange rates kept in memory
+         */
+        @WithDefault("10000")
+        long maxSize();
+
+        /**
+         * Time to live for rates of today or of dates Frankfurter has not published yet,
+         * rates of past dates never expire
+         */
+        @WithDefault("PT5M")
+        Duration currentDateTtl();
+
+        /**
+         * Local file persisting rates of past dates across restarts, persistence is off when unset
+         */
+        Optional<String> snapshotPath();
+    }
+
+    interface ResultCacheConfig {
+        /**
+         * Whether totals of invoices already computed are answered from memory
+         */
+        @WithDefault("true")
+        boolean enabled();
+
+        /**
+         * Maximum number of invoice lines held by the cached invoices, bounds the memory of the cache
+         */
+        @WithDefault("100000")
+        long maxLines();
+
+        /**
+         * Time to live for totals of today or of dates Frankfurter has not published yet, 0 leaves them
+         * out of the cache; totals of past dates never expire
+         */
+        @WithDefault("PT30S")
+        Duration currentDateTtl();
+    }
+
+    interface HttpCacheConfig {
+        /**
+         * Cache-Control max-age of totals of past dates, which can no longer change
+         */
+        @WithDefault("P365D")
+        Duration settledMaxAge();
+
+        /**
+         * Cache-Control max-age of totals of today or of dates Frankfurter has not published yet
+         */
+        @WithDefault("PT30S")
+        Duration currentMaxAge();
+    }
+
+    interface StreamConfig {
+        /**
+         * Number of streamed invoices read ahead and computed together,
+         * bounds the memory held per stream
+         */
+        @WithDefault("100")
+        int chunkSize();
+    }
+
+    interface PreloadConfig {
+        /**
+         * Whether historical rates are preloaded when the application starts
+         */
+        @WithDefault("false")
+        boolean onStartup();
+
+        /**
+         * Whether {@code POST /admin/rates/preload} is served; it is unauthenticated and starts up to
+         * {@code days} of Frankfurter range requests, so only enable it where the port is not public
+         */
+        @WithDefault("false")
+        boolean endpointEnabled();
+
+        /**
+         * Invoice currencies the rates are preloaded for
+         */
+        @WithDefault("EUR,USD")
+        List<String> baseCurrencies();
+
+        /**
+         * Line currencies converted into each base currency
+         */
+        @WithDefault("EUR,USD,GBP,JPY,CHF")
+        List<String> currencies();
+
+        /**
+         * Number of past days preloaded, counted back from today
+         */
+        @WithDefault("365")
+        int days();
+
+        /**
+         * Number of days fetched per Frankfurter range request
+         */
+        @WithDefault("90")
+        int chunkDays();
+
+        /**
+         * Exit once the startup preload is done, with status 1 if no rate was loaded;
+         * bake-rates.sh uses it to write the baked rate snapshot
+         */
+        @WithDefault("false")
+        boolean exitWhenDone();
+    }
+
+    interface ExecutionConfig {
+        /**
+         * Threads running the blocking invoice calculations and their Frankfurter calls
+         */
+        @WithDefault("worker")
+        Mode mode();
+
+        /**
+         * Maximum number of upstream rate requests in flight while prefetching the rates of a batch
+         */
+        @WithDefault("8")
+        int fetchParallelism();
+
+        enum Mode {
+            /** the bounded Quarkus worker pool */
+            WORKER,
+            /** one virtual thread per request, needs Java 21+ and falls back to the worker pool otherwise */
+            VIRTUAL_THREADS
+        }
+    }
+
+    interface AdmissionConfig {
+        /**
+         * Whether calculations that may wait on Frankfurter are limited and shed under load; those
+         * needing no upstream call are always admitted
+         */
+        @WithDefault("true")
+        boolean enabled();
+
+        /**
+         * Maximum number of calculations waiting on Frankfurter at once
+         */
+        @WithDefault("64")
+        int maxConcurrent();
+
+        /**
+         * Maximum number of calculations waiting for admission, more are rejected at once
+         */
+        @WithDefault("128")
+        int queueSize();
+
+        /**
+         * Longest wait for admission before the request is rejected
+         */
+        @WithDefault("PT0.5S")
+        Duration queueTimeout();
+
+        /**
+         * Retry-After of rejected requests, in whole seconds
+         */
+        @WithDefault("PT1S")
+        Duration retryAfter();
+    }
+
+    interface RatesConfig {
+        /**
+         * How rates are obtained from Frankfurter: BASE fetches the quotes of the invoice currencies
+         * anchored on the invoice currency, one request and cache entry per (date, from, to);
+         * TRIANGULATED fetches the whole table of {@link #anchor()} once per date and derives every
+         * pair locally as quote(to) / quote(from), rounded once HALF_UP to the rate scale
+         */
+        @WithDefault("base")
+        Source source();
+
+        /**
+         * Anchor currency of the TRIANGULATED tables, ECB publishes its reference rates against EUR
+         */
+        @WithDefault("EUR")
+        String anchor();
+
+        enum Source {
+            BASE,
+            TRIANGULATED
+        }
+    }
+
+    interface RequestLogConfig {
+        /**
+         * Share of successful Frankfurter calls and invoice calculations logged, from 0 (none) to 1 (all)
+         */
+        @WithDefault("0.01")
+        double sampleRate();
+
+        /**
+         * Calls and calculations at least this slow are always logged, like failed Frankfurter calls
+         */
+        @WithDefault("PT1S")
+        Duration slowThreshold();
+    }
+
+    interface WarmupConfig {
+        /**
+         * Classpath resource of a rate snapshot baked into the application by bake-rates.sh,
+         * loaded into the rate cache at startup when present
+         */
+        @WithDefault("rates/baked-rates.bin")
+        String snapshotResource();
+
+        /**
+         * Rounds of invoice calculations over the baked rates run at startup, before the application
+         * accepts requests; 0 only loads the baked rates
+         */
+        @WithDefault("200")
+        int iterations();
     }
 }
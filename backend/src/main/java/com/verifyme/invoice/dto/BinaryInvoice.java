@@ -0,0 +1,156 @@
+package com.verifyme.invoice.dto;
+
+import com.verifyme.common.utils.Currencies;
+import com.verifyme.invoice.model.InvoiceLine;
+
+import jakarta.ws.rs.BadRequestException;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+
+/**
+ * Compact binary encoding of an invoice for machine callers of {@code POST /invoice/total}, read
+ * without any text parsing. All numbers are big-endian:
+ * <pre>
+ *   version     1 byte, {@value #VERSION}
+ *   currency    3 ASCII letters
+ *   date        4 bytes, epoch day
+ *   line count  varint
+ *   per line:
+ *     currency  3 ASCII letters
+ *     scale     1 signed byte
+ *     amount    zigzag varint, unscaled value at the scale
+ * </pre>
+ * A line takes 5 to 14 bytes. Amounts are limited to 64 bit unscaled values, larger ones are sent as
+ * JSON. Lines carry no description, each read line gets {@value #DESCRIPTION} so the invoice
+ * validates like a posted one. Malformed bytes (a currency that is not 3 letters, no line, a
+ * negative amount) are a bad request while reading; the decoded invoice is then validated by the
+ * endpoint as any other.
+ */
+public final class BinaryInvoice {
+
+  public static final String MEDIA_TYPE = "application/x-verifyme-invoice";
+
+  static final int VERSION = 1;
+
+  /** description of every line read, the encoding has none */
+  static final String DESCRIPTION = "binary invoice line";
+
+  private BinaryInvoice() {}
+
+  /**
+   * @throws BadRequestException if the bytes are not one well-formed binary invoice
+   */
+  public static InvoiceRequest read(byte[] body) {
+    ByteBuffer in = ByteBuffer.wrap(body);
+    try {
+      if (in.get() != VERSION) {
+        throw new BadRequestException("unsupported binary invoice version " + body[0]);
+      }
+      InvoicePayload payload = new InvoicePayload();
+      payload.currency = currency(body, in);
+      payload.date = LocalDate.ofEpochDay(in.getInt());
+      final long count = varint(in);
+      if (count < 1 || count > in.remaining() / 5) { // a line takes at least 5 bytes
+        throw new BadRequestException("binary invoice with " + count + " lines in " + body.length + " bytes");
+      }
+      payload.lines = new ArrayList<>((int) count);
+      for (int i = 0; i < count; i++) {
+        InvoiceLine line = new InvoiceLine();
+        line.description = DESCRIPTION;
+        line.currency = currency(body, in);
+        final int scale = in.get();
+        final long unscaled = zigzag(varint(in));
+        if (unscaled < 0) {
+          throw new BadRequestException("negative amount in binary invoice line " + i);
+        }
+        line.amount = BigDecimal.valueOf(unscaled, scale);
+        payload.lines.add(line);
+      }
+      if (in.hasRemaining()) {
+        throw new BadRequestException(in.remaining() + " bytes after the binary invoice");
+      }
+      InvoiceRequest request = new InvoiceRequest();
+      request.invoice = payload;
+      return request;
+    } catch (BufferUnderflowException e) {
+      throw new BadRequestException("truncated binary invoice");
+    }
+  }
+
+  /**
+   * Encode {@code invoice} as {@link #read} expects it
+   *
+   * @throws IllegalArgumentException if a currency is not 3 letters or an amount does not fit the format
+   */
+  public static void write(InvoicePayload invoice, OutputStream out) throws IOException {
+    DataOutputStream data = new DataOutputStream(out);
+    data.writeByte(VERSION);
+    writeCurrency(invoice.currency, data);
+    data.writeInt(Math.toIntExact(invoice.date.toEpochDay()));
+    writeVarint(invoice.lines.size(), data);
+    for (InvoiceLine line : invoice.lines) {
+      writeCurrency(line.currency, data);
+      if (line.amount.scale() != (byte) line.amount.scale() || line.amount.unscaledValue().bitLength() > 63) {
+        throw new IllegalArgumentException("amount does not fit a binary invoice: " + line.amount);
+      }
+      data.writeByte(line.amount.scale());
+      long unscaled = line.amount.unscaledValue().longValue();
+      writeVarint((unscaled << 1) ^ (unscaled >> 63), data);
+    }
+    data.flush();
+  }
+
+  /** the interned code of the 3 letters at the buffer position */
+  private static String currency(byte[] body, ByteBuffer in) {
+    if (in.remaining() < 3) {
+      throw new BufferUnderflowException();
+    }
+    final int offset = in.position();
+    in.position(offset + 3);
+    final int id = Currencies.id(body, offset);
+    if (id == Currencies.NONE) {
+      throw new BadRequestException("invalid currency in binary invoice at byte " + offset);
+    }
+    return Currencies.code(id);
+  }
+
+  private static long varint(ByteBuffer in) {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      final byte b = in.get();
+      value |= (long) (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new BadRequestException("malformed varint in binary invoice");
+  }
+
+  private static long zigzag(long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+
+  private static void writeCurrency(String currency, DataOutputStream data) throws IOException {
+    final int id = Currencies.id(currency);
+    if (id == Currencies.NONE) {
+      throw new IllegalArgumentException("not a 3 letter currency: " + currency);
+    }
+    data.write(Currencies.code(id).getBytes(StandardCharsets.US_ASCII));
+  }
+
+  private static void writeVarint(long value, DataOutputStream data) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      data.writeByte((int) (value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    data.writeByte((int) value);
+  }
+}
@@ -0,0 +1,14 @@
+package com.verifyme.invoice.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+public class InvoiceBatchRequest {
+  /**
+   * invoices are validated one by one, so an invalid invoice only fails its own result
+   */
+  @NotNull
+  @Size(min = 1, message = "At least one invoice is required")
+  public List<@NotNull InvoicePayload> invoices;
+}
@@ -0,0 +1,14 @@
+package com.verifyme.invoice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one invoice in a batch, either its total or the error it failed with
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class InvoiceTotalResult {
+  public int index;
+  public int status;
+  public String total;
+  public String error;
+}
@@ -0,0 +1,13 @@
+package com.verifyme.invoice.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Summary of a historical rate preload
+ */
+public class RatePreloadResult {
+  public LocalDate startDate;
+  public LocalDate endDate;
+  public int requests;
+  public int rates;
+}
@@ -0,0 +1,56 @@
+package com.verifyme.invoice.events;
+
+import java.time.LocalDate;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One invoice total, rate lookups included. Begun when the calculation starts and committed when
+ * the total is known, on the thread that computed it; a failed calculation leaves an
+ * {@link InvoiceErrorEvent} instead.
+ */
+@Name("com.verifyme.invoice.Calculation")
+@Label("Invoice Calculation")
+@Category({"VerifyMe", "Invoice"})
+@Description("Total of one invoice, rate lookups included")
+@Enabled(false)
+@StackTrace(false)
+public class InvoiceCalculationEvent extends Event {
+
+  @Label("Lines")
+  public int lines;
+
+  @Label("Currencies")
+  @Description("Distinct line currencies converted to the base currency")
+  public int currencies;
+
+  @Label("Base Currency")
+  public String base;
+
+  @Label("Rate Date")
+  public String date;
+
+  @Label("Mode")
+  @Description("blocking, async or stream")
+  public String mode;
+
+  /**
+   * Commit the calculation begun with {@link #begin}, if the event is enabled and over its threshold
+   */
+  public void complete(String mode, String base, LocalDate date, int lines, int currencies) {
+    if (shouldCommit()) {
+      this.mode = mode;
+      this.base = base;
+      this.date = date.toString();
+      this.lines = lines;
+      this.currencies = currencies;
+      commit();
+    }
+  }
+}
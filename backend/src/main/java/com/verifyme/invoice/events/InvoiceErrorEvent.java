@@ -0,0 +1,46 @@
+package com.verifyme.invoice.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * An error response, committed by the error mappers with the exception that caused it. The mapper's
+ * own stack trace would say nothing about the failure, so none is recorded.
+ */
+@Name("com.verifyme.invoice.Error")
+@Label("Invoice Error")
+@Category({"VerifyMe", "Invoice"})
+@Description("Error response of an invoice endpoint")
+@Enabled(false)
+@StackTrace(false)
+public class InvoiceErrorEvent extends Event {
+
+  @Label("Type")
+  @Description("validation, bad_request, not_found or internal")
+  public String type;
+
+  @Label("Status")
+  public int status;
+
+  @Label("Exception")
+  public String exception;
+
+  @Label("Message")
+  public String message;
+
+  public static void commit(String type, int status, Throwable cause) {
+    InvoiceErrorEvent event = new InvoiceErrorEvent();
+    if (event.shouldCommit()) {
+      event.type = type;
+      event.status = status;
+      event.exception = cause.getClass().getName();
+      event.message = cause.getMessage();
+      event.commit();
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package com.verifyme.invoice.events;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * The rate of one currency pair for one date. A pair served by the rate cache is a {@code hit}, a
+ * pair fetched from Frankfurter is a {@code miss}, or an {@code error} when the fetch failed, and
+ * carries how long the caller waited on Frankfurter, coalesced with other callers or not.
+ */
+@Name("com.verifyme.invoice.RateLookup")
+@Label("Rate Lookup")
+@Category({"VerifyMe", "Invoice"})
+@Description("Exchange rate of one currency pair for one date, from the rate cache or Frankfurter")
+@Enabled(false)
+@StackTrace(false)
+public class RateLookupEvent extends Event {
+
+  public static final String HIT = "hit";
+  public static final String MISS = "miss";
+  public static final String ERROR = "error";
+
+  @Label("From")
+  public String from;
+
+  @Label("To")
+  public String to;
+
+  @Label("Rate Date")
+  public String date;
+
+  @Label("Outcome")
+  @Description("hit, miss or error")
+  public String outcome;
+
+  @Label("Upstream Duration")
+  @Description("Time spent waiting on Frankfurter, 0 for a cache hit")
+  @Timespan(Timespan.NANOSECONDS)
+  public long upstreamDuration;
+
+  /**
+   * Commit a lookup served by the rate cache
+   */
+  public static void hit(String from, String to, LocalDate date) {
+    commit(from, to, date, HIT, 0);
+  }
+
+  /**
+   * Commit one lookup per source currency of a Frankfurter fetch, which all waited the same time
+   *
+   * @param outcome {@link #MISS}, or {@link #ERROR} when the fetch failed
+   * @param upstreamStart {@link System#nanoTime} when the fetch started
+   */
+  public static void fetched(Collection<String> currencies, String to, LocalDate date, String outcome,
+      long upstreamStart) {
+    if (!new RateLookupEvent().isEnabled()) {
+      return;
+    }
+    long upstreamDuration = System.nanoTime() - upstreamStart;
+    for (String from : currencies) {
+      commit(from, to, date, outcome, upstreamDuration);
+    }
+  }
+
+  private static void commit(String from, String to, LocalDate date, String outcome, long upstreamDuration) {
+    RateLookupEvent event = new RateLookupEvent();
+    if (event.shouldCommit()) {
+      event.from = from;
+      event.to = to;
+      event.date = date.toString();
+      event.outcome = outcome;
+      event.upstreamDuration = upstreamDuration;
+      event.commit();
+    }
+  }
+}
@@ -1,5 +1,7 @@
 package com.verifyme.invoice.model;
 
+import com.verifyme.common.utils.Currencies;
+
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -15,4 +17,12 @@ public class InvoiceLine {
   @NotNull
   @DecimalMin("0.0")
   public BigDecimal amount;
+
+  /**
+   * @return the {@link Currencies} id of the currency, case and surrounding whitespace ignored,
+   *         resolved without allocating
+   */
+  public int currencyId() {
+    return Currencies.id(currency);
+  }
 }
@@ -0,0 +1,67 @@
+package com.verifyme.invoice.resource;
+
+import com.verifyme.invoice.dto.InvoicePayload;
+import com.verifyme.invoice.dto.InvoiceRequest;
+import com.verifyme.invoice.model.InvoiceLine;
+
+import jakarta.ws.rs.BadRequestException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Query encoding of an invoice for {@code GET /invoice/total}:
+ * {@code ?currency=USD&date=2023-01-15&line=EUR:100.00&line=GBP:19.99}, one {@code line} per invoice
+ * line in order, as {@code currency:amount}. Lines have no description, each gets its own
+ * {@code line} value so the invoice validates like a posted one. Missing values are left null for
+ * validation to report; values that cannot be read are a bad request.
+ */
+final class InvoiceQuery {
+
+  private InvoiceQuery() {}
+
+  static InvoiceRequest parse(String currency, String date, List<String> lines) {
+    InvoicePayload payload = new InvoicePayload();
+    payload.currency = currency;
+    payload.date = date(date);
+    if (lines != null && !lines.isEmpty()) {
+      payload.lines = new ArrayList<>(lines.size());
+      for (String line : lines) {
+        payload.lines.add(line(line));
+      }
+    }
+    InvoiceRequest request = new InvoiceRequest();
+    request.invoice = payload;
+    return request;
+  }
+
+  private static LocalDate date(String date) {
+    if (date == null) {
+      return null;
+    }
+    try {
+      return LocalDate.parse(date);
+    } catch (DateTimeParseException e) {
+      throw new BadRequestException("malformed invoice date '" + date + "', expected yyyy-MM-dd");
+    }
+  }
+
+  private static InvoiceLine line(String value) {
+    final int colon = value.indexOf(':');
+    if (colon < 0) {
+      throw new BadRequestException("malformed invoice line '" + value + "', expected currency:amount");
+    }
+    InvoiceLine line = new InvoiceLine();
+    line.description = value;
+    line.currency = value.substring(0, colon);
+    try {
+      line.amount = new BigDecimal(value.substring(colon + 1));
+    } catch (NumberFormatException e) {
+      throw new BadRequestException("malformed invoice line '" + value + "', expected currency:amount");
+    }
+    return line;
+  }
+}
@@ -1,15 +1,57 @@
     package com.verifyme.invoice.resource;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.verifyme.common.error.GlobalErrorMapper;
+import com.verifyme.common.error.ValidationErrorMapper;
+import com.verifyme.invoice.config.InvoiceConfig;
+import com.verifyme.invoice.dto.BinaryInvoice;
+import com.verifyme.invoice.dto.InvoiceBatchRequest;
+import com.verifyme.invoice.dto.InvoicePayload;
 import com.verifyme.invoice.dto.InvoiceRequest;
+import com.verifyme.invoice.dto.InvoiceTotalResult;
+import com.verifyme.invoice.service.AdmissionControl;
+import com.verifyme.invoice.service.ExchangeRateCache;
+import com.verifyme.invoice.service.InvoiceExecutor;
 import com.verifyme.invoice.service.InvoiceService;
+import com.verifyme.invoice.service.InvoiceStreamReader;
+import com.verifyme.invoice.service.InvoiceValidator;
+import io.smallrye.common.annotation.Blocking;
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
 import jakarta.inject.Inject;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
 import jakarta.validation.Valid;
+import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.ServiceUnavailableException;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.jboss.resteasy.reactive.RestStreamElementType;
+import org.jboss.resteasy.reactive.common.util.RestMediaType;
 
 @Path("/invoice")
 public class InvoiceResource {
@@ -17,12 +59,300 @@ public class InvoiceResource {
   @Inject
   InvoiceService invoiceService;
 
+  @Inject
+  InvoiceValidator invoiceValidator;
+
+  @Inject
+  ValidationErrorMapper validationErrorMapper;
+
+  @Inject
+  GlobalErrorMapper errorMapper;
+
+  @Inject
+  ObjectMapper objectMapper;
+
+  @Inject
+  InvoiceConfig config;
+
+  @Inject
+  InvoiceExecutor executor;
+
+  @Inject
+  InvoiceStreamReader invoiceStreamReader;
+
+  @Inject
+  ExchangeRateCache rateCache;
+
+  @Inject
+  AdmissionControl admission;
+
+  /**
+   * the calculation blocks on Frankfurter, so it runs on the threads of {@code invoice.execution.mode};
+   * when it may wait on Frankfurter it first goes through admission control, see {@link #calculate}.
+   * Like every endpoint taking a body, it is {@link Blocking}: the body is bound and validated on a
+   * worker, a large invoice never stalls the event loop
+   */
   @POST
   @Path("/total")
+  @Blocking
   @Consumes(MediaType.APPLICATION_JSON)
   @Produces(MediaType.TEXT_PLAIN)
-  public Response total(@Valid InvoiceRequest body) {
-    var result = invoiceService.calculateTotal(body.invoice);
-    return Response.ok(result.toPlainString(), MediaType.TEXT_PLAIN).build();
+  public Uni<Response> total(InvoiceRequest body) {
+    validate("total", body);
+    return calculate(body.invoice)
+        .map(result -> Response.ok(result.toPlainString(), MediaType.TEXT_PLAIN).build());
+  }
+
+  /**
+   * binary variant of {@link #total} for service-to-service callers, on the same path and chosen by the
+   * {@link BinaryInvoice#MEDIA_TYPE} content type: amounts arrive as scaled integers and currencies as
+   * 3 bytes, so the body is read without text parsing, then validated, computed and answered like
+   * {@link #total}
+   */
+  @POST
+  @Path("/total")
+  @Blocking
+  @Consumes(BinaryInvoice.MEDIA_TYPE)
+  @Produces(MediaType.TEXT_PLAIN)
+  public Uni<Response> totalBinary(byte[] body) {
+    InvoiceRequest request = BinaryInvoice.read(body);
+    validate("total", request);
+    return calculate(request.invoice)
+        .map(result -> Response.ok(result.toPlainString(), MediaType.TEXT_PLAIN).build());
+  }
+
+  /**
+   * cacheable variant of {@link #total} for HTTP caches, CDNs and browsers, the invoice is encoded in
+   * the query as described by {@link InvoiceQuery}. The total is its own strong ETag, the body is
+   * nothing else; an If-None-Match that still matches is answered 304. Totals of past dates can no
+   * longer change and are cacheable for {@code invoice.http-cache.settled-max-age}, totals of today
+   * only for {@code invoice.http-cache.current-max-age}. Errors carry no caching headers.
+   */
+  @GET
+  @Path("/total")
+  @Produces(MediaType.TEXT_PLAIN)
+  public Uni<Response> totalQuery(@QueryParam("currency") String currency, @QueryParam("date") String date,
+      @QueryParam("line") List<String> lines, @Context Request request) {
+    InvoiceRequest body = InvoiceQuery.parse(currency, date, lines);
+    validate("total", body);
+    final String cacheControl = cacheControl(body.invoice.date);
+    return calculate(body.invoice)
+        .map(result -> {
+          final String total = result.toPlainString();
+          final EntityTag tag = new EntityTag(total);
+          Response.ResponseBuilder notModified = request.evaluatePreconditions(tag);
+          Response.ResponseBuilder response = notModified != null
+              ? notModified
+              : Response.ok(total, MediaType.TEXT_PLAIN).tag(tag);
+          return response.header(HttpHeaders.CACHE_CONTROL, cacheControl).build();
+        });
+  }
+
+  /**
+   * run the calculation on the threads of {@code invoice.execution.mode}. One that may wait on
+   * Frankfurter is admitted by {@link AdmissionControl} first and may be rejected with 503; one whose
+   * rates are all cached, or that has no foreign line, always runs, even while Frankfurter is slow
+   */
+  private Uni<BigDecimal> calculate(InvoicePayload invoice) {
+    Uni<BigDecimal> calculation = Uni.createFrom().item(() -> invoiceService.calculateTotal(invoice))
+        .runSubscriptionOn(executor);
+    return admitIfUpstream(invoice, calculation);
+  }
+
+  private <T> Uni<T> admitIfUpstream(InvoicePayload invoice, Uni<T> calculation) {
+    return invoiceService.needsUpstream(invoice) ? admission.admit(calculation) : calculation;
+  }
+
+  private String cacheControl(LocalDate date) {
+    return rateCache.isSettled(date)
+        ? "public, max-age=" + config.httpCache().settledMaxAge().toSeconds() + ", immutable"
+        : "public, max-age=" + config.httpCache().currentMaxAge().toSeconds();
+  }
+
+  /**
+   * streaming variant of {@link #total} for very large invoices: lines are validated and added to the
+   * total while the body is read, without binding them, so memory does not grow with the line count.
+   * Its currencies are only known once read, so it always goes through admission control first.
+   */
+  @POST
+  @Path("/total/stream")
+  @Blocking
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.TEXT_PLAIN)
+  public Uni<Response> totalStream(InputStream body) {
+    return admission.admit(Uni.createFrom().item(() -> invoiceStreamReader.readTotal(body))
+            .runSubscriptionOn(executor))
+        .map(result -> Response.ok(result.toPlainString(), MediaType.TEXT_PLAIN).build());
+  }
+
+  /**
+   * non-blocking variant of {@link #total}: the body is bound and validated on a worker, then rates
+   * are fetched without parking it, the calculation goes on on the event loop. Admitted like
+   * {@link #total}.
+   */
+  @POST
+  @Path("/total/async")
+  @Blocking
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.TEXT_PLAIN)
+  public Uni<Response> totalAsync(InvoiceRequest body) {
+    validate("totalAsync", body);
+    Uni<BigDecimal> calculation = Uni.createFrom()
+        .deferred(() -> invoiceService.calculateTotalAsync(body.invoice));
+    return admitIfUpstream(body.invoice, calculation)
+        .map(result -> Response.ok(result.toPlainString(), MediaType.TEXT_PLAIN).build());
+  }
+
+  /**
+   * calculate the totals of many invoices in one request, results keep the input order and
+   * an invalid, failing or shed invoice only fails its own result
+   */
+  @POST
+  @Path("/totals")
+  @Blocking
+  @Consumes(MediaType.APPLICATION_JSON)
+  @Produces(MediaType.APPLICATION_JSON)
+  public Uni<List<InvoiceTotalResult>> totals(@Valid InvoiceBatchRequest body) {
+    return Uni.createFrom()
+        .deferred(() -> evaluate(body.invoices, 0, new InvoiceTotalResult[body.invoices.size()]))
+        .runSubscriptionOn(executor);
+  }
+
+  /**
+   * calculate the totals of newline-delimited invoices, writing one result line per invoice as soon
+   * as its chunk is computed. Lines are only read when results are requested, so memory stays bounded
+   * by the chunk size whatever the size of the upload, and a slow client also slows down the reading.
+   */
+  @POST
+  @Path("/totals/stream")
+  @Blocking
+  @Consumes(RestMediaType.APPLICATION_NDJSON)
+  @Produces(RestMediaType.APPLICATION_NDJSON)
+  @RestStreamElementType(MediaType.APPLICATION_JSON)
+  public Multi<InvoiceTotalResult> totalsStream(InputStream body) {
+    final ObjectReader payloadReader = objectMapper.readerFor(InvoicePayload.class);
+    final AtomicInteger lineNumber = new AtomicInteger();
+
+    return Multi.createFrom()
+        .resource(() -> new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)),
+            reader -> Multi.createFrom().iterable(() -> reader.lines().iterator()))
+        .withFinalizer(InvoiceResource::closeQuietly)
+        .filter(line -> !line.isBlank())
+        .map(line -> new NumberedLine(lineNumber.getAndIncrement(), line))
+        .group().intoLists().of(config.stream().chunkSize())
+        .onItem().transformToUniAndConcatenate(chunk -> evaluateLines(payloadReader, chunk))
+        .onItem().transformToIterable(results -> results)
+        .runSubscriptionOn(executor);
+  }
+
+  private record NumberedLine(int index, String json) {}
+
+  private Uni<List<InvoiceTotalResult>> evaluateLines(ObjectReader payloadReader, List<NumberedLine> chunk) {
+    final List<InvoicePayload> invoices = new ArrayList<>(chunk.size());
+    final InvoiceTotalResult[] results = new InvoiceTotalResult[chunk.size()];
+    for (int i = 0; i < chunk.size(); i++) {
+      try {
+        InvoicePayload invoice = payloadReader.readValue(chunk.get(i).json());
+        invoices.add(invoice);
+        if (invoice == null) { // a "null" line, the validator expects an invoice
+          results[i] = failure(chunk.get(i).index(), errorMapper.toResponse(
+              new BadRequestException("invoice must not be null")));
+        }
+      } catch (JsonProcessingException e) {
+        invoices.add(null);
+        results[i] = failure(chunk.get(i).index(), errorMapper.toResponse(
+            new BadRequestException("malformed invoice JSON: " + e.getOriginalMessage())));
+      }
+    }
+    return evaluate(invoices, chunk.get(0).index(), results);
+  }
+
+  /**
+   * compute a run of invoices into {@code results}, slots already holding a result are skipped.
+   * Each invoice is validated on its own; those whose rates are at hand are computed at once, the
+   * others are admitted by {@link AdmissionControl} as one group, which fetches every (date, currency
+   * set) once up front or, when shed, answers each of its invoices with a 503 result.
+   */
+  private Uni<List<InvoiceTotalResult>> evaluate(List<InvoicePayload> invoices, int firstIndex,
+      InvoiceTotalResult[] results) {
+    List<Integer> upstream = new ArrayList<>(invoices.size());
+    for (int i = 0; i < invoices.size(); i++) {
+      if (results[i] != null) {
+        continue;
+      }
+      Set<ConstraintViolation<InvoicePayload>> violations = invoiceValidator.validate(invoices.get(i));
+      if (!violations.isEmpty()) {
+        results[i] = failure(firstIndex + i,
+            validationErrorMapper.toResponse(new ConstraintViolationException(violations)));
+      } else if (invoiceService.needsUpstream(invoices.get(i))) {
+        upstream.add(i);
+      } else {
+        results[i] = result(firstIndex + i, invoices.get(i));
+      }
+    }
+    if (upstream.isEmpty()) {
+      return Uni.createFrom().item(Arrays.asList(results));
+    }
+
+    Uni<List<InvoiceTotalResult>> fetched = Uni.createFrom().item(() -> {
+      // fetch every (date, currency set) of the group once before computing anything
+      invoiceService.prefetchExchangeRates(upstream.stream().map(invoices::get).toList());
+      for (int i : upstream) {
+        results[i] = result(firstIndex + i, invoices.get(i));
+      }
+      return Arrays.asList(results);
+    }).runSubscriptionOn(executor);
+    // a shed group is answered on the calculation threads too: a queue timeout fails on a timer
+    // thread, and a stream goes on reading its next chunk from here
+    return admission.admit(fetched)
+        .onFailure(ServiceUnavailableException.class).recoverWithUni(shed -> Uni.createFrom().item(() -> {
+          for (int i : upstream) {
+            results[i] = failure(firstIndex + i, errorMapper.toResponse(shed));
+          }
+          return Arrays.asList(results);
+        }).runSubscriptionOn(executor));
+  }
+
+  private InvoiceTotalResult result(int index, InvoicePayload invoice) {
+    try {
+      return success(index, invoiceService.calculateTotal(invoice).toPlainString());
+    } catch (RuntimeException e) {
+      return failure(index, errorMapper.toResponse(e));
+    }
+  }
+
+  /**
+   * the body is validated here rather than by {@code @Valid}, so valid invoices take the fast path of
+   * {@link InvoiceValidator}; violations are reported as method validation would
+   */
+  private void validate(String endpoint, InvoiceRequest body) {
+    Set<? extends ConstraintViolation<?>> violations = invoiceValidator.validateBody(endpoint, body);
+    if (!violations.isEmpty()) {
+      throw new ConstraintViolationException(violations);
+    }
+  }
+
+  private static void closeQuietly(BufferedReader reader) {
+    try {
+      reader.close();
+    } catch (IOException e) {
+      // the request is over either way
+    }
+  }
+
+  private static InvoiceTotalResult success(int index, String total) {
+    InvoiceTotalResult result = new InvoiceTotalResult();
+    result.index = index;
+    result.status = Response.Status.OK.getStatusCode();
+    result.total = total;
+    return result;
+  }
+
+  private static InvoiceTotalResult failure(int index, Response error) {
+    InvoiceTotalResult result = new InvoiceTotalResult();
+    result.index = index;
+    result.status = error.getStatus();
+    result.error = String.valueOf(error.getEntity());
+    return result;
   }
-}
\ No newline at end of file
+}
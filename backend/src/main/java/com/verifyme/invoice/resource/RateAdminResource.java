@@ -0,0 +1,35 @@
+package com.verifyme.invoice.resource;
+
+import com.verifyme.invoice.config.InvoiceConfig;
+import com.verifyme.invoice.dto.RatePreloadResult;
+import com.verifyme.invoice.service.RatePreloader;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+
+@Path("/admin/rates")
+public class RateAdminResource {
+
+  @Inject
+  RatePreloader ratePreloader;
+
+  @Inject
+  InvoiceConfig config;
+
+  /**
+   * preload the configured window of historical rates into the rate cache; answered 404 as if absent
+   * unless {@code invoice.preload.endpoint-enabled} is set
+   */
+  @POST
+  @Path("/preload")
+  @Produces(MediaType.APPLICATION_JSON)
+  public RatePreloadResult preload() {
+    if (!config.preload().endpointEnabled()) {
+      throw new NotFoundException();
+    }
+    return ratePreloader.preload();
+  }
+}
@@ -0,0 +1,121 @@
+package com.verifyme.invoice.service;
+
+import com.verifyme.invoice.config.InvoiceConfig;
+
+import io.smallrye.mutiny.Uni;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.ServiceUnavailableException;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Admission control of the calculations that may wait on Frankfurter: at most
+ * {@code invoice.admission.max-concurrent} run at once, up to {@code invoice.admission.queue-size}
+ * more wait in line for at most {@code invoice.admission.queue-timeout}, anything beyond is shed with
+ * a {@link ServiceUnavailableException} carrying {@code Retry-After}. When Frankfurter slows down the
+ * limit keeps upstream-bound requests from taking every worker, so invoices needing no upstream call,
+ * which do not go through here, keep being answered. Waiting takes no thread: a queued request is a
+ * pending {@link CompletableFuture} completed by the release of a running one.
+ */
+@ApplicationScoped
+public class AdmissionControl {
+
+  static final String QUEUE_FULL = "queue_full";
+  static final String TIMEOUT = "timeout";
+
+  private final boolean enabled;
+  private final int maxConcurrent;
+  private final int queueSize;
+  private final Duration queueTimeout;
+  private final long retryAfterSeconds;
+  private final InvoiceMetrics metrics;
+
+  // guarded by this
+  private final ArrayDeque<CompletableFuture<Void>> queue = new ArrayDeque<>();
+  private int running;
+
+  @Inject
+  public AdmissionControl(InvoiceConfig config, InvoiceMetrics metrics) {
+    InvoiceConfig.AdmissionConfig admission = config.admission();
+    this.enabled = admission.enabled();
+    this.maxConcurrent = admission.maxConcurrent();
+    this.queueSize = admission.queueSize();
+    this.queueTimeout = admission.queueTimeout();
+    this.retryAfterSeconds = Math.max(1, admission.retryAfter().toSeconds());
+    this.metrics = metrics;
+    metrics.admission(this);
+  }
+
+  /**
+   * @return {@code work} subscribed once admitted, or a {@link ServiceUnavailableException} when the
+   *         queue is full or the wait exceeds the queue timeout
+   */
+  public <T> Uni<T> admit(Uni<T> work) {
+    if (!enabled) {
+      return work;
+    }
+    return acquire().chain(() -> work.onTermination().invoke(this::release));
+  }
+
+  private Uni<Void> acquire() {
+    final CompletableFuture<Void> ticket;
+    synchronized (this) {
+      if (running < maxConcurrent) {
+        running++;
+        return Uni.createFrom().voidItem();
+      }
+      if (queue.size() >= queueSize) {
+        return Uni.createFrom().failure(() -> shed(QUEUE_FULL));
+      }
+      ticket = new CompletableFuture<>();
+      queue.add(ticket);
+    }
+    return Uni.createFrom().completionStage(ticket)
+        .ifNoItem().after(queueTimeout).recoverWithUni(() -> abandon(ticket)
+            ? Uni.createFrom().failure(shed(TIMEOUT))
+            : Uni.createFrom().voidItem()) // admitted while timing out
+        .onCancellation().invoke(() -> {
+          if (!abandon(ticket)) {
+            release(); // the permit was handed over, hand it on
+          }
+        });
+  }
+
+  /**
+   * @return whether the ticket was still waiting, it no longer is
+   */
+  private synchronized boolean abandon(CompletableFuture<Void> ticket) {
+    return queue.remove(ticket);
+  }
+
+  /** hand the permit of a finished calculation to the next waiting one, or give it back */
+  private void release() {
+    final CompletableFuture<Void> next;
+    synchronized (this) {
+      next = queue.poll();
+      if (next == null) {
+        running--;
+        return;
+      }
+    }
+    next.complete(null);
+  }
+
+  private ServiceUnavailableException shed(String reason) {
+    metrics.shed(reason);
+    return new ServiceUnavailableException("too many invoices waiting on exchange rates, retry later",
+        retryAfterSeconds);
+  }
+
+  synchronized int queued() {
+    return queue.size();
+  }
+
+  synchronized int running() {
+    return running;
+  }
+}
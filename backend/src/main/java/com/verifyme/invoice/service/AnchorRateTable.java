@@ -0,0 +1,103 @@
+package com.verifyme.invoice.service;
+
+import com.verifyme.common.utils.Currencies;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * The rates of one day against a single anchor currency, as ECB publishes them (units of each
+ * currency per one anchor unit), from which the rate of any pair is derived locally.
+ * Quotes are a {@code double[]} indexed by {@link Currencies} id, {@code NaN} where unpublished.
+ * Immutable, shared between threads through the rate cache.
+ */
+public final class AnchorRateTable {
+
+  private final String anchor;
+  private final double[] quotes;
+  private final int size;
+
+  private AnchorRateTable(String anchor, double[] quotes, int size) {
+    this.anchor = anchor;
+    this.quotes = quotes;
+    this.size = size;
+  }
+
+  /**
+   * @param quotes units of each currency per one {@code anchor}, the anchor itself may be absent;
+   *               codes that are not 3 letters are dropped
+   */
+  public static AnchorRateTable of(String anchor, Map<String, Double> quotes) {
+    int anchorId = Currencies.id(anchor);
+    int length = anchorId + 1;
+    for (String currency : quotes.keySet()) {
+      length = Math.max(length, Currencies.id(currency) + 1);
+    }
+
+    double[] table = new double[length];
+    Arrays.fill(table, Double.NaN);
+    quotes.forEach((currency, quote) -> {
+      int id = Currencies.id(currency);
+      if (id != Currencies.NONE && quote != null) {
+        table[id] = quote;
+      }
+    });
+    if (anchorId != Currencies.NONE) {
+      table[anchorId] = 1.0;
+    }
+
+    int size = 0;
+    for (double quote : table) {
+      if (!Double.isNaN(quote)) {
+        size++;
+      }
+    }
+    return new AnchorRateTable(anchor, table, size);
+  }
+
+  public String anchor() {
+    return anchor;
+  }
+
+  public int size() {
+    return size;
+  }
+
+  public boolean contains(String currency) {
+    return !Double.isNaN(quote(Currencies.id(currency)));
+  }
+
+  /**
+   * @see #crossRate(int, int, int)
+   */
+  public BigDecimal crossRate(String from, String to, int scale) {
+    return crossRate(Currencies.id(from), Currencies.id(to), scale);
+  }
+
+  /**
+   * The rate from {@code from} to {@code to}: {@code quote(to) / quote(from)}, divided from the
+   * unrounded published quotes and rounded once, HALF_UP, to {@code scale} decimal places. A pair
+   * with the anchor on one side is the published quote or its inverse.
+   *
+   * @return the rate, or {@code null} if either currency is missing from the table;
+   *         a non-positive quote gives a non-positive rate for the caller to reject
+   */
+  public BigDecimal crossRate(int from, int to, int scale) {
+    double fromQuote = quote(from);
+    double toQuote = quote(to);
+    if (Double.isNaN(fromQuote) || Double.isNaN(toQuote)) {
+      return null;
+    }
+    if (fromQuote <= 0 || toQuote <= 0) {
+      return BigDecimal.ZERO;
+    }
+    // BigDecimal.valueOf keeps the published decimal digits of each quote
+    return BigDecimal.valueOf(toQuote).divide(BigDecimal.valueOf(fromQuote), scale, RoundingMode.HALF_UP);
+  }
+
+  private double quote(int id) {
+    return id >= 0 && id < quotes.length ? quotes[id] : Double.NaN;
+  }
+}
@@ -0,0 +1,195 @@
+package com.verifyme.invoice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.verifyme.invoice.config.InvoiceConfig;
+
+import io.quarkus.runtime.Startup;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-process cache of historical exchange rates keyed by (date, from, to).
+ * Rates of past dates never change, so they only leave the cache through size-based eviction;
+ * rates of today or of dates not published yet are kept for a short configurable time.
+ * When a snapshot path is configured, rates of past dates are also persisted to a {@link RateSnapshot}
+ * loaded at startup, so a restarted instance does not start cold. Appends are handed to a single
+ * writer thread, {@link #put} never waits on the disk and can be called from the event loop.
+ * Whole {@link AnchorRateTable}s of the triangulated rate source are kept per date with the same
+ * expiry, in memory only.
+ */
+@Startup
+@ApplicationScoped
+public class ExchangeRateCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(ExchangeRateCache.class);
+
+  /** Frankfurter publishes the ECB reference rates once per working day, Frankfurt time */
+  static final ZoneId PUBLICATION_ZONE = ZoneId.of("Europe/Berlin");
+
+  record Key(LocalDate date, String from, String to) {}
+
+  private final Cache<Key, BigDecimal> cache;
+  private final Cache<LocalDate, AnchorRateTable> tables;
+  private final Clock clock;
+  private final long currentDateTtlNanos;
+  private final RateSnapshot snapshot; // null when persistence is off
+  private final ExecutorService snapshotWriter; // null when persistence is off
+
+  @Inject
+  public ExchangeRateCache(InvoiceConfig config) {
+    this(config, Clock.system(PUBLICATION_ZONE), Ticker.systemTicker());
+  }
+
+  ExchangeRateCache(InvoiceConfig config, Clock clock, Ticker ticker) {
+    this.clock = clock;
+    this.currentDateTtlNanos = config.rateCache().currentDateTtl().toNanos();
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(config.rateCache().maxSize())
+        .expireAfter(new SettledDateExpiry<Key, BigDecimal>(Key::date))
+        .ticker(ticker)
+        .build();
+    this.tables = Caffeine.newBuilder()
+        .maximumSize(config.rateCache().maxSize())
+        .expireAfter(new SettledDateExpiry<LocalDate, AnchorRateTable>(date -> date))
+        .ticker(ticker)
+        .build();
+    this.snapshot = config.rateCache().snapshotPath()
+        .map(path -> openSnapshot(Path.of(path), config.decimal().rateScale()))
+        .orElse(null);
+    this.snapshotWriter = snapshot == null ? null : Executors.newSingleThreadExecutor(runnable -> {
+      Thread thread = new Thread(runnable, "rate-snapshot-writer");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  private static RateSnapshot openSnapshot(Path path, int rateScale) {
+    try {
+      return RateSnapshot.open(path, rateScale);
+    } catch (IOException | RuntimeException e) {
+      logger.warn("Cannot open rate snapshot {}, historical rates will not be persisted: {}", path, e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * @return the cached rate, or {@code null} if absent or expired
+   */
+  public BigDecimal get(LocalDate date, String from, String to) {
+    Key key = new Key(date, from, to);
+    BigDecimal rate = cache.getIfPresent(key);
+    if (rate == null && snapshot != null && isSettled(date)) {
+      rate = snapshot.get(date, from, to);
+      if (rate != null) {
+        cache.put(key, rate);
+      }
+    }
+    return rate;
+  }
+
+  /**
+   * Cache a rate; a rate of a past date is also queued for the snapshot, written after this returns
+   */
+  public void put(LocalDate date, String from, String to, BigDecimal rate) {
+    cache.put(new Key(date, from, to), rate);
+    if (snapshot != null && isSettled(date)) {
+      snapshotWriter.execute(() -> persist(date, from, to, rate));
+    }
+  }
+
+  /**
+   * Cache a rate without persisting it, for rates that come from a snapshot of their own such as
+   * the one baked into the application
+   */
+  public void load(LocalDate date, String from, String to, BigDecimal rate) {
+    cache.put(new Key(date, from, to), rate);
+  }
+
+  private void persist(LocalDate date, String from, String to, BigDecimal rate) {
+    try {
+      snapshot.append(date, from, to, rate);
+    } catch (IOException | RuntimeException e) {
+      logger.warn("Cannot persist exchange rate {} -> {} for date {}: {}", from, to, date, e.getMessage());
+    }
+  }
+
+  /**
+   * @return the cached anchor table of the date, or {@code null} if absent or expired
+   */
+  public AnchorRateTable getTable(LocalDate date) {
+    return tables.getIfPresent(date);
+  }
+
+  public void putTable(LocalDate date, AnchorRateTable table) {
+    tables.put(date, table);
+  }
+
+  /** write the queued rates, then close the snapshot */
+  @PreDestroy
+  void close() {
+    if (snapshot != null) {
+      snapshotWriter.shutdown();
+      try {
+        if (!snapshotWriter.awaitTermination(10, TimeUnit.SECONDS)) {
+          logger.warn("Rate snapshot writer still busy, closing the snapshot without its last rates");
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      try {
+        snapshot.close();
+      } catch (IOException e) {
+        logger.warn("Cannot close rate snapshot: {}", e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * A date is settled once it lies before today in the publication zone, its rate can no longer change
+   */
+  public boolean isSettled(LocalDate date) {
+    return date.isBefore(LocalDate.now(clock));
+  }
+
+  private final class SettledDateExpiry<K, V> implements Expiry<K, V> {
+    private final Function<K, LocalDate> date;
+
+    SettledDateExpiry(Function<K, LocalDate> date) {
+      this.date = date;
+    }
+
+    @Override
+    public long expireAfterCreate(K key, V value, long currentTime) {
+      return isSettled(date.apply(key)) ? Long.MAX_VALUE : currentDateTtlNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(K key, V value, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, value, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(K key, V value, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -0,0 +1,52 @@
+package com.verifyme.invoice.service;
+
+import com.verifyme.invoice.config.InvoiceConfig;
+
+import io.quarkus.virtual.threads.VirtualThreads;
+import io.smallrye.mutiny.infrastructure.Infrastructure;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs the blocking invoice calculations on the threads chosen by {@code invoice.execution.mode}:
+ * the worker pool, or one virtual thread per task so concurrency is bound by memory instead of
+ * the pool size while {@link InvoiceService} keeps its plain blocking code.
+ */
+@ApplicationScoped
+public class InvoiceExecutor implements Executor {
+
+  private static final Logger logger = LoggerFactory.getLogger(InvoiceExecutor.class);
+
+  @Inject
+  InvoiceConfig config;
+
+  @Inject
+  @VirtualThreads
+  ExecutorService virtualThreads;
+
+  private volatile Executor delegate;
+
+  @Override
+  public void execute(Runnable task) {
+    delegate().execute(task);
+  }
+
+  private Executor delegate() {
+    Executor executor = delegate;
+    if (executor == null) {
+      executor = config.execution().mode() == InvoiceConfig.ExecutionConfig.Mode.VIRTUAL_THREADS
+          ? virtualThreads
+          : Infrastructure.getDefaultWorkerPool();
+      logger.info("Invoice calculations run in {} mode", config.execution().mode());
+      delegate = executor;
+    }
+    return executor;
+  }
+}
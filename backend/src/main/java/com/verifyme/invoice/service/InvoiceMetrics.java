@@ -0,0 +1,155 @@
+package com.verifyme.invoice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.ws.rs.WebApplicationException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Meters of the invoice computation, exported on {@code /q/metrics}. Timers publish histograms, so
+ * p50/p99 of the whole calculation can be compared with those of the Frankfurter calls it waits on:
+ * <ul>
+ *   <li>{@code invoice.calculation}: one calculation, tagged by line count bucket</li>
+ *   <li>{@code invoice.lines}: lines computed, its rate is lines per second</li>
+ *   <li>{@code invoice.rates.upstream}: one Frankfurter call, tagged by HTTP status</li>
+ *   <li>{@code invoice.rates.cache}: rate lookups, tagged hit or miss</li>
+ *   <li>{@code invoice.results.cache}: invoice total lookups, tagged hit or miss</li>
+ *   <li>{@code invoice.errors}: error responses, tagged by error mapper branch</li>
+ *   <li>{@code invoice.admission.running} and {@code invoice.admission.queue}: upstream-bound
+ *       calculations running and waiting for admission</li>
+ *   <li>{@code invoice.admission.shed}: requests rejected by admission control, tagged by reason</li>
+ * </ul>
+ */
+@ApplicationScoped
+public class InvoiceMetrics {
+
+  /** upper bounds of the line count buckets */
+  private static final int[] LINE_BUCKETS = {1, 10, 100, 1000};
+
+  private final MeterRegistry registry;
+  private final Timer[] calculations = new Timer[LINE_BUCKETS.length + 1];
+  private final Counter lines;
+  private final Counter cacheHits;
+  private final Counter cacheMisses;
+  private final Counter resultHits;
+  private final Counter resultMisses;
+
+  @Inject
+  public InvoiceMetrics(MeterRegistry registry) {
+    this.registry = registry;
+    for (int i = 0; i < calculations.length; i++) {
+      String bucket = i < LINE_BUCKETS.length
+          ? (i == 0 ? "1" : (LINE_BUCKETS[i - 1] + 1) + "-" + LINE_BUCKETS[i])
+          : ">" + LINE_BUCKETS[LINE_BUCKETS.length - 1];
+      calculations[i] = Timer.builder("invoice.calculation")
+          .description("Invoice total calculation, rate lookups included")
+          .tag("lines", bucket)
+          .publishPercentileHistogram()
+          .register(registry);
+    }
+    lines = Counter.builder("invoice.lines")
+        .description("Invoice lines computed")
+        .register(registry);
+    cacheHits = cacheLookups("hit");
+    cacheMisses = cacheLookups("miss");
+    resultHits = resultLookups("hit");
+    resultMisses = resultLookups("miss");
+  }
+
+  private Counter cacheLookups(String result) {
+    return Counter.builder("invoice.rates.cache")
+        .description("Exchange rate lookups in the rate cache")
+        .tag("result", result)
+        .register(registry);
+  }
+
+  private Counter resultLookups(String result) {
+    return Counter.builder("invoice.results.cache")
+        .description("Invoice total lookups in the result cache")
+        .tag("result", result)
+        .register(registry);
+  }
+
+  /**
+   * Record a completed calculation of {@code lineCount} lines that started at {@code startNanos}
+   */
+  public void calculated(int lineCount, long startNanos) {
+    int bucket = 0;
+    while (bucket < LINE_BUCKETS.length && lineCount > LINE_BUCKETS[bucket]) {
+      bucket++;
+    }
+    calculations[bucket].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    lines.increment(lineCount);
+  }
+
+  /**
+   * Record a Frankfurter call that started at {@code startNanos}, {@code failure} is null on success
+   */
+  public void upstreamCall(long startNanos, Throwable failure) {
+    Timer.builder("invoice.rates.upstream")
+        .description("Frankfurter rate requests")
+        .tag("status", status(failure))
+        .publishPercentileHistogram()
+        .register(registry)
+        .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+  }
+
+  public void cacheHit() {
+    cacheHits.increment();
+  }
+
+  public void cacheMiss() {
+    cacheMisses.increment();
+  }
+
+  public void resultHit() {
+    resultHits.increment();
+  }
+
+  public void resultMiss() {
+    resultMisses.increment();
+  }
+
+  /**
+   * Export the running and queued calculations of the admission control
+   */
+  public void admission(AdmissionControl admission) {
+    Gauge.builder("invoice.admission.running", admission, AdmissionControl::running)
+        .description("Upstream-bound invoice calculations running")
+        .register(registry);
+    Gauge.builder("invoice.admission.queue", admission, AdmissionControl::queued)
+        .description("Upstream-bound invoice calculations waiting for admission")
+        .register(registry);
+  }
+
+  /**
+   * Count a request rejected by admission control, {@code reason} is queue_full or timeout
+   */
+  public void shed(String reason) {
+    registry.counter("invoice.admission.shed", "reason", reason).increment();
+  }
+
+  /**
+   * Count an error response, {@code branch} names the mapper branch that produced it
+   */
+  public void error(String branch) {
+    registry.counter("invoice.errors", "type", branch).increment();
+  }
+
+  /** HTTP status of the answer, or the kind of failure when there was none */
+  private static String status(Throwable failure) {
+    if (failure == null) {
+      return "200";
+    }
+    if (failure instanceof WebApplicationException web && web.getResponse() != null) {
+      return String.valueOf(web.getResponse().getStatus());
+    }
+    return "error";
+  }
+}
@@ -0,0 +1,161 @@
+package com.verifyme.invoice.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.verifyme.common.utils.Currencies;
+import com.verifyme.invoice.config.InvoiceConfig;
+import com.verifyme.invoice.model.InvoiceLine;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * In-process cache of invoice totals keyed by the normalized invoice: base currency trimmed and
+ * upper-cased as {@link InvoiceService#calculateTotal} does, date, and the currency and amount of
+ * each line in order. Descriptions do not change a total and are left out. A resubmitted invoice is
+ * answered from here without touching the rate layer.
+ * Totals of past dates never change and only leave the cache through eviction, bounded by the
+ * number of lines the keys hold; totals of today or of dates not published yet are kept for
+ * {@code invoice.result-cache.current-date-ttl}, or not at all when it is zero.
+ */
+@ApplicationScoped
+public class InvoiceResultCache {
+
+  /**
+   * Normalized invoice. Amounts compare with {@link BigDecimal#equals}, so 1.0 and 1.00 are two
+   * keys: they give the same total, but retries of one payload always carry the same scale.
+   */
+  static final class Key {
+    private final String base;
+    private final LocalDate date;
+    private final int[] currencies;
+    private final BigDecimal[] amounts;
+    private final int hash;
+
+    Key(String base, LocalDate date, int[] currencies, BigDecimal[] amounts) {
+      this.base = base;
+      this.date = date;
+      this.currencies = currencies;
+      this.amounts = amounts;
+      this.hash = 31 * (31 * (31 * base.hashCode() + date.hashCode()) + Arrays.hashCode(currencies))
+          + Arrays.hashCode(amounts);
+    }
+
+    LocalDate date() {
+      return date;
+    }
+
+    int lines() {
+      return currencies.length;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      return this == other || other instanceof Key key
+          && hash == key.hash
+          && base.equals(key.base)
+          && date.equals(key.date)
+          && Arrays.equals(currencies, key.currencies)
+          && Arrays.equals(amounts, key.amounts);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  private final Cache<Key, BigDecimal> cache; // null when the cache is off
+  private final Clock clock;
+  private final long currentDateTtlNanos;
+
+  @Inject
+  public InvoiceResultCache(InvoiceConfig config) {
+    this(config, Clock.system(ExchangeRateCache.PUBLICATION_ZONE), Ticker.systemTicker());
+  }
+
+  InvoiceResultCache(InvoiceConfig config, Clock clock, Ticker ticker) {
+    this.clock = clock;
+    this.currentDateTtlNanos = config.resultCache().currentDateTtl().toNanos();
+    this.cache = config.resultCache().enabled()
+        ? Caffeine.newBuilder()
+            .maximumWeight(config.resultCache().maxLines())
+            .weigher((Key key, BigDecimal total) -> key.lines())
+            .expireAfter(new SettledDateExpiry())
+            .ticker(ticker)
+            .build()
+        : null;
+  }
+
+  /**
+   * @return the key of the invoice, or {@code null} when the cache is off or the invoice holds a
+   *         line the calculation will reject anyway (missing, or a currency without an id)
+   */
+  Key key(String base, LocalDate date, List<InvoiceLine> lines) {
+    if (cache == null || date == null) {
+      return null;
+    }
+    final int size = lines.size();
+    final int[] currencies = new int[size];
+    final BigDecimal[] amounts = new BigDecimal[size];
+    for (int i = 0; i < size; i++) {
+      InvoiceLine line = lines.get(i);
+      if (line == null || (currencies[i] = line.currencyId()) == Currencies.NONE) {
+        return null;
+      }
+      amounts[i] = line.amount;
+    }
+    return new Key(base, date, currencies, amounts);
+  }
+
+  /**
+   * @return the cached total, or {@code null} if the key is {@code null}, absent or expired
+   */
+  BigDecimal get(Key key) {
+    return key == null ? null : cache.getIfPresent(key);
+  }
+
+  void put(Key key, BigDecimal total) {
+    if (key != null && (currentDateTtlNanos > 0 || isSettled(key.date()))) {
+      cache.put(key, total);
+    }
+  }
+
+  void invalidateAll() {
+    if (cache != null) {
+      cache.invalidateAll();
+    }
+  }
+
+  /**
+   * Same rule as {@link ExchangeRateCache#isSettled}: a total of a past date can no longer change
+   */
+  private boolean isSettled(LocalDate date) {
+    return date.isBefore(LocalDate.now(clock));
+  }
+
+  private final class SettledDateExpiry implements Expiry<Key, BigDecimal> {
+    @Override
+    public long expireAfterCreate(Key key, BigDecimal total, long currentTime) {
+      return isSettled(key.date()) ? Long.MAX_VALUE : currentDateTtlNanos;
+    }
+
+    @Override
+    public long expireAfterUpdate(Key key, BigDecimal total, long currentTime, long currentDuration) {
+      return expireAfterCreate(key, total, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(Key key, BigDecimal total, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -2,19 +2,41 @@ package com.verifyme.invoice.service;
 
 import com.verifyme.common.client.FrankfurterClient;
 import com.verifyme.common.client.FrankfurterResponse;
+import com.verifyme.common.logging.RequestLog;
+import com.verifyme.common.utils.Currencies;
+import com.verifyme.common.utils.FixedPoint;
 import com.verifyme.common.utils.Roundings;
+import com.verifyme.common.utils.SingleFlight;
 import com.verifyme.invoice.config.InvoiceConfig;
+import com.verifyme.invoice.events.InvoiceCalculationEvent;
+import com.verifyme.invoice.events.RateLookupEvent;
 import com.verifyme.invoice.model.InvoiceLine;
 import com.verifyme.invoice.dto.InvoicePayload;
 
+import io.smallrye.mutiny.Multi;
+import io.smallrye.mutiny.Uni;
+
 import jakarta.enterprise.context.ApplicationScoped;
 import jakarta.inject.Inject;
 import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.WebApplicationException;
 
 import java.math.BigDecimal;
+import java.net.URI;
+import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
+import org.eclipse.microprofile.config.inject.ConfigProperty;
 import org.eclipse.microprofile.rest.client.inject.RestClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,22 +53,213 @@ public class InvoiceService {
   @Inject
   InvoiceConfig config;
 
+  @Inject
+  ExchangeRateCache rateCache;
+
+  @Inject
+  InvoiceResultCache resultCache;
+
+  @Inject
+  InvoiceMetrics metrics;
+
+  @Inject
+  RequestLog requestLog;
+
+  /** base URL of the Frankfurter client, for the calls logged without a response */
+  @ConfigProperty(name = "com.verifyme.common.client.FrankfurterClient/mp-rest/url")
+  Optional<String> frankfurterUrl = Optional.empty();
+
   private static final DateTimeFormatter DF = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 
+  /** identical concurrent upstream requests share one Frankfurter call */
+  private final SingleFlight<RateRequest, FrankfurterResponse> inFlight = new SingleFlight<>();
+
+  private record RateRequest(LocalDate date, String base, String symbols) {}
+
+  private record RateGroup(LocalDate date, String base) {}
+
+  /** lines a {@link RunningTotal} holds at most while the rates of their currencies are unknown */
+  static final int LOOKAHEAD_LINES = 256;
+
   /**
    * calculate the total price of the invoice (return the target currency amount, keep 2 decimal places)
    */
   public BigDecimal calculateTotal(InvoicePayload payload) {
-    final String base = payload.currency.trim().toUpperCase(); // target currency
-    final String date = DF.format(payload.date);                // historical exchange rate date
+    final String base = Currencies.normalize(payload.currency); // target currency
+    final LocalDate date = payload.date;                        // historical exchange rate date
 
     logger.debug("Starting invoice calculation - base currency: {}, date: {}, lines: {}", 
                 base, date, payload.lines.size());
 
+    final InvoiceResultCache.Key resultKey = resultCache.key(base, date, payload.lines);
+    final BigDecimal cached = cachedResult(resultKey);
+    if (cached != null) {
+      return cached;
+    }
+
+    final long start = System.nanoTime();
+    InvoiceCalculationEvent event = new InvoiceCalculationEvent();
+    event.begin();
+    // one rate lookup per distinct source currency instead of one per line
+    Set<String> currencies = foreignCurrencies(payload.lines, base);
+    Map<String, BigDecimal> rates = getExchangeRates(currencies, base, date);
+    BigDecimal total = sumLines(payload.lines, base, rates);
+    resultCache.put(resultKey, total);
+    metrics.calculated(payload.lines.size(), start);
+    event.complete("blocking", base, date, payload.lines.size(), currencies.size());
+    requestLog.invoice("blocking", base, date, payload.lines.size(), total, start);
+    return total;
+  }
+
+  /**
+   * Total of a warm-up invoice, over the same rate lookup and summing code as {@link #calculateTotal}
+   * but without recording it in the metrics, JFR events and request log, nor caching the result
+   *
+   * @throws IllegalStateException if a rate of the invoice is not cached, the warm-up never calls Frankfurter
+   */
+  BigDecimal warmUpTotal(InvoicePayload payload) {
+    final String base = Currencies.normalize(payload.currency);
+    Map<String, BigDecimal> rates = new HashMap<>();
+    for (String from : foreignCurrencies(payload.lines, base)) {
+      BigDecimal rate = rateCache.get(payload.date, from, base);
+      if (rate == null) {
+        throw new IllegalStateException("no cached rate " + from + " -> " + base + " for date " + payload.date);
+      }
+      rates.put(from, rate);
+    }
+    return sumLines(payload.lines, base, rates);
+  }
+
+  /**
+   * @return whether calculating the invoice may wait on Frankfurter, that is some line is in another
+   *         currency whose rate is not cached yet; only reads the rate cache
+   */
+  public boolean needsUpstream(InvoicePayload payload) {
+    final String base = Currencies.normalize(payload.currency);
+    Set<String> currencies = foreignCurrencies(payload.lines, base);
+    if (currencies.isEmpty()) {
+      return false;
+    }
+    if (triangulated()) {
+      return rateCache.getTable(payload.date) == null;
+    }
+    for (String from : currencies) {
+      if (rateCache.get(payload.date, from, base) == null) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Non-blocking variant of {@link #calculateTotal}: missing rates are fetched without parking the
+   * calling thread, so it can run on the event loop. Shares the rate cache and in-flight requests
+   * with the blocking variant.
+   */
+  public Uni<BigDecimal> calculateTotalAsync(InvoicePayload payload) {
+    final String base = Currencies.normalize(payload.currency); // target currency
+    final LocalDate date = payload.date;                        // historical exchange rate date
+
+    logger.debug("Starting reactive invoice calculation - base currency: {}, date: {}, lines: {}", 
+                base, date, payload.lines.size());
+
+    final InvoiceResultCache.Key resultKey = resultCache.key(base, date, payload.lines);
+    final BigDecimal cached = cachedResult(resultKey);
+    if (cached != null) {
+      return Uni.createFrom().item(cached);
+    }
+
+    final long start = System.nanoTime();
+    InvoiceCalculationEvent event = new InvoiceCalculationEvent();
+    event.begin();
+    Set<String> currencies = foreignCurrencies(payload.lines, base);
+    return getExchangeRatesAsync(currencies, base, date)
+        .map(rates -> sumLines(payload.lines, base, rates))
+        .invoke(total -> {
+          resultCache.put(resultKey, total);
+          metrics.calculated(payload.lines.size(), start);
+          event.complete("async", base, date, payload.lines.size(), currencies.size());
+          requestLog.invoice("async", base, date, payload.lines.size(), total, start);
+        });
+  }
+
+  /**
+   * @return the total of an invoice already computed, or {@code null} when it has to be computed
+   */
+  private BigDecimal cachedResult(InvoiceResultCache.Key key) {
+    if (key == null) {
+      return null;
+    }
+    BigDecimal total = resultCache.get(key);
+    if (total != null) {
+      metrics.resultHit();
+    } else {
+      metrics.resultMiss();
+    }
+    return total;
+  }
+
+  /**
+   * Sum the invoice lines converted with the given rates, in line order. Amounts and rates are
+   * summed as scaled longs with the same per-line HALF_UP rounding as {@link #sumLinesExact}, which
+   * takes over when a value does not fit, so both always give the same total. Lines are matched to
+   * their rate by {@link Currencies} id, without normalizing or hashing the currency string.
+   */
+  private BigDecimal sumLines(List<InvoiceLine> lines, String base, Map<String, BigDecimal> rates) {
+    final int baseId = Currencies.id(base);
+    if (logger.isDebugEnabled() || baseId == Currencies.NONE) {
+      return sumLinesExact(lines, base, rates); // logs every conversion, or a code without an id
+    }
+    final int moneyScale = config.decimal().moneyScale();
+
+    // each rate is converted once, not once per line; invoices have few currencies, scanned linearly
+    final int[] rateIds = new int[rates.size()];
+    final long[] rateUnscaled = new long[rates.size()];
+    final int[] rateScales = new int[rates.size()];
+    int count = 0;
+    for (Map.Entry<String, BigDecimal> rate : rates.entrySet()) {
+      rateIds[count] = Currencies.id(rate.getKey());
+      rateUnscaled[count] = FixedPoint.unscaled(rate.getValue());
+      rateScales[count] = rate.getValue().scale();
+      count++;
+    }
+
+    long total = 0;
+    for (InvoiceLine line : lines) {
+      final int from = line.currencyId();
+      final long amount = FixedPoint.unscaled(line.amount);
+
+      long lineTotal;
+      if (from == baseId) {
+        lineTotal = FixedPoint.rescale(amount, line.amount.scale(), moneyScale);
+      } else {
+        int r = 0;
+        while (r < count && rateIds[r] != from) {
+          r++;
+        }
+        if (from == Currencies.NONE || r == count) {
+          return sumLinesExact(lines, base, rates);
+        }
+        lineTotal = FixedPoint.multiply(amount, line.amount.scale(), rateUnscaled[r], rateScales[r], moneyScale);
+      }
+      total = FixedPoint.add(total, lineTotal);
+      if (total == FixedPoint.OVERFLOW) {
+        logger.debug("Invoice amounts exceed the fixed-point range, summing with BigDecimal");
+        return sumLinesExact(lines, base, rates);
+      }
+    }
+
+    return FixedPoint.toBigDecimal(total, moneyScale);
+  }
+
+  /**
+   * Sum the invoice lines converted with the given rates, in line order, with BigDecimal
+   */
+  BigDecimal sumLinesExact(List<InvoiceLine> lines, String base, Map<String, BigDecimal> rates) {
     BigDecimal total = BigDecimal.ZERO;
 
-    for (InvoiceLine line : payload.lines) {
-      final String from = line.currency.trim().toUpperCase();
+    for (InvoiceLine line : lines) {
+      final String from = Currencies.normalize(line.currency);
 
       // same currency: directly add the amount with configured decimal places
       if (from.equals(base)) {
@@ -56,7 +269,7 @@ public class InvoiceService {
       }
 
       // get historical exchange rate
-      BigDecimal rate = getExchangeRate(from, base, date);
+      BigDecimal rate = rates.get(from);
 
       // line total = amount * exchange rate with configured decimal places
       BigDecimal lineTotal = Roundings.money(line.amount.multiply(rate), config.decimal().moneyScale());
@@ -66,42 +279,483 @@ public class InvoiceService {
     }
 
     // total with configured decimal places
-    BigDecimal finalTotal = Roundings.money(total, config.decimal().moneyScale());
-    logger.info("Invoice calculation completed - total: {} {}", finalTotal, base);
-    return finalTotal;
+    return Roundings.money(total, config.decimal().moneyScale());
+  }
+
+  /**
+   * Start a running total of an invoice whose lines are folded in one at a time as they arrive,
+   * without holding them: see {@link RunningTotal}
+   */
+  public RunningTotal runningTotal(String currency, LocalDate date) {
+    return new RunningTotal(Currencies.normalize(currency), date);
   }
 
   /**
-   * Get historical exchange rate from one currency to another for a specific date
+   * Total of one invoice built line by line, with the same per-line HALF_UP rounding and the same
+   * result as {@link #calculateTotal}. Lines in a currency whose rate is not known yet are held, at
+   * most {@link #LOOKAHEAD_LINES} of them, and the rates of all their currencies are then looked up
+   * together, from the rate cache or in one Frankfurter request, so an invoice whose currencies all
+   * show up early costs one lookup like a bound one. Lines are summed in fixed point until the total no
+   * longer fits, then in BigDecimal; the sum does not depend on the order lines are folded in. Memory
+   * does not grow with the number of lines. Not thread-safe.
+   */
+  public final class RunningTotal {
+    private final String base;
+    private final int baseId;
+    private final LocalDate date;
+    private final int moneyScale = config.decimal().moneyScale();
+    private final long start = System.nanoTime();
+    private final InvoiceCalculationEvent event = new InvoiceCalculationEvent();
+
+    // rates of the currencies seen so far, scanned linearly like sumLines
+    private int[] rateIds = new int[8];
+    private String[] rateCodes = new String[8];
+    private BigDecimal[] rates = new BigDecimal[8];
+    private long[] rateUnscaled = new long[8];
+    private int rateCount;
+
+    // lines waiting for the rate of their currency
+    private final String[] pendingCurrencies = new String[LOOKAHEAD_LINES];
+    private final BigDecimal[] pendingAmounts = new BigDecimal[LOOKAHEAD_LINES];
+    private int pendingCount;
+
+    private long fixedTotal;
+    private BigDecimal exactTotal; // set once the fixed-point total overflows
+    private int lines;
+
+    private RunningTotal(String base, LocalDate date) {
+      this.base = base;
+      this.baseId = Currencies.id(base);
+      this.date = date;
+      event.begin();
+    }
+
+    /**
+     * Convert one line to the base currency and add it, or hold it until the rate of its currency is
+     * looked up
+     *
+     * @throws NotFoundException if the rate of a held currency cannot be fetched or is not found
+     * @throws BadRequestException if the rate of a held currency is invalid (≤ 0)
+     */
+    public void add(String currency, BigDecimal amount) {
+      lines++;
+      final int id = Currencies.id(currency);
+      final String code = id == Currencies.NONE ? Currencies.normalize(currency) : Currencies.code(id);
+      if (id == Currencies.NONE ? code.equals(base) : id == baseId) {
+        fold(-1, amount);
+        return;
+      }
+      final int r = rateIndex(id, code);
+      if (r >= 0) {
+        fold(r, amount);
+        return;
+      }
+      pendingCurrencies[pendingCount] = code;
+      pendingAmounts[pendingCount] = amount;
+      if (++pendingCount == LOOKAHEAD_LINES) {
+        flush();
+      }
+    }
+
+    /**
+     * @return the total of the lines added so far with configured decimal places
+     * @throws NotFoundException if the rate of a held currency cannot be fetched or is not found
+     * @throws BadRequestException if the rate of a held currency is invalid (≤ 0)
+     */
+    public BigDecimal total() {
+      flush();
+      BigDecimal finalTotal = exactTotal == null
+          ? FixedPoint.toBigDecimal(fixedTotal, moneyScale)
+          : Roundings.money(exactTotal, moneyScale);
+      metrics.calculated(lines, start);
+      event.complete("stream", base, date, lines, rateCount);
+      requestLog.invoice("stream", base, date, lines, finalTotal, start);
+      return finalTotal;
+    }
+
+    /** look up the rates of every held currency at once, then fold the held lines */
+    private void flush() {
+      if (pendingCount == 0) {
+        return;
+      }
+      Set<String> currencies = new LinkedHashSet<>();
+      for (int i = 0; i < pendingCount; i++) {
+        currencies.add(pendingCurrencies[i]);
+      }
+      Map<String, BigDecimal> fetched = getExchangeRates(currencies, base, date);
+      for (String from : currencies) {
+        addRate(from, fetched.get(from));
+      }
+      for (int i = 0; i < pendingCount; i++) {
+        final String code = pendingCurrencies[i];
+        fold(rateIndex(Currencies.id(code), code), pendingAmounts[i]);
+        pendingCurrencies[i] = null;
+        pendingAmounts[i] = null;
+      }
+      pendingCount = 0;
+    }
+
+    /** add one line converted with rate {@code r}, or as is when {@code r} is negative */
+    private void fold(int r, BigDecimal amount) {
+      if (exactTotal == null) {
+        long unscaled = FixedPoint.unscaled(amount);
+        long lineTotal = r < 0
+            ? FixedPoint.rescale(unscaled, amount.scale(), moneyScale)
+            : FixedPoint.multiply(unscaled, amount.scale(), rateUnscaled[r], rates[r].scale(), moneyScale);
+        long sum = FixedPoint.add(fixedTotal, lineTotal);
+        if (sum != FixedPoint.OVERFLOW) {
+          fixedTotal = sum;
+          return;
+        }
+        logger.debug("Invoice amounts exceed the fixed-point range, summing with BigDecimal");
+        exactTotal = FixedPoint.toBigDecimal(fixedTotal, moneyScale);
+      }
+      exactTotal = exactTotal.add(Roundings.money(r < 0 ? amount : amount.multiply(rates[r]), moneyScale));
+    }
+
+    /** @return the index of the known rate of the currency, or -1 */
+    private int rateIndex(int id, String code) {
+      for (int r = 0; r < rateCount; r++) {
+        if (id != Currencies.NONE ? rateIds[r] == id : code.equals(rateCodes[r])) {
+          return r;
+        }
+      }
+      return -1;
+    }
+
+    private void addRate(String code, BigDecimal rate) {
+      if (rateCount == rateIds.length) {
+        rateIds = Arrays.copyOf(rateIds, rateCount * 2);
+        rateCodes = Arrays.copyOf(rateCodes, rateCount * 2);
+        rates = Arrays.copyOf(rates, rateCount * 2);
+        rateUnscaled = Arrays.copyOf(rateUnscaled, rateCount * 2);
+      }
+      rateIds[rateCount] = Currencies.id(code);
+      rateCodes[rateCount] = code;
+      rates[rateCount] = rate;
+      rateUnscaled[rateCount] = FixedPoint.unscaled(rate);
+      rateCount++;
+    }
+  }
+
+  /**
+   * Warm the rate cache for a batch of invoices before computing them: the source currencies of all
+   * invoices sharing a date and base currency are resolved together, so each (date, currency set)
+   * costs at most one upstream request. Groups are fetched concurrently, at most
+   * {@code invoice.execution.fetch-parallelism} at a time, so a batch spanning many dates costs about
+   * one round trip per wave instead of one per group. A failing group is left to its invoices, which
+   * then fetch their own rates and report their own errors.
+   */
+  public void prefetchExchangeRates(List<InvoicePayload> payloads) {
+    Map<RateGroup, Set<String>> groups = new LinkedHashMap<>();
+    for (InvoicePayload payload : payloads) {
+      final String base = Currencies.normalize(payload.currency);
+      groups.computeIfAbsent(new RateGroup(payload.date, base), group -> new LinkedHashSet<>())
+          .addAll(foreignCurrencies(payload.lines, base));
+    }
+    if (groups.isEmpty()) {
+      return;
+    }
+
+    logger.debug("Prefetching exchange rates for {} invoices in {} (date, base) groups", 
+                payloads.size(), groups.size());
+
+    Multi.createFrom().iterable(groups.entrySet())
+        .onItem().transformToUni(group -> getExchangeRatesAsync(group.getValue(), group.getKey().base(),
+                group.getKey().date())
+            .onFailure().recoverWithItem(e -> {
+              logger.debug("Prefetch failed for {} -> {} on {}, invoices will fetch their own rates: {}", 
+                          group.getValue(), group.getKey().base(), group.getKey().date(), e.getMessage());
+              return Map.of();
+            }))
+        .merge(Math.max(1, config.execution().fetchParallelism()))
+        .collect().last()
+        .await().indefinitely();
+  }
+
+  /**
+   * Collect the distinct source currencies of the invoice lines that need a conversion to the base currency
+   */
+  private static Set<String> foreignCurrencies(List<InvoiceLine> lines, String base) {
+    Set<String> currencies = new LinkedHashSet<>();
+    for (InvoiceLine line : lines) {
+      final int id = line.currencyId();
+      // registered codes are interned, only codes without an id are normalized here
+      String from = id == Currencies.NONE ? Currencies.normalize(line.currency) : Currencies.code(id);
+      if (!from.equals(base)) {
+        currencies.add(from);
+      }
+    }
+    return currencies;
+  }
+
+  /**
+   * Get historical exchange rates from several currencies to the base currency for a specific date.
+   * Rates already in the rate cache are served from it, all others are fetched in a single
+   * Frankfurter request anchored on the base currency ({@code from=base&to=A,B,C}) and inverted.
+   * Concurrent callers needing the same request wait for the one already in flight.
    * 
-   * @param from source currency code
+   * @param currencies source currency codes
    * @param base target currency code  
-   * @param date date in yyyy-MM-dd format
-   * @return exchange rate with configured decimal places
-   * @throws NotFoundException if exchange rate cannot be fetched or not found
-   * @throws BadRequestException if exchange rate is invalid (≤ 0)
+   * @param date historical exchange rate date
+   * @return exchange rate per source currency with configured decimal places
+   * @throws NotFoundException if exchange rates cannot be fetched or one is not found
+   * @throws BadRequestException if an exchange rate is invalid (≤ 0)
    */
-  private BigDecimal getExchangeRate(String from, String base, String date) {
-    logger.debug("Fetching exchange rate: {} -> {} for date {}", from, base, date);
+  private Map<String, BigDecimal> getExchangeRates(Set<String> currencies, String base, LocalDate date) {
+    if (triangulated()) {
+      return currencies.isEmpty()
+          ? new HashMap<>()
+          : triangulate(getAnchorTable(currencies, base, date), currencies, base, date);
+    }
+
+    Map<String, BigDecimal> rates = new HashMap<>();
+    List<String> missing = collectCachedRates(currencies, base, date, rates);
+    if (missing.isEmpty()) {
+      return rates;
+    }
+
+    final String symbols = String.join(",", missing);
+    logger.debug("Fetching exchange rates: {} -> {} for date {}", symbols, base, date);
     
     FrankfurterResponse resp;
+    final long fetchStart = System.nanoTime();
     try {
-      resp = frankfurter.getHistoricalRate(date, from, base);
+      resp = inFlight.execute(new RateRequest(date, base, symbols),
+          () -> fetchHistoricalRate(date, base, symbols));
     } catch (Exception e) {
-      logger.error("Failed to fetch exchange rate: {} -> {} for date {}: {}", 
-                  from, base, date, e.getMessage());
-      throw new NotFoundException(config.error().exchangeRateFetchErrorTemplate()
-          .formatted(from, base, date));
+      RateLookupEvent.fetched(missing, base, date, RateLookupEvent.ERROR, fetchStart);
+      throw fetchFailed(symbols, base, date, e);
     }
+    RateLookupEvent.fetched(missing, base, date, RateLookupEvent.MISS, fetchStart);
+
+    return cacheRates(resp, missing, base, date, rates);
+  }
 
-    if (resp == null || resp.rates == null || !resp.rates.containsKey(base)) {
+  /**
+   * Non-blocking variant of {@link #getExchangeRates}, same caching, coalescing and errors
+   */
+  private Uni<Map<String, BigDecimal>> getExchangeRatesAsync(Set<String> currencies, String base, LocalDate date) {
+    if (triangulated()) {
+      return currencies.isEmpty()
+          ? Uni.createFrom().item(new HashMap<>())
+          : getAnchorTableAsync(currencies, base, date).map(table -> triangulate(table, currencies, base, date));
+    }
+
+    Map<String, BigDecimal> rates = new HashMap<>();
+    List<String> missing = collectCachedRates(currencies, base, date, rates);
+    if (missing.isEmpty()) {
+      return Uni.createFrom().item(rates);
+    }
+
+    final String symbols = String.join(",", missing);
+    logger.debug("Fetching exchange rates asynchronously: {} -> {} for date {}", symbols, base, date);
+
+    final long fetchStart = System.nanoTime();
+    return Uni.createFrom()
+        .completionStage(() -> inFlight.executeAsync(new RateRequest(date, base, symbols),
+            () -> fetchHistoricalRateAsync(date, base, symbols).subscribeAsCompletionStage()))
+        .onItemOrFailure().invoke((resp, failure) -> RateLookupEvent.fetched(missing, base, date,
+            failure == null ? RateLookupEvent.MISS : RateLookupEvent.ERROR, fetchStart))
+        .onFailure().transform(e -> fetchFailed(symbols, base, date, e))
+        .map(resp -> cacheRates(resp, missing, base, date, rates));
+  }
+
+  private boolean triangulated() {
+    return config.rates().source() == InvoiceConfig.RatesConfig.Source.TRIANGULATED;
+  }
+
+  /**
+   * Get the anchor table of the date from the rate cache, or fetch the whole table from Frankfurter
+   * in one request shared by every concurrent caller of that date, whatever their currencies.
+   * {@code currencies} and {@code base} only name the failing lookup in errors.
+   */
+  private AnchorRateTable getAnchorTable(Set<String> currencies, String base, LocalDate date) {
+    AnchorRateTable table = rateCache.getTable(date);
+    if (table != null) {
+      metrics.cacheHit();
+      tableHit(currencies, base, date);
+      return table;
+    }
+    metrics.cacheMiss();
+
+    final String anchor = Currencies.normalize(config.rates().anchor());
+    logger.debug("Fetching the {} rate table for date {}", anchor, date);
+
+    FrankfurterResponse resp;
+    final long fetchStart = System.nanoTime();
+    try {
+      resp = inFlight.execute(new RateRequest(date, anchor, null), () -> fetchHistoricalRate(date, anchor, null));
+    } catch (Exception e) {
+      RateLookupEvent.fetched(currencies, base, date, RateLookupEvent.ERROR, fetchStart);
+      throw fetchFailed(String.join(",", currencies), base, date, e);
+    }
+    RateLookupEvent.fetched(currencies, base, date, RateLookupEvent.MISS, fetchStart);
+    return cacheTable(resp, anchor, date);
+  }
+
+  /**
+   * Non-blocking variant of {@link #getAnchorTable}
+   */
+  private Uni<AnchorRateTable> getAnchorTableAsync(Set<String> currencies, String base, LocalDate date) {
+    AnchorRateTable table = rateCache.getTable(date);
+    if (table != null) {
+      metrics.cacheHit();
+      tableHit(currencies, base, date);
+      return Uni.createFrom().item(table);
+    }
+    metrics.cacheMiss();
+
+    final String anchor = Currencies.normalize(config.rates().anchor());
+    logger.debug("Fetching the {} rate table asynchronously for date {}", anchor, date);
+
+    final long fetchStart = System.nanoTime();
+    return Uni.createFrom()
+        .completionStage(() -> inFlight.executeAsync(new RateRequest(date, anchor, null),
+            () -> fetchHistoricalRateAsync(date, anchor, null).subscribeAsCompletionStage()))
+        .onItemOrFailure().invoke((resp, failure) -> RateLookupEvent.fetched(currencies, base, date,
+            failure == null ? RateLookupEvent.MISS : RateLookupEvent.ERROR, fetchStart))
+        .onFailure().transform(e -> fetchFailed(String.join(",", currencies), base, date, e))
+        .map(resp -> cacheTable(resp, anchor, date));
+  }
+
+  private static void tableHit(Set<String> currencies, String base, LocalDate date) {
+    for (String from : currencies) {
+      RateLookupEvent.hit(from, base, date);
+    }
+  }
+
+  private AnchorRateTable cacheTable(FrankfurterResponse resp, String anchor, LocalDate date) {
+    AnchorRateTable table = AnchorRateTable.of(anchor,
+        resp == null || resp.rates == null ? Map.of() : resp.rates);
+    rateCache.putTable(date, table);
+    return table;
+  }
+
+  /**
+   * Derive the rate of every currency to the base currency from the anchor table
+   */
+  private Map<String, BigDecimal> triangulate(AnchorRateTable table, Set<String> currencies, String base,
+      LocalDate date) {
+    Map<String, BigDecimal> rates = new HashMap<>();
+    for (String from : currencies) {
+      BigDecimal rate = table.crossRate(from, base, config.decimal().rateScale());
+      if (rate == null) {
+        logger.error("Exchange rate not found: {} -> {} for date {}", from, base, date);
+        throw new NotFoundException(config.error().exchangeRateNotFoundTemplate()
+            .formatted(from, base, date));
+      }
+      if (rate.signum() <= 0) {
+        logger.error("Invalid exchange rate: {} for {} -> {} on {}", rate, from, base, date);
+        throw new BadRequestException(config.error().invalidRateTemplate()
+            .formatted(from, base, date));
+      }
+      rates.put(from, rate);
+    }
+    return rates;
+  }
+
+  /**
+   * One timed Frankfurter call, coalesced callers are not counted
+   */
+  private FrankfurterResponse fetchHistoricalRate(LocalDate date, String base, String symbols) {
+    final long start = System.nanoTime();
+    try {
+      FrankfurterResponse resp = frankfurter.getHistoricalRate(DF.format(date), base, symbols);
+      metrics.upstreamCall(start, null);
+      return resp;
+    } catch (RuntimeException e) {
+      metrics.upstreamCall(start, e);
+      upstreamFailed(date, base, symbols, e, start);
+      throw e;
+    }
+  }
+
+  private Uni<FrankfurterResponse> fetchHistoricalRateAsync(LocalDate date, String base, String symbols) {
+    final long start = System.nanoTime();
+    return frankfurter.getHistoricalRateAsync(DF.format(date), base, symbols)
+        .onItemOrFailure().invoke((resp, failure) -> {
+          metrics.upstreamCall(start, failure);
+          if (failure != null) {
+            upstreamFailed(date, base, symbols, failure, start);
+          }
+        });
+  }
+
+  /**
+   * Log a Frankfurter call that got no response (connect failure, timeout, reset) with status 0. The
+   * client filter only sees responses, it has already logged the calls answered with an error status.
+   */
+  private void upstreamFailed(LocalDate date, String base, String symbols, Throwable failure, long start) {
+    if (failure instanceof WebApplicationException web && web.getResponse() != null) {
+      return;
+    }
+    final String path = DF.format(date) + "?from=" + base + (symbols == null ? "" : "&to=" + symbols);
+    final String url = frankfurterUrl.map(root -> root.replaceFirst("/*$", "/") + path).orElse(path);
+    requestLog.upstream("GET", URI.create(url), 0, start);
+  }
+
+  /**
+   * Put the cached rates of {@code currencies} into {@code rates}
+   *
+   * @return the currencies missing from the cache, sorted: the symbols of an upstream request do not
+   *         depend on line order, so invoices missing the same rates share one in-flight request
+   */
+  private List<String> collectCachedRates(Set<String> currencies, String base, LocalDate date,
+      Map<String, BigDecimal> rates) {
+    List<String> missing = new ArrayList<>();
+    for (String from : currencies) {
+      BigDecimal cached = rateCache.get(date, from, base);
+      if (cached != null) {
+        logger.debug("Exchange rate cache hit: {} -> {} for date {}", from, base, date);
+        metrics.cacheHit();
+        RateLookupEvent.hit(from, base, date);
+        rates.put(from, cached);
+      } else {
+        metrics.cacheMiss();
+        missing.add(from);
+      }
+    }
+    missing.sort(null);
+    return missing;
+  }
+
+  /**
+   * Invert and cache the rate of every missing currency from a base-anchored response, into {@code rates}
+   */
+  private Map<String, BigDecimal> cacheRates(FrankfurterResponse resp, List<String> missing, String base,
+      LocalDate date, Map<String, BigDecimal> rates) {
+    for (String from : missing) {
+      BigDecimal rate = invertRate(resp, from, base, date);
+      rateCache.put(date, from, base, rate);
+      rates.put(from, rate);
+    }
+    return rates;
+  }
+
+  private NotFoundException fetchFailed(String symbols, String base, LocalDate date, Throwable e) {
+    logger.error("Failed to fetch exchange rates: {} -> {} for date {}: {}", 
+                symbols, base, date, e.getMessage());
+    return new NotFoundException(config.error().exchangeRateFetchErrorTemplate()
+        .formatted(symbols, base, date));
+  }
+
+  /**
+   * Turn the base-anchored quote (units of {@code from} per one {@code base}) into the
+   * rate from {@code from} to {@code base}, rounded once to the configured decimal places
+   */
+  private BigDecimal invertRate(FrankfurterResponse resp, String from, String base, LocalDate date) {
+    if (resp == null || resp.rates == null || !resp.rates.containsKey(from)) {
       logger.error("Exchange rate not found: {} -> {} for date {}", from, base, date);
       throw new NotFoundException(config.error().exchangeRateNotFoundTemplate()
           .formatted(from, base, date));
     }
 
     // exchange rate with configured decimal places
-    BigDecimal rate = Roundings.rate(BigDecimal.valueOf(resp.rates.get(base)), config.decimal().rateScale());
+    BigDecimal quote = BigDecimal.valueOf(resp.rates.get(from));
+    BigDecimal rate = quote.signum() > 0
+        ? Roundings.inverseRate(quote, config.decimal().rateScale())
+        : quote;
     if (rate.compareTo(BigDecimal.ZERO) <= 0) {
       logger.error("Invalid exchange rate: {} for {} -> {} on {}", rate, from, base, date);
       throw new BadRequestException(config.error().invalidRateTemplate()
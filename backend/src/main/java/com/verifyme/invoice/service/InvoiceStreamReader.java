@@ -0,0 +1,243 @@
+package com.verifyme.invoice.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.verifyme.invoice.dto.InvoicePayload;
+import com.verifyme.invoice.dto.InvoiceRequest;
+import com.verifyme.invoice.model.InvoiceLine;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.ws.rs.BadRequestException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Computes the total of an {@link InvoiceRequest} body straight from the JSON tokens, folding each
+ * line into a {@link InvoiceService.RunningTotal} as soon as it is read, so no {@code List<InvoiceLine>}
+ * is built and memory stays constant whatever the number of lines.
+ *
+ * <p>Every value is checked against the same constraints as the bound request, with the same
+ * messages and property paths as {@code POST /invoice/total} ("total.body.invoice.lines[i].…"), and a
+ * violation is thrown as a {@link ConstraintViolationException} on the first invalid value. Lines can
+ * only be folded once {@code currency} and {@code date} are known: when {@code lines} comes first in
+ * the invoice object, its lines are kept until the end of the object.
+ */
+@ApplicationScoped
+public class InvoiceStreamReader {
+
+  private static final Logger logger = LoggerFactory.getLogger(InvoiceStreamReader.class);
+
+  /** the endpoint whose body this is, for the paths of the violations */
+  private static final String ENDPOINT = "total";
+
+  /** stands for the lines while currency and date are checked, {@code @Valid} skips the null */
+  private static final List<InvoiceLine> UNCHECKED_LINES = Collections.singletonList(null);
+
+  @Inject
+  InvoiceService invoiceService;
+
+  @Inject
+  InvoiceValidator invoiceValidator;
+
+  @Inject
+  ObjectMapper objectMapper;
+
+  /**
+   * @return the invoice total with configured decimal places
+   * @throws ConstraintViolationException if a value breaks a constraint of the request
+   * @throws BadRequestException if the body is not a well-formed invoice request
+   */
+  public BigDecimal readTotal(InputStream body) {
+    try (JsonParser parser = objectMapper.getFactory().createParser(body)) {
+      expect(parser.nextToken(), JsonToken.START_OBJECT, parser);
+
+      BigDecimal total = null;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        JsonToken value = parser.nextToken();
+        if ("invoice".equals(field) && value != JsonToken.VALUE_NULL) {
+          total = readInvoice(parser);
+        } else {
+          parser.skipChildren();
+        }
+      }
+      if (total == null) {
+        throw violation(invoiceValidator.validateBody(ENDPOINT, new InvoiceRequest()));
+      }
+      return total;
+    } catch (IOException | DateTimeException | NumberFormatException e) {
+      throw new BadRequestException("malformed invoice JSON: " + e.getMessage());
+    }
+  }
+
+  private BigDecimal readInvoice(JsonParser parser) throws IOException {
+    expect(parser.currentToken(), JsonToken.START_OBJECT, parser);
+
+    String currency = null;
+    LocalDate date = null;
+    boolean hasLines = false;
+    int lineCount = 0;
+    InvoiceService.RunningTotal total = null;
+    List<InvoiceLine> early = null; // lines read before currency and date
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      JsonToken value = parser.nextToken();
+      switch (field) {
+        case "currency" -> currency = text(parser);
+        case "date" -> date = date(parser);
+        case "lines" -> {
+          if (value == JsonToken.VALUE_NULL) {
+            hasLines = false;
+            continue;
+          }
+          expect(value, JsonToken.START_ARRAY, parser);
+          hasLines = true;
+          if (total == null && currency != null && date != null) {
+            total = open(currency, date);
+          }
+          InvoiceLine line = new InvoiceLine();
+          while (parser.nextToken() != JsonToken.END_ARRAY) {
+            readLine(parser, line, lineCount);
+            lineCount++;
+            if (total != null) {
+              total.add(line.currency, line.amount);
+            } else {
+              if (early == null) {
+                early = new ArrayList<>();
+                logger.debug("Invoice lines arrive before currency and date, keeping them until both are read");
+              }
+              early.add(line);
+              line = new InvoiceLine();
+            }
+          }
+        }
+        default -> parser.skipChildren();
+      }
+    }
+
+    if (!hasLines) {
+      throw violation(invoiceValidator.validateBody(ENDPOINT, body(currency, date, null)));
+    }
+    if (lineCount == 0) {
+      throw violation(invoiceValidator.validateBody(ENDPOINT, body(currency, date, List.of())));
+    }
+    if (total == null) {
+      total = open(currency, date);
+      for (InvoiceLine line : early) {
+        total.add(line.currency, line.amount);
+      }
+    }
+    return total.total();
+  }
+
+  private InvoiceService.RunningTotal open(String currency, LocalDate date) {
+    throwIfInvalid(invoiceValidator.validateBody(ENDPOINT, body(currency, date, UNCHECKED_LINES)));
+    return invoiceService.runningTotal(currency, date);
+  }
+
+  private static InvoiceRequest body(String currency, LocalDate date, List<InvoiceLine> lines) {
+    InvoiceRequest request = new InvoiceRequest();
+    request.invoice = new InvoicePayload();
+    request.invoice.currency = currency;
+    request.invoice.date = date;
+    request.invoice.lines = lines;
+    return request;
+  }
+
+  /**
+   * Read the line object at {@code index} into {@code line} and validate it
+   */
+  private void readLine(JsonParser parser, InvoiceLine line, int index) throws IOException {
+    expect(parser.currentToken(), JsonToken.START_OBJECT, parser);
+    line.description = null;
+    line.currency = null;
+    line.amount = null;
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      JsonToken value = parser.nextToken();
+      switch (field) {
+        case "description" -> line.description = text(parser);
+        case "currency" -> line.currency = text(parser);
+        case "amount" -> line.amount = switch (value) {
+          case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getDecimalValue();
+          case VALUE_STRING -> new BigDecimal(parser.getText().trim());
+          case VALUE_NULL -> null;
+          default -> throw new BadRequestException("malformed invoice JSON: amount is not a number");
+        };
+        default -> parser.skipChildren();
+      }
+    }
+    throwIfInvalid(invoiceValidator.validateLine(ENDPOINT, index, line));
+  }
+
+  /**
+   * @return the scalar as text like Jackson binds a {@code String} field, {@code null} for null
+   */
+  private static String text(JsonParser parser) throws IOException {
+    JsonToken token = parser.currentToken();
+    if (token == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    if (!token.isScalarValue()) {
+      throw new BadRequestException("malformed invoice JSON: " + parser.currentName() + " is not a scalar");
+    }
+    return parser.getValueAsString();
+  }
+
+  /**
+   * @return the date in either form Jackson binds a {@code LocalDate} from, "2023-01-15" or [2023, 1, 15]
+   */
+  private static LocalDate date(JsonParser parser) throws IOException {
+    return switch (parser.currentToken()) {
+      case VALUE_NULL -> null;
+      case VALUE_STRING -> {
+        String text = parser.getText().trim();
+        yield text.isEmpty() ? null : LocalDate.parse(text);
+      }
+      case START_ARRAY -> {
+        int[] parts = new int[3];
+        for (int i = 0; i < parts.length; i++) {
+          expect(parser.nextToken(), JsonToken.VALUE_NUMBER_INT, parser);
+          parts[i] = parser.getIntValue();
+        }
+        expect(parser.nextToken(), JsonToken.END_ARRAY, parser);
+        yield LocalDate.of(parts[0], parts[1], parts[2]);
+      }
+      default -> throw new BadRequestException("malformed invoice JSON: date is not a date");
+    };
+  }
+
+  private static void expect(JsonToken actual, JsonToken expected, JsonParser parser) {
+    if (actual != expected) {
+      throw new BadRequestException("malformed invoice JSON: expected " + expected.asString() + " at "
+          + parser.currentLocation().offsetDescription());
+    }
+  }
+
+  private static void throwIfInvalid(Set<? extends ConstraintViolation<?>> violations) {
+    if (!violations.isEmpty()) {
+      throw violation(violations);
+    }
+  }
+
+  private static ConstraintViolationException violation(Set<? extends ConstraintViolation<?>> violations) {
+    return new ConstraintViolationException(violations);
+  }
+}
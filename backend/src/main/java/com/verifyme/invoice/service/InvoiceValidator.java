@@ -0,0 +1,188 @@
+package com.verifyme.invoice.service;
+
+import com.verifyme.invoice.config.InvoiceConfig;
+import com.verifyme.invoice.dto.InvoicePayload;
+import com.verifyme.invoice.dto.InvoiceRequest;
+import com.verifyme.invoice.model.InvoiceLine;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.inject.Inject;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Valid;
+import jakarta.validation.Validator;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Validates invoices in one pass of plain field checks, hand-written from the constraints of
+ * {@link InvoiceRequest}, {@link InvoicePayload} and {@link InvoiceLine}, before falling back to
+ * Hibernate Validator. Only an invalid invoice, or every invoice when
+ * {@code invoice.validation.fast-path} is off, is validated by Hibernate Validator, which then
+ * reports the violations itself, so messages and property paths are exactly the ones of the
+ * annotations. A constraint added to those classes must be added to the checks below as well.
+ */
+@ApplicationScoped
+public class InvoiceValidator {
+
+  private static final BigDecimal MIN_AMOUNT = new BigDecimal("0.0"); // @DecimalMin("0.0")
+
+  /**
+   * Mirrors of the {@code InvoiceResource} endpoints taking an {@link InvoiceRequest}, same method
+   * and parameter names, so violations carry the same path as method validation ("total.body.…")
+   */
+  static final class Endpoints {
+    void total(@Valid InvoiceRequest body) {}
+
+    void totalAsync(@Valid InvoiceRequest body) {}
+  }
+
+  /**
+   * Same endpoints down to the lines of the invoice only, so a line validated on its own, as a
+   * streamed one, gets the path it has in the bound request ("total.body.invoice.lines[i].…")
+   */
+  static final class LineEndpoints {
+    void total(@Valid LineRequest body) {}
+  }
+
+  static final class LineRequest {
+    @Valid
+    final LinePayload invoice;
+
+    LineRequest(int index, InvoiceLine line) {
+      this.invoice = new LinePayload(index, line);
+    }
+  }
+
+  static final class LinePayload {
+    final List<@Valid InvoiceLine> lines;
+
+    /** the line at {@code index} after as many nulls, which {@code @Valid} skips */
+    LinePayload(int index, InvoiceLine line) {
+      this.lines = new AbstractList<>() {
+        @Override
+        public InvoiceLine get(int i) {
+          return i == index ? line : null;
+        }
+
+        @Override
+        public int size() {
+          return index + 1;
+        }
+      };
+    }
+  }
+
+  private static final Endpoints ENDPOINTS = new Endpoints();
+  private static final LineEndpoints LINE_ENDPOINTS = new LineEndpoints();
+
+  private static final Map<String, Method> ENDPOINT_METHODS = methods(Endpoints.class);
+  private static final Map<String, Method> LINE_ENDPOINT_METHODS = methods(LineEndpoints.class);
+
+  private static Map<String, Method> methods(Class<?> endpoints) {
+    return Arrays.stream(endpoints.getDeclaredMethods())
+        .filter(method -> method.getParameterCount() == 1)
+        .collect(Collectors.toUnmodifiableMap(Method::getName, Function.identity()));
+  }
+
+  @Inject
+  Validator validator;
+
+  @Inject
+  InvoiceConfig config;
+
+  /**
+   * Validate the body of the endpoint as method validation of {@code @Valid InvoiceRequest body} would
+   *
+   * @param endpoint name of the {@code InvoiceResource} method
+   */
+  public Set<? extends ConstraintViolation<?>> validateBody(String endpoint, InvoiceRequest body) {
+    if (fastPath() && isValid(body)) {
+      return Set.of();
+    }
+    return validator.forExecutables().validateParameters(ENDPOINTS, method(ENDPOINT_METHODS, endpoint),
+        new Object[] {body});
+  }
+
+  /**
+   * Validate one line of the body of the endpoint as if it were bound at {@code index}: violations
+   * carry the path and messages method validation gives it in the whole body
+   *
+   * @param endpoint name of the {@code InvoiceResource} method
+   */
+  public Set<? extends ConstraintViolation<?>> validateLine(String endpoint, int index, InvoiceLine line) {
+    if (fastPath() && isValid(line)) {
+      return Set.of();
+    }
+    return validator.forExecutables().validateParameters(LINE_ENDPOINTS, method(LINE_ENDPOINT_METHODS, endpoint),
+        new Object[] {new LineRequest(index, line)});
+  }
+
+  private static Method method(Map<String, Method> methods, String endpoint) {
+    Method method = methods.get(endpoint);
+    if (method == null) {
+      throw new IllegalArgumentException("no endpoint " + endpoint);
+    }
+    return method;
+  }
+
+  public Set<ConstraintViolation<InvoicePayload>> validate(InvoicePayload payload) {
+    return fastPath() && isValid(payload) ? Set.of() : validator.validate(payload);
+  }
+
+  private boolean fastPath() {
+    return config.validation().fastPath();
+  }
+
+  /**
+   * {@code @Valid InvoiceRequest}: a null request is not validated
+   */
+  static boolean isValid(InvoiceRequest request) {
+    return request == null || request.invoice != null && isValid(request.invoice);
+  }
+
+  static boolean isValid(InvoicePayload payload) {
+    if (!notBlank(payload.currency) || payload.date == null) {
+      return false;
+    }
+    List<InvoiceLine> lines = payload.lines;
+    if (lines == null || lines.isEmpty()) {
+      return false;
+    }
+    for (InvoiceLine line : lines) {
+      if (line != null && !isValid(line)) { // @Valid skips null elements
+        return false;
+      }
+    }
+    return true;
+  }
+
+  static boolean isValid(InvoiceLine line) {
+    return notBlank(line.description)
+        && notBlank(line.currency)
+        && line.amount != null
+        && line.amount.compareTo(MIN_AMOUNT) >= 0;
+  }
+
+  /**
+   * {@code @NotBlank}: not null and not only characters {@link String#trim} removes
+   */
+  private static boolean notBlank(String value) {
+    if (value == null) {
+      return false;
+    }
+    for (int i = 0, n = value.length(); i < n; i++) {
+      if (value.charAt(i) > ' ') {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,217 @@
+package com.verifyme.invoice.service;
+
+import com.verifyme.common.client.FrankfurterClient;
+import com.verifyme.common.client.FrankfurterTimeSeriesResponse;
+import com.verifyme.common.utils.Currencies;
+import com.verifyme.common.utils.Roundings;
+import com.verifyme.invoice.config.InvoiceConfig;
+import com.verifyme.invoice.dto.RatePreloadResult;
+
+import io.quarkus.runtime.Quarkus;
+import io.quarkus.runtime.StartupEvent;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+import org.eclipse.microprofile.rest.client.inject.RestClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Warms the rate cache with whole date ranges from Frankfurter, so invoices inside the preloaded
+ * window never need a network call. Each configured base currency costs one range request per chunk
+ * of days for all configured line currencies. With the triangulated rate source, whole anchor tables
+ * are preloaded instead, one range request per chunk serving every base and line currency.
+ */
+@ApplicationScoped
+public class RatePreloader {
+
+  private static final Logger logger = LoggerFactory.getLogger(RatePreloader.class);
+
+  private static final DateTimeFormatter DF = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+  /**
+   * Weekends and ECB holidays have no published rates, Frankfurter answers them with the last
+   * published day. Longer gaps are not filled, they would mean the range came back incomplete.
+   */
+  static final int MAX_UNPUBLISHED_DAYS = 4;
+
+  @Inject
+  @RestClient
+  FrankfurterClient frankfurter;
+
+  @Inject
+  InvoiceConfig config;
+
+  @Inject
+  ExchangeRateCache rateCache;
+
+  void onStart(@Observes StartupEvent event) {
+    if (!config.preload().onStartup()) {
+      return;
+    }
+    RatePreloadResult result = null;
+    try {
+      result = preload();
+    } catch (RuntimeException e) {
+      logger.warn("Startup rate preload failed, rates will be fetched on demand: {}", e.getMessage());
+    }
+    if (config.preload().exitWhenDone()) {
+      Quarkus.asyncExit(result != null && result.rates > 0 ? 0 : 1);
+    }
+  }
+
+  /**
+   * Preload the configured window, counted back from today, for every configured base currency
+   */
+  public RatePreloadResult preload() {
+    final LocalDate end = LocalDate.now(ExchangeRateCache.PUBLICATION_ZONE);
+    final LocalDate start = end.minusDays(Math.max(1, config.preload().days()) - 1L);
+    final int chunkDays = Math.max(1, config.preload().chunkDays());
+
+    RatePreloadResult result = new RatePreloadResult();
+    result.startDate = start;
+    result.endDate = end;
+
+    long began = System.nanoTime();
+    if (config.rates().source() == InvoiceConfig.RatesConfig.Source.TRIANGULATED) {
+      final String anchor = Currencies.normalize(config.rates().anchor());
+      for (LocalDate chunkStart = start; !chunkStart.isAfter(end); chunkStart = chunkStart.plusDays(chunkDays)) {
+        LocalDate chunkEnd = chunkStart.plusDays(chunkDays - 1L);
+        if (chunkEnd.isAfter(end)) {
+          chunkEnd = end;
+        }
+        result.requests++;
+        result.rates += preloadTableChunk(anchor, chunkStart, chunkEnd);
+      }
+      logger.info("Preloaded {} {} anchored quotes for {}..{} in {} requests and {} ms",
+                 result.rates, anchor, start, end, result.requests, (System.nanoTime() - began) / 1_000_000);
+      return result;
+    }
+
+    for (String base : normalize(config.preload().baseCurrencies())) {
+      List<String> symbols = normalize(config.preload().currencies()).stream()
+          .filter(currency -> !currency.equals(base))
+          .toList();
+      if (symbols.isEmpty()) {
+        continue;
+      }
+
+      for (LocalDate chunkStart = start; !chunkStart.isAfter(end); chunkStart = chunkStart.plusDays(chunkDays)) {
+        LocalDate chunkEnd = chunkStart.plusDays(chunkDays - 1L);
+        if (chunkEnd.isAfter(end)) {
+          chunkEnd = end;
+        }
+        result.requests++;
+        result.rates += preloadChunk(base, symbols, chunkStart, chunkEnd);
+      }
+    }
+
+    logger.info("Preloaded {} exchange rates for {}..{} in {} requests and {} ms",
+               result.rates, start, end, result.requests, (System.nanoTime() - began) / 1_000_000);
+    return result;
+  }
+
+  /**
+   * Fetch one range and cache the inverted rate of every (day, currency) of the chunk
+   */
+  private int preloadChunk(String base, List<String> symbols, LocalDate start, LocalDate end) {
+    NavigableMap<LocalDate, Map<String, Double>> published = fetchRange(base, String.join(",", symbols), start, end);
+    if (published == null) {
+      return 0;
+    }
+
+    int loaded = 0;
+    final int rateScale = config.decimal().rateScale();
+    for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+      Map<String, Double> quotes = latestPublished(published, date);
+      if (quotes == null) {
+        continue;
+      }
+      for (String from : symbols) {
+        Double quote = quotes.get(from);
+        if (quote == null || quote <= 0) {
+          continue;
+        }
+        rateCache.put(date, from, base, Roundings.inverseRate(BigDecimal.valueOf(quote), rateScale));
+        loaded++;
+      }
+    }
+    return loaded;
+  }
+
+  /**
+   * Fetch one range of whole anchor tables and cache the table of every day of the chunk
+   */
+  private int preloadTableChunk(String anchor, LocalDate start, LocalDate end) {
+    NavigableMap<LocalDate, Map<String, Double>> published = fetchRange(anchor, null, start, end);
+    if (published == null) {
+      return 0;
+    }
+
+    int loaded = 0;
+    for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+      Map<String, Double> quotes = latestPublished(published, date);
+      if (quotes == null) {
+        continue;
+      }
+      rateCache.putTable(date, AnchorRateTable.of(anchor, quotes));
+      loaded += quotes.size();
+    }
+    return loaded;
+  }
+
+  /**
+   * @return the published quotes by day, starting a few days early so the first days of the chunk
+   *         can be filled forward, or {@code null} if the range cannot be fetched
+   */
+  private NavigableMap<LocalDate, Map<String, Double>> fetchRange(String base, String symbols,
+      LocalDate start, LocalDate end) {
+    FrankfurterTimeSeriesResponse resp;
+    try {
+      resp = frankfurter.getTimeSeries(DF.format(start.minusDays(MAX_UNPUBLISHED_DAYS)), DF.format(end),
+          base, symbols);
+    } catch (Exception e) {
+      logger.warn("Failed to preload exchange rates {} -> {} for {}..{}: {}",
+                 symbols == null ? "*" : symbols, base, start, end, e.getMessage());
+      return null;
+    }
+    if (resp == null || resp.rates == null) {
+      return null;
+    }
+
+    NavigableMap<LocalDate, Map<String, Double>> published = new TreeMap<>();
+    resp.rates.forEach((date, quotes) -> published.put(LocalDate.parse(date, DF), quotes));
+    return published;
+  }
+
+  /**
+   * @return the quotes of the last day published at most {@link #MAX_UNPUBLISHED_DAYS} before the date
+   */
+  private static Map<String, Double> latestPublished(NavigableMap<LocalDate, Map<String, Double>> published,
+      LocalDate date) {
+    Map.Entry<LocalDate, Map<String, Double>> latest = published.floorEntry(date);
+    if (latest == null || ChronoUnit.DAYS.between(latest.getKey(), date) > MAX_UNPUBLISHED_DAYS) {
+      return null;
+    }
+    return latest.getValue();
+  }
+
+  private static List<String> normalize(List<String> currencies) {
+    return currencies.stream()
+        .map(Currencies::normalize)
+        .filter(currency -> !currency.isEmpty())
+        .distinct()
+        .toList();
+  }
+}
@@ -0,0 +1,316 @@
+package com.verifyme.invoice.service;
+
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Append-only local file of settled exchange rates, so a restarted instance serves historical rates
+ * without asking Frankfurter again.
+ *
+ * <p>The file is a 16 byte header ({@code magic, version, rate scale}) followed by fixed 16 byte records:
+ * the epoch day of the rate date ({@code int}), the (from, to) pair packed into an {@code int} and the
+ * rate as an unscaled {@code long} at the header scale. Opening maps the file read-only and indexes the
+ * records into a primitive hash table, no parsing involved; a torn record left by a crash is cut off.
+ */
+public final class RateSnapshot implements Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(RateSnapshot.class);
+
+  private static final int MAGIC = 0x52415445; // "RATE"
+  private static final short VERSION = 1;
+  static final int HEADER_BYTES = 16;
+  static final int RECORD_BYTES = 16;
+
+  private final FileChannel channel;
+  private final int rateScale;
+  private final LongLongTable index;
+  private final ByteBuffer record = ByteBuffer.allocate(RECORD_BYTES);
+
+  private RateSnapshot(FileChannel channel, int rateScale, LongLongTable index) {
+    this.channel = channel;
+    this.rateScale = rateScale;
+    this.index = index;
+  }
+
+  /**
+   * Open the snapshot at {@code path}, creating it when missing. A file written with another
+   * rate scale or format is started over.
+   */
+  public static RateSnapshot open(Path path, int rateScale) throws IOException {
+    long start = System.nanoTime();
+    if (path.getParent() != null) {
+      Files.createDirectories(path.getParent());
+    }
+    FileChannel channel = FileChannel.open(path,
+        StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    try {
+      LongLongTable index = new LongLongTable(1024);
+      long size = channel.size();
+
+      if (size >= HEADER_BYTES && readHeader(channel, rateScale)) {
+        long records = (size - HEADER_BYTES) / RECORD_BYTES;
+        long validBytes = HEADER_BYTES + records * RECORD_BYTES;
+        if (records > 0) {
+          MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_BYTES, records * RECORD_BYTES);
+          index = new LongLongTable((int) Math.min(Integer.MAX_VALUE / 4, records));
+          for (long i = 0; i < records; i++) {
+            int epochDay = map.getInt();
+            int pair = map.getInt();
+            long unscaled = map.getLong();
+            if (pair != 0) {
+              index.put(key(epochDay, pair), unscaled);
+            }
+          }
+        }
+        if (validBytes != size) {
+          logger.warn("Dropping {} bytes of a torn record at the end of rate snapshot {}", size - validBytes, path);
+          channel.truncate(validBytes);
+        }
+      } else {
+        if (size > 0) {
+          logger.warn("Rate snapshot {} has another format or rate scale, starting it over", path);
+        }
+        channel.truncate(0);
+        writeHeader(channel, rateScale);
+      }
+      channel.position(channel.size());
+
+      logger.info("Loaded {} exchange rates from snapshot {} in {} ms",
+                 index.size(), path, (System.nanoTime() - start) / 1_000_000);
+      return new RateSnapshot(channel, rateScale, index);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * @return the persisted rate, or {@code null} if absent or the pair is not a 3 letter code pair
+   */
+  public synchronized BigDecimal get(LocalDate date, String from, String to) {
+    int pair = pair(from, to);
+    if (pair == 0) {
+      return null;
+    }
+    long key = key((int) date.toEpochDay(), pair);
+    return index.contains(key) ? BigDecimal.valueOf(index.get(key), rateScale) : null;
+  }
+
+  /**
+   * Append a rate unless it is already persisted, pairs that are not 3 letter codes are skipped. The
+   * file is written outside the lock of {@link #get}, so lookups never wait on the disk; concurrent
+   * appends of the same rate may both be written, the later record simply repeats the earlier one.
+   */
+  public void append(LocalDate date, String from, String to, BigDecimal rate) throws IOException {
+    int pair = pair(from, to);
+    if (pair == 0) {
+      return;
+    }
+    int epochDay = (int) date.toEpochDay();
+    long key = key(epochDay, pair);
+    synchronized (this) {
+      if (index.contains(key)) {
+        return;
+      }
+    }
+    long unscaled = rate.setScale(rateScale).unscaledValue().longValueExact();
+
+    synchronized (record) {
+      record.clear();
+      record.putInt(epochDay).putInt(pair).putLong(unscaled).flip();
+      while (record.hasRemaining()) {
+        channel.write(record);
+      }
+    }
+    synchronized (this) {
+      index.put(key, unscaled);
+    }
+  }
+
+  /** one rate read back by {@link #read} */
+  @FunctionalInterface
+  public interface RateConsumer {
+    void accept(LocalDate date, String from, String to, BigDecimal rate);
+  }
+
+  /**
+   * Read every rate of a snapshot from a stream, e.g. one baked into the application as a resource,
+   * without indexing it. A torn trailing record is ignored.
+   *
+   * @return the number of rates read
+   * @throws IOException if the stream is not a snapshot of that rate scale
+   */
+  public static int read(InputStream in, int rateScale, RateConsumer consumer) throws IOException {
+    DataInputStream data = new DataInputStream(in);
+    byte[] header = new byte[HEADER_BYTES];
+    data.readFully(header);
+    ByteBuffer buffer = ByteBuffer.wrap(header);
+    if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION || buffer.getShort() != rateScale) {
+      throw new IOException("not a rate snapshot of rate scale " + rateScale);
+    }
+
+    int read = 0;
+    while (true) {
+      int epochDay;
+      int pair;
+      long unscaled;
+      try {
+        epochDay = data.readInt();
+        pair = data.readInt();
+        unscaled = data.readLong();
+      } catch (EOFException e) {
+        return read;
+      }
+      if (pair != 0) {
+        consumer.accept(LocalDate.ofEpochDay(epochDay), currency(pair >>> 15), currency(pair & 0x7FFF),
+            BigDecimal.valueOf(unscaled, rateScale));
+        read++;
+      }
+    }
+  }
+
+  public synchronized int size() {
+    return index.size();
+  }
+
+  @Override
+  public void close() throws IOException {
+    synchronized (record) {
+      channel.close();
+    }
+  }
+
+  private static boolean readHeader(FileChannel channel, int rateScale) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+    channel.read(header, 0);
+    header.flip();
+    return header.getInt() == MAGIC && header.getShort() == VERSION && header.getShort() == rateScale;
+  }
+
+  private static void writeHeader(FileChannel channel, int rateScale) throws IOException {
+    ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+    header.putInt(MAGIC).putShort(VERSION).putShort((short) rateScale);
+    header.clear(); // the rest of the header stays zero
+    while (header.hasRemaining()) {
+      channel.write(header, header.position());
+    }
+  }
+
+  private static long key(int epochDay, int pair) {
+    return ((long) epochDay << 32) | (pair & 0xFFFFFFFFL);
+  }
+
+  /** pack two 3 letter codes into 15 bits each, 0 if either is not 3 letters A-Z */
+  private static int pair(String from, String to) {
+    int f = code(from);
+    int t = code(to);
+    return f == 0 || t == 0 ? 0 : (f << 15) | t;
+  }
+
+  /** inverse of {@link #code} */
+  private static String currency(int code) {
+    int value = code - 1;
+    char[] letters = new char[3];
+    for (int i = 2; i >= 0; i--) {
+      letters[i] = (char) ('A' + value % 26);
+      value /= 26;
+    }
+    return new String(letters);
+  }
+
+  private static int code(String currency) {
+    if (currency.length() != 3) {
+      return 0;
+    }
+    int code = 0;
+    for (int i = 0; i < 3; i++) {
+      char c = currency.charAt(i);
+      if (c < 'A' || c > 'Z') {
+        return 0;
+      }
+      code = code * 26 + (c - 'A');
+    }
+    return code + 1;
+  }
+
+  /**
+   * Open addressing long to long hash table, keys are never 0
+   */
+  private static final class LongLongTable {
+    private long[] keys;
+    private long[] values;
+    private int size;
+
+    LongLongTable(int expected) {
+      int capacity = Integer.highestOneBit(Math.max(16, expected * 2 - 1)) << 1;
+      keys = new long[capacity];
+      values = new long[capacity];
+    }
+
+    boolean contains(long key) {
+      return keys[slot(keys, key)] == key;
+    }
+
+    long get(long key) {
+      return values[slot(keys, key)];
+    }
+
+    void put(long key, long value) {
+      int slot = slot(keys, key);
+      if (keys[slot] == 0) {
+        keys[slot] = key;
+        size++;
+      }
+      values[slot] = value;
+      if (size * 2 > keys.length) {
+        grow();
+      }
+    }
+
+    int size() {
+      return size;
+    }
+
+    private void grow() {
+      long[] oldKeys = keys;
+      long[] oldValues = values;
+      keys = new long[oldKeys.length * 2];
+      values = new long[oldValues.length * 2];
+      for (int i = 0; i < oldKeys.length; i++) {
+        if (oldKeys[i] != 0) {
+          int slot = slot(keys, oldKeys[i]);
+          keys[slot] = oldKeys[i];
+          values[slot] = oldValues[i];
+        }
+      }
+    }
+
+    private static int slot(long[] keys, long key) {
+      int mask = keys.length - 1;
+      int slot = (int) (mix(key) & mask);
+      while (keys[slot] != 0 && keys[slot] != key) {
+        slot = (slot + 1) & mask;
+      }
+      return slot;
+    }
+
+    private static long mix(long key) {
+      key *= 0x9E3779B97F4A7C15L;
+      return key ^ (key >>> 32);
+    }
+  }
+}
@@ -0,0 +1,178 @@
+package com.verifyme.invoice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.verifyme.invoice.config.InvoiceConfig;
+import com.verifyme.invoice.dto.InvoicePayload;
+import com.verifyme.invoice.dto.InvoiceRequest;
+import com.verifyme.invoice.model.InvoiceLine;
+
+import io.quarkus.runtime.StartupEvent;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.event.Observes;
+import jakarta.inject.Inject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Warm start from a rate snapshot baked into the application: the baked rates are loaded into the
+ * rate cache, then invoices over those rates are bound, validated and computed for
+ * {@code invoice.warmup.iterations} rounds, all while the application starts, so the first requests
+ * neither wait on Frankfurter nor run through cold code. The baked rates are not copied into the
+ * runtime rate snapshot, and the warm-up calculations are neither recorded in the invoice metrics,
+ * JFR events and request log nor kept in the {@link InvoiceResultCache}.
+ *
+ * <p>The snapshot only holds base-anchored rates: with the triangulated rate source, the rates are
+ * loaded but the warm-up is skipped, it would fetch anchor tables from Frankfurter.
+ */
+@ApplicationScoped
+public class RateWarmup {
+
+  private static final Logger logger = LoggerFactory.getLogger(RateWarmup.class);
+
+  /** most recent (date, base currency) groups of baked rates turned into warm-up invoices */
+  static final int INVOICES = 16;
+
+  private record RateGroup(LocalDate date, String base) {}
+
+  @Inject
+  InvoiceConfig config;
+
+  @Inject
+  ExchangeRateCache rateCache;
+
+  @Inject
+  InvoiceService invoiceService;
+
+  @Inject
+  InvoiceValidator invoiceValidator;
+
+  @Inject
+  ObjectMapper objectMapper;
+
+  void onStart(@Observes StartupEvent event) {
+    warmUp();
+  }
+
+  void warmUp() {
+    final String resource = config.warmup().snapshotResource();
+    try (InputStream in = Thread.currentThread().getContextClassLoader().getResourceAsStream(resource)) {
+      if (in == null) {
+        logger.debug("No baked rate snapshot {}, starting cold", resource);
+        return;
+      }
+      warmUp(in, resource);
+    } catch (IOException e) {
+      logger.warn("Cannot close baked rate snapshot {}: {}", resource, e.getMessage());
+    }
+  }
+
+  /**
+   * Load the baked rates of {@code in} and warm up on them
+   *
+   * @return the number of warm-up calculations run
+   */
+  int warmUp(InputStream in, String resource) {
+    Map<RateGroup, TreeSet<String>> groups = new HashMap<>();
+    int loaded;
+    final long began = System.nanoTime();
+    try {
+      loaded = RateSnapshot.read(in, config.decimal().rateScale(), (date, from, to, rate) -> {
+        rateCache.load(date, from, to, rate);
+        groups.computeIfAbsent(new RateGroup(date, to), group -> new TreeSet<>()).add(from);
+      });
+    } catch (IOException e) {
+      logger.warn("Cannot load baked rate snapshot {}, starting cold: {}", resource, e.getMessage());
+      return 0;
+    }
+    logger.info("Loaded {} baked exchange rates from {} in {} ms",
+               loaded, resource, (System.nanoTime() - began) / 1_000_000);
+
+    final int iterations = config.warmup().iterations();
+    if (iterations <= 0 || groups.isEmpty()) {
+      return 0;
+    }
+    if (config.rates().source() == InvoiceConfig.RatesConfig.Source.TRIANGULATED) {
+      logger.info("Skipping the warm-up, baked rates do not hold the anchor tables of the triangulated source");
+      return 0;
+    }
+
+    List<byte[]> invoices = new ArrayList<>();
+    try {
+      for (InvoiceRequest request : invoices(groups)) {
+        invoices.add(objectMapper.writeValueAsBytes(request));
+      }
+    } catch (IOException e) {
+      logger.warn("Cannot write the warm-up invoices, skipping the warm-up: {}", e.getMessage());
+      return 0;
+    }
+
+    final long start = System.nanoTime();
+    int calculations = 0;
+    try {
+      for (int i = 0; i < iterations; i++) {
+        for (byte[] json : invoices) {
+          InvoiceRequest request = objectMapper.readValue(json, InvoiceRequest.class);
+          InvoiceLine first = request.invoice.lines.get(0);
+          first.amount = first.amount.add(BigDecimal.valueOf(i, 2));
+          if (!invoiceValidator.validateBody("total", request).isEmpty()) {
+            throw new IllegalStateException("warm-up invoice is invalid");
+          }
+          invoiceService.warmUpTotal(request.invoice);
+          calculations++;
+        }
+      }
+    } catch (IOException | RuntimeException e) {
+      logger.warn("Warm-up stopped after {} calculations: {}", calculations, e.getMessage());
+      return calculations;
+    }
+    logger.info("Warmed up with {} invoice calculations in {} ms",
+               calculations, (System.nanoTime() - start) / 1_000_000);
+    return calculations;
+  }
+
+  /**
+   * One invoice per most recent (date, base) group, with lines in the base and every baked currency
+   */
+  private static List<InvoiceRequest> invoices(Map<RateGroup, TreeSet<String>> groups) {
+    return groups.entrySet().stream()
+        .sorted(Map.Entry.<RateGroup, TreeSet<String>>comparingByKey(
+            Comparator.comparing(RateGroup::date).reversed().thenComparing(RateGroup::base)))
+        .limit(INVOICES)
+        .map(entry -> {
+          InvoicePayload payload = new InvoicePayload();
+          payload.currency = entry.getKey().base();
+          payload.date = entry.getKey().date();
+          payload.lines = new ArrayList<>();
+          payload.lines.add(line(payload.currency, payload.lines.size()));
+          for (String from : entry.getValue()) {
+            payload.lines.add(line(from, payload.lines.size()));
+            payload.lines.add(line(from, payload.lines.size()));
+          }
+          InvoiceRequest request = new InvoiceRequest();
+          request.invoice = payload;
+          return request;
+        })
+        .toList();
+  }
+
+  private static InvoiceLine line(String currency, int index) {
+    InvoiceLine line = new InvoiceLine();
+    line.description = "Warm-up " + index;
+    line.currency = currency;
+    line.amount = BigDecimal.valueOf(1999 + 1000L * index, 2);
+    return line;
+  }
+}
@@ -0,0 +1,64 @@
+package com.verifyme.common.logging;
+
+import com.verifyme.invoice.config.InvoiceConfig;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RequestLogUnitTest {
+
+    private static final long FAST = Duration.ofMillis(20).toNanos();
+    private static final long SLOW = Duration.ofMillis(1500).toNanos();
+
+    @Test
+    void reason_samplingOff_keepsOnlyErrorsAndSlowCalls() {
+        // Given
+        RequestLog requestLog = requestLog(0.0);
+
+        // When & Then
+        assertNull(requestLog.reason(FAST, false));
+        assertEquals(RequestLog.SLOW, requestLog.reason(SLOW, false));
+        assertEquals(RequestLog.ERROR, requestLog.reason(FAST, true));
+        assertEquals(RequestLog.ERROR, requestLog.reason(SLOW, true));
+    }
+
+    @Test
+    void reason_sampleEverything_keepsFastCallsAsSampled() {
+        // Given
+        RequestLog requestLog = requestLog(1.0);
+
+        // When & Then
+        assertEquals(RequestLog.SAMPLED, requestLog.reason(FAST, false));
+        assertEquals(RequestLog.SLOW, requestLog.reason(SLOW, false));
+    }
+
+    @Test
+    void reason_partialSampleRate_keepsAboutThatShare() {
+        // Given
+        RequestLog requestLog = requestLog(0.1);
+
+        // When
+        int sampled = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (requestLog.reason(FAST, false) != null) {
+                sampled++;
+            }
+        }
+
+        // Then
+        assertTrue(sampled > 9_000 && sampled < 11_000, "sampled " + sampled);
+    }
+
+    private static RequestLog requestLog(double sampleRate) {
+        InvoiceConfig config = mock(InvoiceConfig.class);
+        InvoiceConfig.RequestLogConfig requestLogConfig = mock(InvoiceConfig.RequestLogConfig.class);
+        when(requestLogConfig.sampleRate()).thenReturn(sampleRate);
+        when(requestLogConfig.slowThreshold()).thenReturn(Duration.ofSeconds(1));
+        when(config.requestLog()).thenReturn(requestLogConfig);
+        return new RequestLog(config);
+    }
+}
@@ -0,0 +1,109 @@
+package com.verifyme.common.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CurrenciesUnitTest {
+
+    @Test
+    void id_referenceCurrencies_getTheFirstIds() {
+        // When
+        int eur = Currencies.id("EUR");
+        int zar = Currencies.id("ZAR");
+
+        // Then
+        assertEquals(0, eur);
+        assertTrue(zar < 31);
+        assertEquals("ZAR", Currencies.code(zar));
+    }
+
+    @Test
+    void id_caseAndWhitespace_ignored() {
+        // When & Then
+        assertEquals(Currencies.id("USD"), Currencies.id(" usd "));
+        assertEquals(Currencies.id("USD"), Currencies.id("uSd\t"));
+        assertSame(Currencies.code(Currencies.id("USD")), Currencies.code(Currencies.id("usd")));
+    }
+
+    @Test
+    void id_notThreeLetters_isNone() {
+        // When & Then
+        assertEquals(Currencies.NONE, Currencies.id(null));
+        assertEquals(Currencies.NONE, Currencies.id(""));
+        assertEquals(Currencies.NONE, Currencies.id("US"));
+        assertEquals(Currencies.NONE, Currencies.id("USDX"));
+        assertEquals(Currencies.NONE, Currencies.id("U5D"));
+        assertEquals(Currencies.NONE, Currencies.id("ÜSD"));
+    }
+
+    @Test
+    void normalize_sameCodeAsId() {
+        // When & Then
+        assertSame(Currencies.code(Currencies.id("USD")), Currencies.normalize("\u3000usd\t"));
+        assertEquals("USDX", Currencies.normalize(" usdx\u3000"));
+        assertNull(Currencies.normalize(null));
+    }
+
+    @Test
+    void normalize_turkishDefaultLocale_stillAsciiUpperCase() {
+        // Given
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(Locale.forLanguageTag("tr"));
+
+        try {
+            // When & Then
+            assertEquals("INRX", Currencies.normalize("inrx"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+    }
+
+    @Test
+    void id_asciiBytes_sameIdAsCode() {
+        // Given
+        byte[] ascii = "xxUSDgbpU5D".getBytes(StandardCharsets.US_ASCII);
+
+        // When & Then
+        assertEquals(Currencies.id("USD"), Currencies.id(ascii, 2));
+        assertEquals(Currencies.id("GBP"), Currencies.id(ascii, 5));
+        assertEquals(Currencies.NONE, Currencies.id(ascii, 8));
+        assertEquals(Currencies.NONE, Currencies.id(new byte[] {'U', (byte) 0xDC, 'D'}, 0));
+    }
+
+    @Test
+    void id_unknownCode_registeredOnceAcrossThreads() throws Exception {
+        // Given
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+
+        try {
+            // When
+            List<Future<Integer>> ids = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                ids.add(pool.submit(() -> Currencies.id("QQX")));
+            }
+
+            // Then
+            Set<Integer> distinct = new HashSet<>();
+            for (Future<Integer> id : ids) {
+                distinct.add(id.get());
+            }
+            assertEquals(1, distinct.size());
+            int id = distinct.iterator().next();
+            assertEquals("QQX", Currencies.code(id));
+            assertTrue(id < Currencies.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.verifyme.common.utils;
+
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import net.jqwik.api.Tuple;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.LongRange;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FixedPointUnitTest {
+
+    private static final BigDecimal LONG_MAX = BigDecimal.valueOf(Long.MAX_VALUE);
+    private static final BigDecimal LONG_MIN = BigDecimal.valueOf(-Long.MAX_VALUE);
+
+    @Property(tries = 5000)
+    void rescale_matchesBigDecimalHalfUp(@ForAll @LongRange(min = -Long.MAX_VALUE) long unscaled,
+                                         @ForAll @IntRange(min = -4, max = 24) int fromScale,
+                                         @ForAll @IntRange(min = -4, max = 24) int toScale) {
+        // Given
+        BigDecimal expected = BigDecimal.valueOf(unscaled, fromScale).setScale(toScale, RoundingMode.HALF_UP);
+
+        // When
+        long result = FixedPoint.rescale(unscaled, fromScale, toScale);
+
+        // Then
+        if (result == FixedPoint.OVERFLOW) {
+            assertTrue(!fitsUnscaled(expected) || Math.abs(toScale - fromScale) > 18,
+                    "unexpected overflow for " + expected);
+        } else {
+            assertEquals(expected, FixedPoint.toBigDecimal(result, toScale));
+        }
+    }
+
+    @Property(tries = 5000)
+    void multiply_matchesRoundingsMoney(@ForAll("amounts") BigDecimal amount,
+                                        @ForAll("rates") BigDecimal rate,
+                                        @ForAll @IntRange(min = 0, max = 4) int moneyScale) {
+        // Given
+        BigDecimal expected = Roundings.money(amount.multiply(rate), moneyScale);
+
+        // When
+        long result = FixedPoint.multiply(FixedPoint.unscaled(amount), amount.scale(),
+                FixedPoint.unscaled(rate), rate.scale(), moneyScale);
+
+        // Then
+        if (result != FixedPoint.OVERFLOW) {
+            assertEquals(expected, FixedPoint.toBigDecimal(result, moneyScale));
+        } else {
+            BigDecimal product = amount.multiply(rate);
+            assertTrue(!fitsUnscaled(product) || !fitsUnscaled(expected) || Math.abs(product.scale() - moneyScale) > 18,
+                    "unexpected overflow for " + amount + " * " + rate);
+        }
+    }
+
+    @Property(tries = 5000)
+    void add_detectsEveryOverflow(@ForAll @LongRange(min = -Long.MAX_VALUE) long a,
+                                  @ForAll @LongRange(min = -Long.MAX_VALUE) long b) {
+        // Given
+        BigDecimal expected = BigDecimal.valueOf(a).add(BigDecimal.valueOf(b));
+
+        // When
+        long result = FixedPoint.add(a, b);
+
+        // Then
+        if (fits(expected)) {
+            assertEquals(expected.longValueExact(), result);
+        } else {
+            assertEquals(FixedPoint.OVERFLOW, result);
+        }
+    }
+
+    @Property(tries = 2000)
+    void unscaled_roundTripsOrOverflows(@ForAll("amounts") BigDecimal amount) {
+        // When
+        long unscaled = FixedPoint.unscaled(amount);
+
+        // Then
+        if (unscaled != FixedPoint.OVERFLOW) {
+            assertEquals(amount, FixedPoint.toBigDecimal(unscaled, amount.scale()));
+        } else {
+            assertFalse(fitsUnscaled(amount));
+        }
+    }
+
+    @Example
+    void rescale_halfUpRoundsAwayFromZero() {
+        assertEquals(13, FixedPoint.rescale(125, 1, 0));
+        assertEquals(-13, FixedPoint.rescale(-125, 1, 0));
+        assertEquals(12, FixedPoint.rescale(1249, 2, 0));
+        assertEquals(-12, FixedPoint.rescale(-1249, 2, 0));
+    }
+
+    @Example
+    void overflowPropagates() {
+        assertEquals(FixedPoint.OVERFLOW, FixedPoint.multiply(Long.MAX_VALUE, 0, 2, 0, 0));
+        assertEquals(FixedPoint.OVERFLOW, FixedPoint.rescale(FixedPoint.OVERFLOW, 0, 2));
+        assertEquals(FixedPoint.OVERFLOW, FixedPoint.add(FixedPoint.OVERFLOW, 1));
+        assertEquals(FixedPoint.OVERFLOW, FixedPoint.unscaled(new BigDecimal("123456789012345678901234567890")));
+        assertEquals(1, FixedPoint.unscaled(new BigDecimal("1e30"))); // 1 at scale -30
+    }
+
+    /** amounts as they arrive in invoices, plus some too large for a long */
+    @Provide
+    Arbitrary<BigDecimal> amounts() {
+        Arbitrary<Long> unscaled = Arbitraries.oneOf(
+                Arbitraries.longs().between(-1_000_000_000L, 1_000_000_000L),
+                Arbitraries.longs().between(-Long.MAX_VALUE, Long.MAX_VALUE));
+        Arbitrary<Integer> scale = Arbitraries.integers().between(-3, 10);
+        Arbitrary<BigDecimal> regular = Combinators.combine(unscaled, scale).as(BigDecimal::valueOf);
+        Arbitrary<BigDecimal> huge = Arbitraries.bigDecimals()
+                .between(new BigDecimal("-1e25"), new BigDecimal("1e25")).ofScale(4);
+        return Arbitraries.frequencyOf(Tuple.of(9, regular), Tuple.of(1, huge));
+    }
+
+    /** positive rates at the scales a rate table can use */
+    @Provide
+    Arbitrary<BigDecimal> rates() {
+        return Combinators.combine(
+                Arbitraries.longs().between(1, 10_000_000_000L),
+                Arbitraries.integers().between(2, 10)).as(BigDecimal::valueOf);
+    }
+
+    /** whether the unscaled value of {@code v} is a long other than the overflow marker */
+    private static boolean fitsUnscaled(BigDecimal v) {
+        return fits(new BigDecimal(v.unscaledValue()));
+    }
+
+    private static boolean fits(BigDecimal integral) {
+        return integral.compareTo(LONG_MAX) <= 0 && integral.compareTo(LONG_MIN) >= 0;
+    }
+}
@@ -0,0 +1,165 @@
+package com.verifyme.common.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightUnitTest {
+
+    private static final int CALLERS = 8;
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void execute_concurrentCallersSameKey_shareOneCall() throws Exception {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+
+        try {
+            // When
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(pool.submit(() -> singleFlight.execute("2023-01-15", () -> {
+                    calls.incrementAndGet();
+                    await(release);
+                    return "rate";
+                })));
+            }
+            waitForInFlight();
+            Thread.sleep(100);
+            release.countDown();
+
+            // Then
+            for (Future<String> result : results) {
+                assertEquals("rate", result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, calls.get());
+            assertEquals(0, singleFlight.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_failure_propagatesToAllWaitersAndIsNotRetained() throws Exception {
+        // Given
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(CALLERS);
+
+        try {
+            // When
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(pool.submit(() -> singleFlight.execute("2023-01-15", () -> {
+                    await(release);
+                    throw new IllegalStateException("Network error");
+                })));
+            }
+            waitForInFlight();
+            Thread.sleep(100);
+            release.countDown();
+
+            // Then
+            for (Future<String> result : results) {
+                Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(IllegalStateException.class, e.getCause());
+                assertEquals("Network error", e.getCause().getMessage());
+            }
+            assertEquals(0, singleFlight.size());
+            assertEquals("recovered", singleFlight.execute("2023-01-15", () -> "recovered"));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_differentKeys_runSeparately() {
+        // Given
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        singleFlight.execute("2023-01-15", () -> "a" + calls.incrementAndGet());
+        singleFlight.execute("2023-01-16", () -> "b" + calls.incrementAndGet());
+
+        // Then
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void executeAsync_callersSameKey_shareOneCallWithBlockingCallers() throws Exception {
+        // Given
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        // When
+        CompletionStage<String> first = singleFlight.executeAsync("2023-01-15", () -> {
+            calls.incrementAndGet();
+            return upstream;
+        });
+        CompletionStage<String> second = singleFlight.executeAsync("2023-01-15", () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture("other");
+        });
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> blocking = pool.submit(() -> singleFlight.execute("2023-01-15", () -> "other"));
+            Thread.sleep(100);
+            upstream.complete("rate");
+
+            // Then
+            assertEquals("rate", first.toCompletableFuture().get(5, TimeUnit.SECONDS));
+            assertEquals("rate", second.toCompletableFuture().get(5, TimeUnit.SECONDS));
+            assertEquals("rate", blocking.get(5, TimeUnit.SECONDS));
+            assertEquals(1, calls.get());
+            assertEquals(0, singleFlight.size());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void executeAsync_failure_isSharedAndNotRetained() {
+        // Given
+        CompletableFuture<String> upstream = new CompletableFuture<>();
+        CompletionStage<String> first = singleFlight.executeAsync("2023-01-15", () -> upstream);
+        CompletionStage<String> second = singleFlight.executeAsync("2023-01-15", () -> upstream);
+
+        // When
+        upstream.completeExceptionally(new IllegalStateException("Network error"));
+
+        // Then
+        for (CompletionStage<String> stage : List.of(first, second)) {
+            Exception e = assertThrows(Exception.class, () -> stage.toCompletableFuture().get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, e.getCause());
+        }
+        assertEquals(0, singleFlight.size());
+    }
+
+    private void waitForInFlight() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (singleFlight.size() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.verifyme.invoice.dto;
+
+import com.verifyme.invoice.model.InvoiceLine;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.ws.rs.BadRequestException;
+
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryInvoiceUnitTest {
+
+    private final Validator validator = Validation.byDefaultProvider().configure()
+            .messageInterpolator(new ParameterMessageInterpolator())
+            .buildValidatorFactory().getValidator();
+
+    @Property(tries = 500)
+    void read_writtenInvoice_sameInvoice(@ForAll("invoices") InvoicePayload invoice) throws IOException {
+        // When
+        InvoicePayload read = BinaryInvoice.read(bytes(invoice)).invoice;
+
+        // Then
+        assertEquals(invoice.currency.trim().toUpperCase(), read.currency);
+        assertEquals(invoice.date, read.date);
+        assertEquals(invoice.lines.size(), read.lines.size());
+        for (int i = 0; i < invoice.lines.size(); i++) {
+            assertEquals(invoice.lines.get(i).currency.trim().toUpperCase(), read.lines.get(i).currency);
+            assertEquals(invoice.lines.get(i).amount, read.lines.get(i).amount); // same scale too
+        }
+        assertTrue(validator.validate(read).isEmpty(), "a decoded invoice validates");
+    }
+
+    @Example
+    void write_smallInvoice_takesFewBytes() throws IOException {
+        // Given
+        InvoicePayload invoice = invoice("USD", LocalDate.of(2023, 1, 15), line("EUR", "100.00"), line("GBP", "19.99"));
+
+        // When
+        byte[] bytes = bytes(invoice);
+
+        // Then
+        assertArrayEquals(new byte[] {
+            1, 'U', 'S', 'D', 0, 0, 0x4B, (byte) 0xAC, 2,
+            'E', 'U', 'R', 2, (byte) 0xA0, (byte) 0x9C, 0x01,
+            'G', 'B', 'P', 2, (byte) 0x9E, 0x1F}, bytes);
+    }
+
+    @Example
+    void read_malformedBody_throwsBadRequest() throws IOException {
+        // Given
+        byte[] valid = bytes(invoice("USD", LocalDate.of(2023, 1, 15), line("EUR", "1")));
+        byte[] version = valid.clone();
+        version[0] = 2;
+        byte[] currency = valid.clone();
+        currency[9] = '5';
+        byte[] negative = valid.clone();
+        negative[13] = 1; // zigzag -1
+        byte[] noLines = Arrays.copyOf(valid, 9);
+        noLines[8] = 0;
+
+        // When & Then
+        assertThrows(BadRequestException.class, () -> BinaryInvoice.read(new byte[0]));
+        assertThrows(BadRequestException.class, () -> BinaryInvoice.read(version));
+        assertThrows(BadRequestException.class, () -> BinaryInvoice.read(currency));
+        assertThrows(BadRequestException.class, () -> BinaryInvoice.read(negative));
+        assertThrows(BadRequestException.class, () -> BinaryInvoice.read(noLines));
+        assertThrows(BadRequestException.class, () -> BinaryInvoice.read(Arrays.copyOf(valid, valid.length - 1)));
+        assertThrows(BadRequestException.class, () -> BinaryInvoice.read(Arrays.copyOf(valid, valid.length + 1)));
+        assertEquals(new BigDecimal("1"), BinaryInvoice.read(valid).invoice.lines.get(0).amount);
+    }
+
+    @Example
+    void write_amountBeyondLong_throwsIllegalArgument() {
+        // Given
+        InvoicePayload invoice = invoice("USD", LocalDate.of(2023, 1, 15), line("USD", "92233720368547758.08"));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> bytes(invoice));
+    }
+
+    @Provide
+    Arbitrary<InvoicePayload> invoices() {
+        Arbitrary<String> currencies = Arbitraries.of("USD", "eur", " gbp ", "JPY", "CHF");
+        Arbitrary<BigDecimal> amounts = Combinators.combine(
+                Arbitraries.longs().between(0, Long.MAX_VALUE), Arbitraries.integers().between(-3, 12))
+            .as(BigDecimal::valueOf);
+        Arbitrary<InvoiceLine> lines = Combinators.combine(currencies, amounts).as(BinaryInvoiceUnitTest::line);
+        Arbitrary<LocalDate> dates = Arbitraries.integers().between(0, 40_000).map(LocalDate::ofEpochDay);
+        return Combinators.combine(currencies, dates, lines.list().ofMinSize(1).ofMaxSize(20))
+            .as((currency, date, lineList) -> invoice(currency, date, lineList.toArray(InvoiceLine[]::new)));
+    }
+
+    private static byte[] bytes(InvoicePayload invoice) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        BinaryInvoice.write(invoice, out);
+        return out.toByteArray();
+    }
+
+    private static InvoicePayload invoice(String currency, LocalDate date, InvoiceLine... lines) {
+        InvoicePayload payload = new InvoicePayload();
+        payload.currency = currency;
+        payload.date = date;
+        payload.lines = List.of(lines);
+        return payload;
+    }
+
+    private static InvoiceLine line(String currency, String amount) {
+        return line(currency, new BigDecimal(amount));
+    }
+
+    private static InvoiceLine line(String currency, BigDecimal amount) {
+        InvoiceLine line = new InvoiceLine();
+        line.description = "Item";
+        line.currency = currency;
+        line.amount = amount;
+        return line;
+    }
+}
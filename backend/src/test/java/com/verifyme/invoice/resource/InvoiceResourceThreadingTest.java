@@ -0,0 +1,116 @@
+package com.verifyme.invoice.resource;
+
+import com.verifyme.invoice.dto.BinaryInvoice;
+import com.verifyme.invoice.dto.InvoicePayload;
+import com.verifyme.invoice.model.InvoiceLine;
+import com.verifyme.invoice.service.InvoiceService;
+
+import io.quarkus.test.junit.QuarkusMock;
+import io.quarkus.test.junit.QuarkusTest;
+import io.smallrye.mutiny.Uni;
+import io.vertx.core.Context;
+
+import jakarta.ws.rs.core.MediaType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the endpoints taking an invoice body in the application, to check on which threads they run:
+ * binding, validation and calculation must stay off the Vert.x event loop
+ */
+@QuarkusTest
+class InvoiceResourceThreadingTest {
+
+    private static final String INVOICE = """
+            {"currency":"USD","date":"2023-01-15","lines":[{"description":"Item","currency":"USD","amount":1.00}]}""";
+
+    private final Queue<Boolean> onEventLoop = new ConcurrentLinkedQueue<>();
+
+    @BeforeEach
+    void setUp() {
+        InvoiceService invoiceService = mock(InvoiceService.class);
+        when(invoiceService.needsUpstream(any())).thenAnswer(invocation -> recordThread(false));
+        when(invoiceService.calculateTotal(any())).thenAnswer(invocation -> recordThread(BigDecimal.ONE));
+        when(invoiceService.calculateTotalAsync(any()))
+                .thenAnswer(invocation -> recordThread(Uni.createFrom().item(BigDecimal.ONE)));
+        QuarkusMock.installMockForType(invoiceService, InvoiceService.class);
+    }
+
+    @Test
+    void total_bindsAndCalculatesOffTheEventLoop() {
+        // When
+        given().contentType(MediaType.APPLICATION_JSON).body("{\"invoice\":" + INVOICE + "}")
+                .post("/invoice/total")
+                .then().statusCode(200).body(equalTo("1"));
+
+        // Then
+        assertThreads(2);
+    }
+
+    @Test
+    void totalBinary_readsAndCalculatesOffTheEventLoop() throws Exception {
+        // Given
+        InvoiceLine line = new InvoiceLine();
+        line.currency = "USD";
+        line.amount = new BigDecimal("1.00");
+        InvoicePayload invoice = new InvoicePayload();
+        invoice.currency = "USD";
+        invoice.date = LocalDate.of(2023, 1, 15);
+        invoice.lines = List.of(line);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        BinaryInvoice.write(invoice, body);
+
+        // When
+        given().contentType(BinaryInvoice.MEDIA_TYPE).body(body.toByteArray())
+                .post("/invoice/total")
+                .then().statusCode(200);
+
+        // Then
+        assertThreads(2);
+    }
+
+    @Test
+    void totalAsync_bindsAndValidatesOffTheEventLoop() {
+        // When
+        given().contentType(MediaType.APPLICATION_JSON).body("{\"invoice\":" + INVOICE + "}")
+                .post("/invoice/total/async")
+                .then().statusCode(200);
+
+        // Then
+        assertThreads(2);
+    }
+
+    @Test
+    void totals_calculatesOffTheEventLoop() {
+        // When
+        given().contentType(MediaType.APPLICATION_JSON).body("{\"invoices\":[" + INVOICE + "," + INVOICE + "]}")
+                .post("/invoice/totals")
+                .then().statusCode(200);
+
+        // Then
+        assertThreads(4);
+    }
+
+    private <T> T recordThread(T result) {
+        onEventLoop.add(Context.isOnEventLoopThread());
+        return result;
+    }
+
+    private void assertThreads(int calls) {
+        assertEquals(calls, onEventLoop.size());
+        assertFalse(onEventLoop.contains(true), "called on the event loop");
+    }
+}
@@ -1,11 +1,36 @@
 package com.verifyme.invoice.resource;
 
+import com.verifyme.common.error.GlobalErrorMapper;
+import com.verifyme.common.error.ValidationErrorMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.verifyme.invoice.config.InvoiceConfig;
+import com.verifyme.invoice.dto.BinaryInvoice;
+import com.verifyme.invoice.dto.InvoiceBatchRequest;
+import com.verifyme.invoice.dto.InvoicePayload;
 import com.verifyme.invoice.dto.InvoiceRequest;
+import com.verifyme.invoice.dto.InvoiceTotalResult;
+import com.verifyme.invoice.model.InvoiceLine;
+import com.verifyme.invoice.service.AdmissionControl;
+import com.verifyme.invoice.service.ExchangeRateCache;
+import com.verifyme.invoice.service.InvoiceExecutor;
+import com.verifyme.invoice.service.InvoiceMetrics;
 import com.verifyme.invoice.service.InvoiceService;
+import com.verifyme.invoice.service.InvoiceStreamReader;
+import com.verifyme.invoice.service.InvoiceValidator;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
 import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.ServiceUnavailableException;
+import jakarta.ws.rs.core.EntityTag;
+import jakarta.ws.rs.core.HttpHeaders;
 import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Request;
 import jakarta.ws.rs.core.Response;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,10 +39,28 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.notNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,6 +69,33 @@ class InvoiceResourceUnitTest {
     @Mock
     private InvoiceService invoiceService;
 
+    @Mock
+    private InvoiceValidator validator;
+
+    @Mock
+    private ValidationErrorMapper validationErrorMapper;
+
+    @Mock
+    private GlobalErrorMapper errorMapper;
+
+    @Mock
+    private InvoiceExecutor executor;
+
+    @Mock
+    private InvoiceStreamReader invoiceStreamReader;
+
+    @Mock
+    private InvoiceConfig config;
+
+    @Mock
+    private ExchangeRateCache rateCache;
+
+    @Mock
+    private Request request;
+
+    @Mock
+    private AdmissionControl admission;
+
     @InjectMocks
     private InvoiceResource invoiceController;
 
@@ -34,6 +104,13 @@ class InvoiceResourceUnitTest {
     @BeforeEach
     void setUp() {
         testRequest = new InvoiceRequest();
+        // run the dispatched calculations on the test thread
+        lenient().doAnswer(invocation -> {
+            invocation.getArgument(0, Runnable.class).run();
+            return null;
+        }).when(executor).execute(any());
+        // admit everything, the tests of shedding override it
+        lenient().when(admission.admit(any())).thenAnswer(invocation -> invocation.getArgument(0));
         // Note: InvoicePayload setup would be done in actual test methods
     }
 
@@ -44,7 +121,7 @@ class InvoiceResourceUnitTest {
         when(invoiceService.calculateTotal(any())).thenReturn(expectedTotal);
 
         // When
-        Response response = invoiceController.total(testRequest);
+        Response response = invoiceController.total(testRequest).await().indefinitely();
 
         // Then
         assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
@@ -53,6 +130,186 @@ class InvoiceResourceUnitTest {
         verify(invoiceService).calculateTotal(testRequest.invoice);
     }
 
+    @Test
+    void totalBinary_validBody_calculatesDecodedInvoice() throws Exception {
+        // Given
+        InvoicePayload invoice = new InvoicePayload();
+        invoice.currency = "USD";
+        invoice.date = LocalDate.of(2023, 1, 15);
+        InvoiceLine line = new InvoiceLine();
+        line.currency = "eur";
+        line.amount = new BigDecimal("100.005");
+        invoice.lines = List.of(line);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        BinaryInvoice.write(invoice, body);
+        when(invoiceService.calculateTotal(any())).thenReturn(new BigDecimal("108.51"));
+
+        // When
+        Response response = invoiceController.totalBinary(body.toByteArray()).await().indefinitely();
+
+        // Then
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertEquals("108.51", response.getEntity());
+        verify(invoiceService).calculateTotal(argThat(decoded -> decoded.currency.equals("USD")
+            && decoded.date.equals(invoice.date)
+            && decoded.lines.get(0).currency.equals("EUR")
+            && decoded.lines.get(0).amount.equals(new BigDecimal("100.005"))));
+        verify(executor).execute(any());
+    }
+
+    @Test
+    void totalBinary_malformedBody_throwsBadRequestWithoutCalculating() {
+        // When & Then
+        assertThrows(BadRequestException.class, () -> invoiceController.totalBinary(new byte[] {1, 'U', 'S'}));
+        verifyNoInteractions(invoiceService);
+    }
+
+    @Test
+    void totalBinary_invalidInvoice_reportedByValidation() throws Exception {
+        // Given
+        InvoicePayload invoice = new InvoicePayload();
+        invoice.currency = "USD";
+        invoice.date = LocalDate.of(2023, 1, 15);
+        InvoiceLine line = new InvoiceLine();
+        line.currency = "EUR";
+        line.amount = new BigDecimal("1.00");
+        invoice.lines = List.of(line);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        BinaryInvoice.write(invoice, body);
+        ConstraintViolation<?> violation = mock(ConstraintViolation.class);
+        doReturn(Set.of(violation)).when(validator)
+            .validateBody(eq("total"), argThat(decoded -> decoded.invoice.currency.equals("USD")));
+
+        // When & Then
+        assertThrows(ConstraintViolationException.class, () -> invoiceController.totalBinary(body.toByteArray()));
+        verifyNoInteractions(invoiceService);
+    }
+
+    @Test
+    void totalQuery_pastDate_returnsTotalWithETagAndImmutableCacheControl() {
+        // Given
+        httpCache();
+        when(rateCache.isSettled(LocalDate.of(2023, 1, 15))).thenReturn(true);
+        when(invoiceService.calculateTotal(any())).thenReturn(new BigDecimal("138.14"));
+
+        // When
+        Response response = invoiceController.totalQuery(" usd", "2023-01-15",
+            List.of("EUR:100.005", "gbp:19.99"), request).await().indefinitely();
+
+        // Then
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertEquals("138.14", response.getEntity());
+        assertEquals(new EntityTag("138.14"), response.getEntityTag());
+        assertEquals("public, max-age=31536000, immutable", response.getHeaderString(HttpHeaders.CACHE_CONTROL));
+        verify(invoiceService).calculateTotal(argThat(invoice -> invoice.currency.equals(" usd")
+            && invoice.date.equals(LocalDate.of(2023, 1, 15))
+            && invoice.lines.size() == 2
+            && invoice.lines.get(0).currency.equals("EUR")
+            && invoice.lines.get(0).amount.equals(new BigDecimal("100.005"))
+            && invoice.lines.get(1).currency.equals("gbp")
+            && invoice.lines.get(1).description.equals("gbp:19.99")));
+    }
+
+    @Test
+    void totalQuery_matchingIfNoneMatch_returnsNotModified() {
+        // Given
+        httpCache();
+        when(invoiceService.calculateTotal(any())).thenReturn(new BigDecimal("5.00"));
+        when(request.evaluatePreconditions(new EntityTag("5.00")))
+            .thenReturn(Response.notModified(new EntityTag("5.00")));
+
+        // When
+        Response response = invoiceController.totalQuery("USD", "2023-01-15", List.of("USD:5"), request)
+            .await().indefinitely();
+
+        // Then
+        assertEquals(Response.Status.NOT_MODIFIED.getStatusCode(), response.getStatus());
+        assertNull(response.getEntity());
+        assertEquals(new EntityTag("5.00"), response.getEntityTag());
+        assertEquals("public, max-age=30", response.getHeaderString(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    void totalQuery_malformedQuery_throwsBadRequestWithoutCalculating() {
+        // When & Then
+        assertThrows(BadRequestException.class,
+            () -> invoiceController.totalQuery("USD", "2023-01-15", List.of("EUR100"), request));
+        assertThrows(BadRequestException.class,
+            () -> invoiceController.totalQuery("USD", "2023-01-15", List.of("EUR:1e"), request));
+        assertThrows(BadRequestException.class,
+            () -> invoiceController.totalQuery("USD", "15/01/2023", List.of("EUR:1"), request));
+        verifyNoInteractions(invoiceService);
+    }
+
+    @Test
+    void totalQuery_missingLines_reportedByValidation() {
+        // Given
+        ConstraintViolation<?> violation = mock(ConstraintViolation.class);
+        doReturn(Set.of(violation)).when(validator)
+            .validateBody(eq("total"), argThat(body -> body.invoice.lines == null));
+
+        // When & Then
+        assertThrows(ConstraintViolationException.class,
+            () -> invoiceController.totalQuery("USD", "2023-01-15", null, request));
+        verifyNoInteractions(invoiceService);
+    }
+
+    @Test
+    void total_needsNoUpstream_bypassesAdmissionControl() {
+        // Given
+        when(invoiceService.needsUpstream(testRequest.invoice)).thenReturn(false);
+        when(invoiceService.calculateTotal(any())).thenReturn(new BigDecimal("5.00"));
+
+        // When
+        Response response = invoiceController.total(testRequest).await().indefinitely();
+
+        // Then
+        assertEquals("5.00", response.getEntity());
+        verifyNoInteractions(admission);
+    }
+
+    @Test
+    void total_needsUpstream_runsOnlyOnceAdmitted() {
+        // Given
+        when(invoiceService.needsUpstream(testRequest.invoice)).thenReturn(true);
+        when(admission.admit(any())).thenReturn(Uni.createFrom().failure(new ServiceUnavailableException("busy", 1L)));
+
+        // When & Then
+        assertThrows(ServiceUnavailableException.class,
+            () -> invoiceController.total(testRequest).await().indefinitely());
+        verify(invoiceService, never()).calculateTotal(any());
+    }
+
+    @Test
+    void totalStream_validBody_returnsStreamedTotalAsPlainText() {
+        // Given
+        ByteArrayInputStream body = new ByteArrayInputStream("{}".getBytes(StandardCharsets.UTF_8));
+        when(invoiceStreamReader.readTotal(body)).thenReturn(new BigDecimal("42.10"));
+
+        // When
+        Response response = invoiceController.totalStream(body).await().indefinitely();
+
+        // Then
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertEquals("42.10", response.getEntity());
+        verify(executor).execute(any());
+        verifyNoInteractions(invoiceService);
+    }
+
+    @Test
+    void total_invalidBody_throwsViolationsWithoutCalculating() {
+        // Given
+        ConstraintViolation<?> violation = mock(ConstraintViolation.class);
+        doReturn(Set.of(violation)).when(validator).validateBody("total", testRequest);
+
+        // When & Then
+        ConstraintViolationException exception = assertThrows(ConstraintViolationException.class,
+            () -> invoiceController.total(testRequest));
+
+        assertEquals(Set.of(violation), exception.getConstraintViolations());
+        verifyNoInteractions(invoiceService);
+    }
+
     @Test
     void total_serviceReturnsZero_returnsZeroAsPlainText() {
         // Given
@@ -60,7 +317,7 @@ class InvoiceResourceUnitTest {
         when(invoiceService.calculateTotal(any())).thenReturn(expectedTotal);
 
         // When
-        Response response = invoiceController.total(testRequest);
+        Response response = invoiceController.total(testRequest).await().indefinitely();
 
         // Then
         assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
@@ -75,7 +332,7 @@ class InvoiceResourceUnitTest {
         when(invoiceService.calculateTotal(any())).thenReturn(expectedTotal);
 
         // When
-        Response response = invoiceController.total(testRequest);
+        Response response = invoiceController.total(testRequest).await().indefinitely();
 
         // Then
         assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
@@ -89,7 +346,7 @@ class InvoiceResourceUnitTest {
         when(invoiceService.calculateTotal(any())).thenReturn(expectedTotal);
 
         // When
-        Response response = invoiceController.total(testRequest);
+        Response response = invoiceController.total(testRequest).await().indefinitely();
 
         // Then
         assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
@@ -104,7 +361,7 @@ class InvoiceResourceUnitTest {
 
         // When & Then
         NotFoundException actualException = assertThrows(NotFoundException.class, 
-            () -> invoiceController.total(testRequest));
+            () -> invoiceController.total(testRequest).await().indefinitely());
         
         assertEquals(expectedException.getMessage(), actualException.getMessage());
         verify(invoiceService).calculateTotal(testRequest.invoice);
@@ -118,7 +375,7 @@ class InvoiceResourceUnitTest {
 
         // When & Then
         BadRequestException actualException = assertThrows(BadRequestException.class, 
-            () -> invoiceController.total(testRequest));
+            () -> invoiceController.total(testRequest).await().indefinitely());
         
         assertEquals(expectedException.getMessage(), actualException.getMessage());
         verify(invoiceService).calculateTotal(testRequest.invoice);
@@ -132,7 +389,7 @@ class InvoiceResourceUnitTest {
 
         // When & Then
         RuntimeException actualException = assertThrows(RuntimeException.class, 
-            () -> invoiceController.total(testRequest));
+            () -> invoiceController.total(testRequest).await().indefinitely());
         
         assertEquals(expectedException.getMessage(), actualException.getMessage());
         verify(invoiceService).calculateTotal(testRequest.invoice);
@@ -145,10 +402,11 @@ class InvoiceResourceUnitTest {
         when(invoiceService.calculateTotal(any())).thenReturn(expectedTotal);
 
         // When
-        invoiceController.total(testRequest);
+        invoiceController.total(testRequest).await().indefinitely();
 
         // Then
         verify(invoiceService, times(1)).calculateTotal(testRequest.invoice);
+        verify(invoiceService).needsUpstream(testRequest.invoice);
         verifyNoMoreInteractions(invoiceService);
     }
 
@@ -159,7 +417,7 @@ class InvoiceResourceUnitTest {
         when(invoiceService.calculateTotal(any())).thenReturn(expectedTotal);
 
         // When
-        Response response = invoiceController.total(testRequest);
+        Response response = invoiceController.total(testRequest).await().indefinitely();
 
         // Then
         assertEquals(MediaType.TEXT_PLAIN, response.getMediaType().toString());
@@ -172,11 +430,311 @@ class InvoiceResourceUnitTest {
         when(invoiceService.calculateTotal(any())).thenReturn(expectedTotal);
 
         // When
-        Response response = invoiceController.total(testRequest);
+        Response response = invoiceController.total(testRequest).await().indefinitely();
 
         // Then
         // BigDecimal.toPlainString() should be used (no scientific notation)
         assertEquals("123.456", response.getEntity());
         assertTrue(response.getEntity() instanceof String);
     }
+
+    @Test
+    void totalAsync_validRequest_returnsOkResponseWithPlainText() {
+        // Given
+        when(invoiceService.calculateTotalAsync(any())).thenReturn(Uni.createFrom().item(new BigDecimal("123.45")));
+
+        // When
+        Response response = invoiceController.totalAsync(testRequest).await().indefinitely();
+
+        // Then
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        assertEquals("123.45", response.getEntity());
+        assertEquals(MediaType.TEXT_PLAIN, response.getMediaType().toString());
+        verify(invoiceService, never()).calculateTotal(any());
+    }
+
+    @Test
+    void totalAsync_serviceFails_propagatesFailure() {
+        // Given
+        when(invoiceService.calculateTotalAsync(any()))
+                .thenReturn(Uni.createFrom().failure(new NotFoundException("Exchange rate not found")));
+
+        // When & Then
+        NotFoundException exception = assertThrows(NotFoundException.class,
+            () -> invoiceController.totalAsync(testRequest).await().indefinitely());
+        assertEquals("Exchange rate not found", exception.getMessage());
+    }
+
+    @Test
+    void totals_mixedOutcomes_keepInputOrderAndIsolateFailures() {
+        // Given
+        InvoicePayload ok = new InvoicePayload();
+        InvoicePayload failing = new InvoicePayload();
+        InvoicePayload invalid = new InvoicePayload();
+        InvoiceBatchRequest batch = new InvoiceBatchRequest();
+        batch.invoices = Arrays.asList(ok, failing, invalid);
+
+        @SuppressWarnings("unchecked")
+        ConstraintViolation<InvoicePayload> violation = mock(ConstraintViolation.class);
+        when(validator.validate(any(InvoicePayload.class))).thenReturn(Set.of());
+        when(validator.validate(invalid)).thenReturn(Set.of(violation));
+        when(validationErrorMapper.toResponse(any()))
+                .thenReturn(Response.status(400).entity("Error: currency must not be blank").build());
+
+        NotFoundException notFound = new NotFoundException("exchange rate not found for XXX->USD on 2023-01-15");
+        when(invoiceService.needsUpstream(any())).thenReturn(true);
+        when(invoiceService.calculateTotal(ok)).thenReturn(new BigDecimal("10.00"));
+        when(invoiceService.calculateTotal(failing)).thenThrow(notFound);
+        when(errorMapper.toResponse(notFound))
+                .thenReturn(Response.status(404).entity("Error: " + notFound.getMessage()).build());
+
+        // When
+        List<InvoiceTotalResult> results = invoiceController.totals(batch).await().indefinitely();
+
+        // Then
+        assertEquals(3, results.size());
+        assertEquals(0, results.get(0).index);
+        assertEquals(200, results.get(0).status);
+        assertEquals("10.00", results.get(0).total);
+        assertNull(results.get(0).error);
+
+        assertEquals(1, results.get(1).index);
+        assertEquals(404, results.get(1).status);
+        assertEquals("Error: exchange rate not found for XXX->USD on 2023-01-15", results.get(1).error);
+
+        assertEquals(2, results.get(2).index);
+        assertEquals(400, results.get(2).status);
+        assertEquals("Error: currency must not be blank", results.get(2).error);
+
+        verify(invoiceService).prefetchExchangeRates(List.of(ok, failing));
+        verify(invoiceService, never()).calculateTotal(invalid);
+    }
+
+    @Test
+    void totals_upstreamGroupShed_answersItsInvoices503AndComputesTheRest() {
+        // Given
+        InvoicePayload foreign = new InvoicePayload();
+        InvoicePayload local = new InvoicePayload();
+        InvoiceBatchRequest batch = new InvoiceBatchRequest();
+        batch.invoices = List.of(foreign, local);
+
+        when(invoiceService.needsUpstream(foreign)).thenReturn(true);
+        when(invoiceService.calculateTotal(local)).thenReturn(new BigDecimal("5.00"));
+        ServiceUnavailableException shed = new ServiceUnavailableException("busy", 1L);
+        when(admission.admit(any())).thenReturn(Uni.createFrom().failure(shed));
+        when(errorMapper.toResponse(shed)).thenReturn(Response.status(503).entity("Error: busy").build());
+
+        // When
+        List<InvoiceTotalResult> results = invoiceController.totals(batch).await().indefinitely();
+
+        // Then
+        assertEquals(503, results.get(0).status);
+        assertEquals("Error: busy", results.get(0).error);
+        assertEquals(200, results.get(1).status);
+        assertEquals("5.00", results.get(1).total);
+        verify(invoiceService, never()).calculateTotal(foreign);
+        verify(invoiceService, never()).prefetchExchangeRates(any());
+    }
+
+    @Test
+    void total_sameCurrency_answeredWhileTotalsWaitOnSlowUpstream() throws Exception {
+        // Given: two calculation threads, admission lets one upstream-bound run in and queues the rest
+        ExecutorService threads = Executors.newFixedThreadPool(2);
+        doAnswer(invocation -> {
+            threads.execute(invocation.getArgument(0, Runnable.class));
+            return null;
+        }).when(executor).execute(any());
+        InvoiceConfig.AdmissionConfig admissionConfig = mock(InvoiceConfig.AdmissionConfig.class);
+        when(admissionConfig.enabled()).thenReturn(true);
+        when(admissionConfig.maxConcurrent()).thenReturn(1);
+        when(admissionConfig.queueSize()).thenReturn(8);
+        when(admissionConfig.queueTimeout()).thenReturn(Duration.ofSeconds(30));
+        when(admissionConfig.retryAfter()).thenReturn(Duration.ofSeconds(1));
+        when(config.admission()).thenReturn(admissionConfig);
+        invoiceController.admission = new AdmissionControl(config, new InvoiceMetrics(new SimpleMeterRegistry()));
+
+        InvoicePayload foreign = new InvoicePayload();
+        InvoicePayload sameCurrency = new InvoicePayload();
+        when(invoiceService.needsUpstream(foreign)).thenReturn(true);
+        when(invoiceService.needsUpstream(sameCurrency)).thenReturn(false);
+        CountDownLatch upstream = new CountDownLatch(1);
+        doAnswer(invocation -> upstream.await(30, TimeUnit.SECONDS)).when(invoiceService).prefetchExchangeRates(any());
+        when(invoiceService.calculateTotal(foreign)).thenReturn(new BigDecimal("1.00"));
+        when(invoiceService.calculateTotal(sameCurrency)).thenReturn(new BigDecimal("2.00"));
+
+        InvoiceBatchRequest batch = new InvoiceBatchRequest();
+        batch.invoices = List.of(foreign);
+        List<CompletableFuture<List<InvoiceTotalResult>>> load = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            load.add(invoiceController.totals(batch).subscribeAsCompletionStage());
+        }
+        testRequest.invoice = sameCurrency;
+
+        try {
+            // When
+            Response response = invoiceController.total(testRequest).await().atMost(Duration.ofSeconds(5));
+
+            // Then
+            assertEquals("2.00", response.getEntity());
+            assertTrue(load.stream().noneMatch(CompletableFuture::isDone));
+            upstream.countDown();
+            for (CompletableFuture<List<InvoiceTotalResult>> totals : load) {
+                assertEquals("1.00", totals.get(5, TimeUnit.SECONDS).get(0).total);
+            }
+        } finally {
+            upstream.countDown();
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    void totalAsync_needsUpstream_runsOnlyOnceAdmitted() {
+        // Given
+        when(invoiceService.needsUpstream(testRequest.invoice)).thenReturn(true);
+        when(admission.admit(any())).thenReturn(Uni.createFrom().failure(new ServiceUnavailableException("busy", 1L)));
+
+        // When & Then
+        assertThrows(ServiceUnavailableException.class,
+            () -> invoiceController.totalAsync(testRequest).await().indefinitely());
+        verify(invoiceService, never()).calculateTotalAsync(any());
+    }
+
+    @Test
+    void totalStream_shed_neverReadsTheBody() {
+        // Given
+        ByteArrayInputStream body = new ByteArrayInputStream("{}".getBytes(StandardCharsets.UTF_8));
+        when(admission.admit(any())).thenReturn(Uni.createFrom().failure(new ServiceUnavailableException("busy", 1L)));
+
+        // When & Then
+        assertThrows(ServiceUnavailableException.class,
+            () -> invoiceController.totalStream(body).await().indefinitely());
+        verifyNoInteractions(invoiceStreamReader);
+    }
+
+    @Test
+    void totalsStream_ndjsonLines_streamsOneResultPerInvoiceInOrder() {
+        // Given
+        InvoiceConfig config = mock(InvoiceConfig.class);
+        InvoiceConfig.StreamConfig streamConfig = mock(InvoiceConfig.StreamConfig.class);
+        when(streamConfig.chunkSize()).thenReturn(2);
+        when(config.stream()).thenReturn(streamConfig);
+        invoiceController.config = config;
+        invoiceController.objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        String ndjson = """
+                {"currency":"USD","date":"2023-01-15","lines":[{"description":"a","currency":"USD","amount":1}]}
+
+                {"currency":"USD","date":"2023-01-15","lines":[{"description":"b","currency":"USD","amount":2}]}
+                {not json}
+                {"currency":"USD","date":"2023-01-15","lines":[{"description":"c","currency":"USD","amount":3}]}
+                """;
+        when(validator.validate(any(InvoicePayload.class))).thenReturn(Set.of());
+        when(invoiceService.needsUpstream(any())).thenReturn(true);
+        when(invoiceService.calculateTotal(any()))
+                .thenReturn(new BigDecimal("1.00"), new BigDecimal("2.00"), new BigDecimal("3.00"));
+        when(errorMapper.toResponse(any(BadRequestException.class)))
+                .thenReturn(Response.status(400).entity("Error: malformed invoice JSON").build());
+
+        // When
+        List<InvoiceTotalResult> results = invoiceController
+                .totalsStream(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)))
+                .collect().asList()
+                .await().indefinitely();
+
+        // Then
+        assertEquals(4, results.size());
+        assertEquals("1.00", results.get(0).total);
+        assertEquals("2.00", results.get(1).total);
+        assertEquals(2, results.get(2).index);
+        assertEquals(400, results.get(2).status);
+        assertEquals("Error: malformed invoice JSON", results.get(2).error);
+        assertEquals(3, results.get(3).index);
+        assertEquals("3.00", results.get(3).total);
+        verify(invoiceService, times(2)).prefetchExchangeRates(any());
+        verify(admission, times(2)).admit(any());
+    }
+
+    @Test
+    void totalsStream_chunkShed_answersItsUpstreamInvoices503() {
+        // Given
+        InvoiceConfig config = mock(InvoiceConfig.class);
+        InvoiceConfig.StreamConfig streamConfig = mock(InvoiceConfig.StreamConfig.class);
+        when(streamConfig.chunkSize()).thenReturn(8);
+        when(config.stream()).thenReturn(streamConfig);
+        invoiceController.config = config;
+        invoiceController.objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        String ndjson = """
+                {"currency":"USD","date":"2023-01-15","lines":[{"description":"a","currency":"EUR","amount":1}]}
+                {"currency":"USD","date":"2023-01-15","lines":[{"description":"b","currency":"USD","amount":2}]}
+                """;
+        when(validator.validate(any(InvoicePayload.class))).thenReturn(Set.of());
+        when(invoiceService.needsUpstream(argThat(invoice -> "EUR".equals(invoice.lines.get(0).currency))))
+                .thenReturn(true);
+        when(invoiceService.calculateTotal(any())).thenReturn(new BigDecimal("2.00"));
+        ServiceUnavailableException shed = new ServiceUnavailableException("busy", 1L);
+        when(admission.admit(any())).thenReturn(Uni.createFrom().failure(shed));
+        when(errorMapper.toResponse(shed)).thenReturn(Response.status(503).entity("Error: busy").build());
+
+        // When
+        List<InvoiceTotalResult> results = invoiceController
+                .totalsStream(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)))
+                .collect().asList()
+                .await().indefinitely();
+
+        // Then
+        assertEquals(2, results.size());
+        assertEquals(0, results.get(0).index);
+        assertEquals(503, results.get(0).status);
+        assertEquals("Error: busy", results.get(0).error);
+        assertEquals(200, results.get(1).status);
+        assertEquals("2.00", results.get(1).total);
+        verify(invoiceService, times(1)).calculateTotal(any());
+        verify(invoiceService, never()).prefetchExchangeRates(any());
+    }
+
+    @Test
+    void totalsStream_nullLine_failsOnlyThatLine() {
+        // Given
+        InvoiceConfig config = mock(InvoiceConfig.class);
+        InvoiceConfig.StreamConfig streamConfig = mock(InvoiceConfig.StreamConfig.class);
+        when(streamConfig.chunkSize()).thenReturn(8);
+        when(config.stream()).thenReturn(streamConfig);
+        invoiceController.config = config;
+        invoiceController.objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+        String ndjson = """
+                {"currency":"USD","date":"2023-01-15","lines":[{"description":"a","currency":"USD","amount":1}]}
+                null
+                {"currency":"USD","date":"2023-01-15","lines":[{"description":"c","currency":"USD","amount":3}]}
+                """;
+        when(validator.validate(notNull())).thenReturn(Set.of());
+        when(invoiceService.calculateTotal(notNull()))
+                .thenReturn(new BigDecimal("1.00"), new BigDecimal("3.00"));
+        when(errorMapper.toResponse(any(BadRequestException.class))).thenAnswer(invocation -> Response.status(400)
+                .entity("Error: " + invocation.getArgument(0, BadRequestException.class).getMessage()).build());
+
+        // When
+        List<InvoiceTotalResult> results = invoiceController
+                .totalsStream(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)))
+                .collect().asList()
+                .await().indefinitely();
+
+        // Then
+        assertEquals(3, results.size());
+        assertEquals("1.00", results.get(0).total);
+        assertEquals(1, results.get(1).index);
+        assertEquals(400, results.get(1).status);
+        assertEquals("Error: invoice must not be null", results.get(1).error);
+        assertEquals("3.00", results.get(2).total);
+        verify(validator, never()).validate(isNull());
+        verify(invoiceService, never()).calculateTotal(isNull());
+    }
+
+    private void httpCache() {
+        InvoiceConfig.HttpCacheConfig httpCacheConfig = mock(InvoiceConfig.HttpCacheConfig.class);
+        lenient().when(httpCacheConfig.settledMaxAge()).thenReturn(Duration.ofDays(365));
+        lenient().when(httpCacheConfig.currentMaxAge()).thenReturn(Duration.ofSeconds(30));
+        when(config.httpCache()).thenReturn(httpCacheConfig);
+    }
 }
@@ -0,0 +1,58 @@
+package com.verifyme.invoice.resource;
+
+import com.verifyme.invoice.config.InvoiceConfig;
+import com.verifyme.invoice.dto.RatePreloadResult;
+import com.verifyme.invoice.service.RatePreloader;
+
+import jakarta.ws.rs.NotFoundException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateAdminResourceUnitTest {
+
+    @Mock
+    private RatePreloader ratePreloader;
+
+    @Mock
+    private InvoiceConfig config;
+
+    @Mock
+    private InvoiceConfig.PreloadConfig preloadConfig;
+
+    @InjectMocks
+    private RateAdminResource rateAdminResource;
+
+    @BeforeEach
+    void setUp() {
+        when(config.preload()).thenReturn(preloadConfig);
+    }
+
+    @Test
+    void preload_endpointDisabled_notFoundWithoutFetching() {
+        // Given
+        when(preloadConfig.endpointEnabled()).thenReturn(false);
+
+        // When & Then
+        assertThrows(NotFoundException.class, () -> rateAdminResource.preload());
+        verifyNoInteractions(ratePreloader);
+    }
+
+    @Test
+    void preload_endpointEnabled_runsThePreload() {
+        // Given
+        RatePreloadResult result = new RatePreloadResult();
+        when(preloadConfig.endpointEnabled()).thenReturn(true);
+        when(ratePreloader.preload()).thenReturn(result);
+
+        // When & Then
+        assertSame(result, rateAdminResource.preload());
+    }
+}
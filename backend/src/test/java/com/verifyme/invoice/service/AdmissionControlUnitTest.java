@@ -0,0 +1,145 @@
+package com.verifyme.invoice.service;
+
+import com.verifyme.invoice.config.InvoiceConfig;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+import io.smallrye.mutiny.subscription.Cancellable;
+
+import jakarta.ws.rs.ServiceUnavailableException;
+import jakarta.ws.rs.core.HttpHeaders;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AdmissionControlUnitTest {
+
+    private final InvoiceConfig config = mock(InvoiceConfig.class);
+    private final InvoiceConfig.AdmissionConfig admissionConfig = mock(InvoiceConfig.AdmissionConfig.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private AdmissionControl admission;
+
+    @BeforeEach
+    void setUp() {
+        when(admissionConfig.enabled()).thenReturn(true);
+        when(admissionConfig.maxConcurrent()).thenReturn(1);
+        when(admissionConfig.queueSize()).thenReturn(1);
+        when(admissionConfig.queueTimeout()).thenReturn(Duration.ofSeconds(10));
+        when(admissionConfig.retryAfter()).thenReturn(Duration.ofSeconds(2));
+        when(config.admission()).thenReturn(admissionConfig);
+
+        admission = new AdmissionControl(config, new InvoiceMetrics(registry));
+    }
+
+    @Test
+    void admit_queueFull_shedsAtOnceWithRetryAfter() throws Exception {
+        // Given
+        CompletableFuture<String> slow = new CompletableFuture<>();
+        CompletableFuture<String> running = submit(Uni.createFrom().completionStage(slow));
+        CompletableFuture<String> queued = submit(Uni.createFrom().item("queued"));
+
+        // When
+        CompletableFuture<String> shed = submit(Uni.createFrom().item("shed"));
+
+        // Then
+        ServiceUnavailableException exception = assertInstanceOf(ServiceUnavailableException.class, cause(shed));
+        assertEquals("2", exception.getResponse().getHeaderString(HttpHeaders.RETRY_AFTER));
+        assertEquals(1.0, registry.counter("invoice.admission.shed", "reason", "queue_full").count());
+        assertEquals(1.0, registry.get("invoice.admission.running").gauge().value());
+        assertEquals(1.0, registry.get("invoice.admission.queue").gauge().value());
+        assertFalse(running.isDone());
+        assertFalse(queued.isDone());
+    }
+
+    @Test
+    void admit_runningCalculationEnds_admitsTheQueuedOne() throws Exception {
+        // Given
+        CompletableFuture<String> slow = new CompletableFuture<>();
+        CompletableFuture<String> running = submit(Uni.createFrom().completionStage(slow));
+        CompletableFuture<String> queued = submit(Uni.createFrom().item("queued"));
+
+        // When
+        slow.complete("running");
+
+        // Then
+        assertEquals("running", running.get(1, TimeUnit.SECONDS));
+        assertEquals("queued", queued.get(1, TimeUnit.SECONDS));
+        assertEquals(0, admission.running());
+        assertEquals(0, admission.queued());
+    }
+
+    @Test
+    void admit_failedCalculation_stillFreesItsSlot() throws Exception {
+        // When
+        CompletableFuture<String> failed = submit(Uni.createFrom().failure(new IllegalStateException("boom")));
+
+        // Then
+        assertInstanceOf(IllegalStateException.class, cause(failed));
+        assertEquals("next", submit(Uni.createFrom().item("next")).get(1, TimeUnit.SECONDS));
+        assertEquals(0, admission.running());
+    }
+
+    @Test
+    void admit_queueTimeoutPassed_shedsTheWaitingOne() throws Exception {
+        // Given
+        when(admissionConfig.queueTimeout()).thenReturn(Duration.ofMillis(50));
+        admission = new AdmissionControl(config, new InvoiceMetrics(registry));
+        CompletableFuture<String> slow = new CompletableFuture<>();
+        submit(Uni.createFrom().completionStage(slow));
+
+        // When
+        CompletableFuture<String> queued = submit(Uni.createFrom().item("queued"));
+
+        // Then
+        assertInstanceOf(ServiceUnavailableException.class, cause(queued));
+        assertEquals(1.0, registry.counter("invoice.admission.shed", "reason", "timeout").count());
+        assertEquals(0, admission.queued());
+        slow.complete("done");
+        assertEquals(0, admission.running());
+    }
+
+    @Test
+    void admit_waitingRequestCancelled_leavesTheQueue() {
+        // Given
+        CompletableFuture<String> slow = new CompletableFuture<>();
+        submit(Uni.createFrom().completionStage(slow));
+        Cancellable queued = admission.admit(Uni.createFrom().item("queued")).subscribe().with(item -> fail());
+
+        // When
+        queued.cancel();
+
+        // Then
+        assertEquals(0, admission.queued());
+        slow.complete("done");
+        assertEquals(0, admission.running());
+    }
+
+    @Test
+    void admit_disabled_runsWorkAsIs() {
+        // Given
+        when(admissionConfig.enabled()).thenReturn(false);
+        admission = new AdmissionControl(config, new InvoiceMetrics(new SimpleMeterRegistry()));
+        Uni<String> work = Uni.createFrom().item("work");
+
+        // When & Then
+        assertSame(work, admission.admit(work));
+    }
+
+    private CompletableFuture<String> submit(Uni<String> work) {
+        return admission.admit(work).subscribeAsCompletionStage();
+    }
+
+    private static Throwable cause(CompletableFuture<?> future) throws Exception {
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        return exception.getCause();
+    }
+}
@@ -0,0 +1,138 @@
+package com.verifyme.invoice.service;
+
+import com.verifyme.invoice.config.InvoiceConfig;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ExchangeRateCacheUnitTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 15);
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final InvoiceConfig config = mock(InvoiceConfig.class);
+    private final InvoiceConfig.RateCacheConfig rateCacheConfig = mock(InvoiceConfig.RateCacheConfig.class);
+
+    private ExchangeRateCache cache;
+
+    @TempDir
+    Path dir;
+
+    @BeforeEach
+    void setUp() {
+        InvoiceConfig.DecimalConfig decimalConfig = mock(InvoiceConfig.DecimalConfig.class);
+        lenient().when(decimalConfig.rateScale()).thenReturn(4);
+        lenient().when(config.decimal()).thenReturn(decimalConfig);
+        when(rateCacheConfig.maxSize()).thenReturn(100L);
+        when(rateCacheConfig.currentDateTtl()).thenReturn(Duration.ofMinutes(5));
+        when(config.rateCache()).thenReturn(rateCacheConfig);
+
+        cache = newCache();
+    }
+
+    private ExchangeRateCache newCache() {
+        ZoneId zone = ExchangeRateCache.PUBLICATION_ZONE;
+        Clock clock = Clock.fixed(TODAY.atTime(12, 0).atZone(zone).toInstant(), zone);
+        return new ExchangeRateCache(config, clock, nanos::get);
+    }
+
+    @Test
+    void get_unknownKey_returnsNull() {
+        assertNull(cache.get(TODAY.minusDays(1), "EUR", "USD"));
+    }
+
+    @Test
+    void get_pastDate_neverExpires() {
+        // Given
+        cache.put(TODAY.minusDays(1), "EUR", "USD", new BigDecimal("1.0850"));
+
+        // When
+        nanos.addAndGet(TimeUnit.DAYS.toNanos(365));
+
+        // Then
+        assertEquals(new BigDecimal("1.0850"), cache.get(TODAY.minusDays(1), "EUR", "USD"));
+    }
+
+    @Test
+    void get_today_expiresAfterTtl() {
+        // Given
+        cache.put(TODAY, "EUR", "USD", new BigDecimal("1.0850"));
+
+        // When & Then
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(4));
+        assertEquals(new BigDecimal("1.0850"), cache.get(TODAY, "EUR", "USD"));
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        assertNull(cache.get(TODAY, "EUR", "USD"));
+    }
+
+    @Test
+    void get_futureDate_expiresAfterTtl() {
+        // Given
+        cache.put(TODAY.plusDays(1), "EUR", "USD", new BigDecimal("1.0850"));
+
+        // When
+        nanos.addAndGet(TimeUnit.MINUTES.toNanos(6));
+
+        // Then
+        assertNull(cache.get(TODAY.plusDays(1), "EUR", "USD"));
+    }
+
+    @Test
+    void get_keyIncludesDirection() {
+        // Given
+        cache.put(TODAY.minusDays(1), "EUR", "USD", new BigDecimal("1.0850"));
+
+        // Then
+        assertNull(cache.get(TODAY.minusDays(1), "USD", "EUR"));
+    }
+
+    @Test
+    void get_afterRestartWithSnapshot_servesPersistedPastRates() {
+        // Given
+        when(rateCacheConfig.snapshotPath()).thenReturn(Optional.of(dir.resolve("rates.bin").toString()));
+        ExchangeRateCache before = newCache();
+        before.put(TODAY.minusDays(1), "EUR", "USD", new BigDecimal("1.0850"));
+        before.put(TODAY, "EUR", "USD", new BigDecimal("1.0900"));
+        before.close();
+
+        // When
+        ExchangeRateCache after = newCache();
+
+        // Then
+        assertEquals(new BigDecimal("1.0850"), after.get(TODAY.minusDays(1), "EUR", "USD"));
+        assertNull(after.get(TODAY, "EUR", "USD"));
+        after.close();
+    }
+
+    @Test
+    void load_withSnapshot_cachesWithoutPersisting() {
+        // Given
+        when(rateCacheConfig.snapshotPath()).thenReturn(Optional.of(dir.resolve("rates.bin").toString()));
+        ExchangeRateCache before = newCache();
+
+        // When
+        before.load(TODAY.minusDays(1), "EUR", "USD", new BigDecimal("1.0850"));
+
+        // Then
+        assertEquals(new BigDecimal("1.0850"), before.get(TODAY.minusDays(1), "EUR", "USD"));
+        before.close();
+        ExchangeRateCache after = newCache();
+        assertNull(after.get(TODAY.minusDays(1), "EUR", "USD"));
+        after.close();
+    }
+}
@@ -0,0 +1,67 @@
+package com.verifyme.invoice.service;
+
+import com.verifyme.invoice.config.InvoiceConfig;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InvoiceExecutorUnitTest {
+
+    @Mock
+    private InvoiceConfig invoiceConfig;
+
+    @Mock
+    private InvoiceConfig.ExecutionConfig executionConfig;
+
+    @Mock
+    private ExecutorService virtualThreads;
+
+    @InjectMocks
+    private InvoiceExecutor invoiceExecutor;
+
+    @BeforeEach
+    void setUp() {
+        when(invoiceConfig.execution()).thenReturn(executionConfig);
+    }
+
+    @Test
+    void execute_virtualThreadsMode_runsOnVirtualThreadExecutor() {
+        // Given
+        when(executionConfig.mode()).thenReturn(InvoiceConfig.ExecutionConfig.Mode.VIRTUAL_THREADS);
+        Runnable task = () -> { };
+
+        // When
+        invoiceExecutor.execute(task);
+        invoiceExecutor.execute(task);
+
+        // Then
+        verify(virtualThreads, times(2)).execute(task);
+        verify(executionConfig, times(2)).mode(); // resolved once, logged once
+    }
+
+    @Test
+    void execute_workerMode_runsOnWorkerPool() throws InterruptedException {
+        // Given
+        when(executionConfig.mode()).thenReturn(InvoiceConfig.ExecutionConfig.Mode.WORKER);
+        CountDownLatch ran = new CountDownLatch(1);
+
+        // When
+        invoiceExecutor.execute(ran::countDown);
+
+        // Then
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        verifyNoInteractions(virtualThreads);
+    }
+}
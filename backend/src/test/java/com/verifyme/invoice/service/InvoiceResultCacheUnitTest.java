@@ -0,0 +1,151 @@
+package com.verifyme.invoice.service;
+
+import com.verifyme.invoice.config.InvoiceConfig;
+import com.verifyme.invoice.model.InvoiceLine;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class InvoiceResultCacheUnitTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 15);
+    private static final LocalDate YESTERDAY = TODAY.minusDays(1);
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    private final InvoiceConfig config = mock(InvoiceConfig.class);
+    private final InvoiceConfig.ResultCacheConfig resultCacheConfig = mock(InvoiceConfig.ResultCacheConfig.class);
+
+    private InvoiceResultCache cache;
+
+    @BeforeEach
+    void setUp() {
+        when(resultCacheConfig.enabled()).thenReturn(true);
+        lenient().when(resultCacheConfig.maxLines()).thenReturn(1000L);
+        when(resultCacheConfig.currentDateTtl()).thenReturn(Duration.ofSeconds(30));
+        when(config.resultCache()).thenReturn(resultCacheConfig);
+
+        cache = newCache();
+    }
+
+    private InvoiceResultCache newCache() {
+        ZoneId zone = ExchangeRateCache.PUBLICATION_ZONE;
+        Clock clock = Clock.fixed(TODAY.atTime(12, 0).atZone(zone).toInstant(), zone);
+        return new InvoiceResultCache(config, clock, nanos::get);
+    }
+
+    @Test
+    void get_resubmittedInvoice_returnsTotal() {
+        // Given
+        cache.put(cache.key("USD", YESTERDAY, lines(line("A", "EUR", "10.00"), line("B", "GBP", "5"))),
+            new BigDecimal("18.12"));
+
+        // When
+        BigDecimal total = cache.get(cache.key("USD", YESTERDAY,
+            lines(line("other", " eur ", "10.00"), line("text", "gbp", "5"))));
+
+        // Then
+        assertEquals(new BigDecimal("18.12"), total);
+    }
+
+    @Test
+    void get_otherAmountsOrLineOrder_returnsNull() {
+        // Given
+        cache.put(cache.key("USD", YESTERDAY, lines(line("A", "EUR", "10.00"), line("B", "GBP", "5"))),
+            new BigDecimal("18.12"));
+
+        // When & Then
+        assertNull(cache.get(cache.key("USD", YESTERDAY, lines(line("A", "EUR", "10.01"), line("B", "GBP", "5")))));
+        assertNull(cache.get(cache.key("USD", YESTERDAY, lines(line("B", "GBP", "5"), line("A", "EUR", "10.00")))));
+        assertNull(cache.get(cache.key("USD", YESTERDAY, lines(line("A", "EUR", "10.0"), line("B", "GBP", "5")))));
+        assertNull(cache.get(cache.key("EUR", YESTERDAY, lines(line("A", "EUR", "10.00"), line("B", "GBP", "5")))));
+        assertNull(cache.get(cache.key("USD", TODAY, lines(line("A", "EUR", "10.00"), line("B", "GBP", "5")))));
+    }
+
+    @Test
+    void get_pastDate_neverExpires() {
+        // Given
+        cache.put(cache.key("USD", YESTERDAY, lines(line("A", "EUR", "1"))), BigDecimal.ONE);
+
+        // When
+        nanos.addAndGet(TimeUnit.DAYS.toNanos(365));
+
+        // Then
+        assertEquals(BigDecimal.ONE, cache.get(cache.key("USD", YESTERDAY, lines(line("A", "EUR", "1")))));
+    }
+
+    @Test
+    void get_today_expiresAfterTtl() {
+        // Given
+        cache.put(cache.key("USD", TODAY, lines(line("A", "EUR", "1"))), BigDecimal.ONE);
+
+        // When & Then
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(20));
+        assertEquals(BigDecimal.ONE, cache.get(cache.key("USD", TODAY, lines(line("A", "EUR", "1")))));
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(20));
+        assertNull(cache.get(cache.key("USD", TODAY, lines(line("A", "EUR", "1")))));
+    }
+
+    @Test
+    void put_todayWithoutTtl_isNotCached() {
+        // Given
+        when(resultCacheConfig.currentDateTtl()).thenReturn(Duration.ZERO);
+        cache = newCache();
+
+        // When
+        cache.put(cache.key("USD", TODAY, lines(line("A", "EUR", "1"))), BigDecimal.ONE);
+        cache.put(cache.key("USD", YESTERDAY, lines(line("A", "EUR", "1"))), BigDecimal.TEN);
+
+        // Then
+        assertNull(cache.get(cache.key("USD", TODAY, lines(line("A", "EUR", "1")))));
+        assertEquals(BigDecimal.TEN, cache.get(cache.key("USD", YESTERDAY, lines(line("A", "EUR", "1")))));
+    }
+
+    @Test
+    void key_uncacheableInvoice_returnsNull() {
+        // When & Then
+        assertNull(cache.key("USD", YESTERDAY, lines(line("A", "EURO", "1"))));
+        assertNull(cache.key("USD", YESTERDAY, lines(line("A", "EUR", "1"), null)));
+        assertNull(cache.key("USD", null, lines(line("A", "EUR", "1"))));
+    }
+
+    @Test
+    void key_cacheOff_returnsNull() {
+        // Given
+        when(resultCacheConfig.enabled()).thenReturn(false);
+        cache = newCache();
+
+        // When
+        InvoiceResultCache.Key key = cache.key("USD", YESTERDAY, lines(line("A", "EUR", "1")));
+        cache.put(key, BigDecimal.ONE);
+
+        // Then
+        assertNull(key);
+        assertNull(cache.get(key));
+    }
+
+    private static List<InvoiceLine> lines(InvoiceLine... lines) {
+        return Arrays.asList(lines);
+    }
+
+    private static InvoiceLine line(String description, String currency, String amount) {
+        InvoiceLine line = new InvoiceLine();
+        line.description = description;
+        line.currency = currency;
+        line.amount = new BigDecimal(amount);
+        return line;
+    }
+}
@@ -0,0 +1,180 @@
+package com.verifyme.invoice.service;
+
+import com.verifyme.common.client.FrankfurterClient;
+import com.verifyme.common.client.FrankfurterResponse;
+import com.verifyme.invoice.dto.InvoicePayload;
+import com.verifyme.invoice.events.InvoiceCalculationEvent;
+import com.verifyme.invoice.events.RateLookupEvent;
+import com.verifyme.invoice.model.InvoiceLine;
+
+import jakarta.ws.rs.NotFoundException;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The JFR events are recorded only when enabled, and carry what the calculation and lookups did
+ */
+@ExtendWith(MockitoExtension.class)
+class InvoiceServiceEventsUnitTest {
+
+    private static final String CALCULATION = "com.verifyme.invoice.Calculation";
+    private static final String RATE_LOOKUP = "com.verifyme.invoice.RateLookup";
+
+    @TempDir
+    Path tempDir;
+
+    private FrankfurterClient frankfurterClient;
+    private InvoiceService invoiceService;
+
+    @BeforeEach
+    void setUp() {
+        InvoiceServiceFixture fixture = new InvoiceServiceFixture();
+        frankfurterClient = fixture.frankfurter;
+        invoiceService = fixture.service;
+    }
+
+    @Test
+    void calculateTotal_eventsEnabled_recordsCalculationAndLookups() throws IOException {
+        // Given
+        when(frankfurterClient.getHistoricalRate("2023-01-15", "USD", "EUR")).thenReturn(quote("EUR", 0.8));
+        InvoicePayload payload = payload(line("EUR", "10"), line("USD", "5"), line("EUR", "1"));
+
+        // When
+        List<RecordedEvent> events = record(true, () -> {
+            invoiceService.calculateTotal(payload);
+            invoiceService.calculateTotal(payload);
+        });
+
+        // Then
+        List<RecordedEvent> calculations = named(events, CALCULATION);
+        assertEquals(2, calculations.size());
+        RecordedEvent calculation = calculations.get(0);
+        assertEquals(3, calculation.getInt("lines"));
+        assertEquals(1, calculation.getInt("currencies"));
+        assertEquals("USD", calculation.getString("base"));
+        assertEquals("2023-01-15", calculation.getString("date"));
+        assertEquals("blocking", calculation.getString("mode"));
+
+        List<RecordedEvent> lookups = named(events, RATE_LOOKUP);
+        assertEquals(List.of(RateLookupEvent.MISS, RateLookupEvent.HIT),
+            lookups.stream().map(event -> event.getString("outcome")).toList());
+        assertEquals("EUR", lookups.get(0).getString("from"));
+        assertEquals("USD", lookups.get(0).getString("to"));
+        assertTrue(lookups.get(0).getLong("upstreamDuration") > 0);
+        assertEquals(0, lookups.get(1).getLong("upstreamDuration"));
+    }
+
+    @Test
+    void calculateTotal_fetchFails_recordsErrorLookupWithoutCalculation() throws IOException {
+        // Given
+        when(frankfurterClient.getHistoricalRate("2023-01-15", "USD", "EUR")).thenThrow(new RuntimeException("down"));
+
+        // When
+        List<RecordedEvent> events = record(true, () ->
+            assertThrows(NotFoundException.class, () -> invoiceService.calculateTotal(payload(line("EUR", "10")))));
+
+        // Then
+        assertTrue(named(events, CALCULATION).isEmpty());
+        List<RecordedEvent> lookups = named(events, RATE_LOOKUP);
+        assertEquals(1, lookups.size());
+        assertEquals(RateLookupEvent.ERROR, lookups.get(0).getString("outcome"));
+    }
+
+    @Test
+    void runningTotal_eventsEnabled_recordsStreamCalculation() throws IOException {
+        // Given
+        when(frankfurterClient.getHistoricalRate("2023-01-15", "USD", "EUR")).thenReturn(quote("EUR", 0.8));
+
+        // When
+        List<RecordedEvent> events = record(true, () -> {
+            InvoiceService.RunningTotal total = invoiceService.runningTotal("USD", LocalDate.of(2023, 1, 15));
+            total.add("EUR", new BigDecimal("10"));
+            total.add("EUR", new BigDecimal("2"));
+            total.total();
+        });
+
+        // Then
+        List<RecordedEvent> calculations = named(events, CALCULATION);
+        assertEquals(1, calculations.size());
+        assertEquals("stream", calculations.get(0).getString("mode"));
+        assertEquals(2, calculations.get(0).getInt("lines"));
+        assertEquals(1, calculations.get(0).getInt("currencies"));
+    }
+
+    @Test
+    void calculateTotal_eventsNotEnabled_recordsNothing() throws IOException {
+        // Given
+        when(frankfurterClient.getHistoricalRate("2023-01-15", "USD", "EUR")).thenReturn(quote("EUR", 0.8));
+
+        // When
+        List<RecordedEvent> events = record(false, () -> invoiceService.calculateTotal(payload(line("EUR", "10"))));
+
+        // Then
+        assertTrue(named(events, CALCULATION).isEmpty());
+        assertTrue(named(events, RATE_LOOKUP).isEmpty());
+    }
+
+    private List<RecordedEvent> record(boolean enabled, Runnable action) throws IOException {
+        Path file = tempDir.resolve("events.jfr");
+        try (Recording recording = new Recording()) {
+            if (enabled) {
+                recording.enable(InvoiceCalculationEvent.class);
+                recording.enable(RateLookupEvent.class);
+            }
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file);
+    }
+
+    private static List<RecordedEvent> named(List<RecordedEvent> events, String name) {
+        Predicate<RecordedEvent> matches = event -> event.getEventType().getName().equals(name);
+        List<RecordedEvent> result = new ArrayList<>(events.stream().filter(matches).toList());
+        result.sort((a, b) -> a.getStartTime().compareTo(b.getStartTime()));
+        return result;
+    }
+
+    private static InvoicePayload payload(InvoiceLine... lines) {
+        InvoicePayload payload = new InvoicePayload();
+        payload.currency = "USD";
+        payload.date = LocalDate.of(2023, 1, 15);
+        payload.lines = List.of(lines);
+        return payload;
+    }
+
+    private static InvoiceLine line(String currency, String amount) {
+        InvoiceLine line = new InvoiceLine();
+        line.description = "Item";
+        line.currency = currency;
+        line.amount = new BigDecimal(amount);
+        return line;
+    }
+
+    private static FrankfurterResponse quote(String currency, double quote) {
+        FrankfurterResponse response = new FrankfurterResponse();
+        response.rates = Map.of(currency, quote);
+        return response;
+    }
+}
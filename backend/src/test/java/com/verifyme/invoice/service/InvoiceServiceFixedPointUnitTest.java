@@ -0,0 +1,92 @@
+package com.verifyme.invoice.service;
+
+import com.verifyme.invoice.dto.InvoicePayload;
+import com.verifyme.invoice.model.InvoiceLine;
+
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+import net.jqwik.api.Tuple;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The fixed-point summation of {@code calculateTotal} must give bit-identical totals, value and scale,
+ * to the BigDecimal summation it replaces, including invoices that overflow into the fallback
+ */
+class InvoiceServiceFixedPointUnitTest {
+
+    private static final LocalDate DATE = LocalDate.of(2023, 1, 15);
+    private static final String[] CURRENCIES = {"USD", "EUR", "GBP", "JPY", "CHF"};
+
+    private final InvoiceService invoiceService = new InvoiceServiceFixture().service;
+
+    @Property(tries = 500)
+    void calculateTotal_matchesBigDecimalSummation(@ForAll("lines") List<InvoiceLine> lines,
+                                                   @ForAll("rateTables") Map<String, BigDecimal> rates) {
+        // Given
+        invoiceService.rateCache = new ExchangeRateCache(invoiceService.config);
+        rates.forEach((from, rate) -> invoiceService.rateCache.put(DATE, from, "USD", rate));
+        InvoicePayload payload = new InvoicePayload();
+        payload.currency = "usd";
+        payload.date = DATE;
+        payload.lines = lines;
+
+        // When
+        BigDecimal total = invoiceService.calculateTotal(payload);
+
+        // Then
+        BigDecimal expected = invoiceService.sumLinesExact(lines, "USD", rates);
+        assertEquals(expected, total);
+        assertEquals(expected.scale(), total.scale());
+    }
+
+    @Provide
+    Arbitrary<List<InvoiceLine>> lines() {
+        Arbitrary<Long> unscaled = Arbitraries.oneOf(
+                Arbitraries.longs().between(0, 100_000_000L),
+                Arbitraries.longs().between(0, Long.MAX_VALUE / 10));
+        Arbitrary<BigDecimal> regular = Combinators.combine(unscaled, Arbitraries.integers().between(0, 8))
+                .as(BigDecimal::valueOf);
+        Arbitrary<BigDecimal> huge = Arbitraries.bigDecimals()
+                .between(BigDecimal.ZERO, new BigDecimal("1e22")).ofScale(3);
+        Arbitrary<BigDecimal> amounts = Arbitraries.frequencyOf(Tuple.of(19, regular), Tuple.of(1, huge));
+
+        // some codes arrive untrimmed, also by whitespace String.trim keeps, or in lower case
+        Arbitrary<String> currencies = Arbitraries.frequencyOf(
+                Tuple.of(4, Arbitraries.of(CURRENCIES)),
+                Tuple.of(1, Arbitraries.of(CURRENCIES).map(code -> " " + code.toLowerCase(Locale.ROOT))),
+                Tuple.of(1, Arbitraries.of(CURRENCIES).map(code -> "\u3000" + code + "\u2003")));
+        return Combinators.combine(currencies, amounts).as((currency, amount) -> {
+            InvoiceLine line = new InvoiceLine();
+            line.description = "Item";
+            line.currency = currency;
+            line.amount = amount;
+            return line;
+        }).list().ofMinSize(0).ofMaxSize(50);
+    }
+
+    @Provide
+    Arbitrary<Map<String, BigDecimal>> rateTables() {
+        Arbitrary<BigDecimal> rate = Combinators.combine(
+                Arbitraries.longs().between(1, 50_000_000L),
+                Arbitraries.integers().between(2, 8)).as(BigDecimal::valueOf);
+        return rate.list().ofSize(CURRENCIES.length - 1).map(values -> {
+            Map<String, BigDecimal> rates = new HashMap<>();
+            for (int i = 1; i < CURRENCIES.length; i++) {
+                rates.put(CURRENCIES[i], values.get(i - 1));
+            }
+            return rates;
+        });
+    }
+}
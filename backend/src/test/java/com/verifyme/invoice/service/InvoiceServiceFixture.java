@@ -0,0 +1,63 @@
+package com.verifyme.invoice.service;
+
+import com.verifyme.common.client.FrankfurterClient;
+import com.verifyme.common.logging.RequestLog;
+import com.verifyme.invoice.config.InvoiceConfig;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.mockito.Mockito.*;
+
+/**
+ * An {@link InvoiceService} wired by hand for unit tests: mocked configuration, Frankfurter client,
+ * request log and result cache, a real rate cache and meters in a {@link SimpleMeterRegistry}.
+ * Stubs are lenient, a test overrides the ones it cares about. A new service field is wired here,
+ * once for every test of the service.
+ */
+final class InvoiceServiceFixture {
+
+    final InvoiceConfig config = mock(InvoiceConfig.class);
+    final InvoiceConfig.RatesConfig ratesConfig = mock(InvoiceConfig.RatesConfig.class);
+    final FrankfurterClient frankfurter = mock(FrankfurterClient.class);
+    final RequestLog requestLog = mock(RequestLog.class);
+    final InvoiceResultCache resultCache = mock(InvoiceResultCache.class);
+    final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    final InvoiceService service = new InvoiceService();
+
+    InvoiceServiceFixture() {
+        InvoiceConfig.DecimalConfig decimalConfig = mock(InvoiceConfig.DecimalConfig.class);
+        InvoiceConfig.ErrorConfig errorConfig = mock(InvoiceConfig.ErrorConfig.class);
+        InvoiceConfig.RateCacheConfig rateCacheConfig = mock(InvoiceConfig.RateCacheConfig.class);
+        InvoiceConfig.ExecutionConfig executionConfig = mock(InvoiceConfig.ExecutionConfig.class);
+        InvoiceConfig.ValidationConfig validationConfig = mock(InvoiceConfig.ValidationConfig.class);
+
+        lenient().when(decimalConfig.moneyScale()).thenReturn(2);
+        lenient().when(decimalConfig.rateScale()).thenReturn(4);
+        lenient().when(config.decimal()).thenReturn(decimalConfig);
+        lenient().when(errorConfig.exchangeRateFetchErrorTemplate()).thenReturn("cannot fetch exchange rate for %s->%s on %s");
+        lenient().when(errorConfig.exchangeRateNotFoundTemplate()).thenReturn("exchange rate not found for %s->%s on %s");
+        lenient().when(errorConfig.invalidRateTemplate()).thenReturn("invalid rate for %s->%s on %s");
+        lenient().when(config.error()).thenReturn(errorConfig);
+        lenient().when(rateCacheConfig.maxSize()).thenReturn(100L);
+        lenient().when(rateCacheConfig.currentDateTtl()).thenReturn(Duration.ofMinutes(5));
+        lenient().when(config.rateCache()).thenReturn(rateCacheConfig);
+        lenient().when(executionConfig.fetchParallelism()).thenReturn(2);
+        lenient().when(config.execution()).thenReturn(executionConfig);
+        lenient().when(ratesConfig.source()).thenReturn(InvoiceConfig.RatesConfig.Source.BASE);
+        lenient().when(ratesConfig.anchor()).thenReturn("EUR");
+        lenient().when(config.rates()).thenReturn(ratesConfig);
+        lenient().when(validationConfig.fastPath()).thenReturn(true);
+        lenient().when(config.validation()).thenReturn(validationConfig);
+
+        service.frankfurter = frankfurter;
+        service.config = config;
+        service.rateCache = new ExchangeRateCache(config);
+        service.resultCache = resultCache;
+        service.metrics = new InvoiceMetrics(meterRegistry);
+        service.requestLog = requestLog;
+        service.frankfurterUrl = Optional.of("https://api.frankfurter.app");
+    }
+}
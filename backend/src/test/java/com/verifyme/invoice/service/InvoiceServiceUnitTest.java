@@ -2,24 +2,36 @@ package com.verifyme.invoice.service;
 
 import com.verifyme.common.client.FrankfurterClient;
 import com.verifyme.common.client.FrankfurterResponse;
+import com.verifyme.common.logging.RequestLog;
 import com.verifyme.invoice.config.InvoiceConfig;
 import com.verifyme.invoice.model.InvoiceLine;
 import com.verifyme.invoice.dto.InvoicePayload;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.smallrye.mutiny.Uni;
+
 import jakarta.ws.rs.BadRequestException;
 import jakarta.ws.rs.NotFoundException;
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.WebApplicationException;
+import jakarta.ws.rs.core.Response;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
-import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -28,32 +40,27 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class InvoiceServiceUnitTest {
 
-    @Mock
     private FrankfurterClient frankfurterClient;
-
-    @Mock
     private InvoiceConfig invoiceConfig;
-
-    @InjectMocks
+    private RequestLog requestLog;
+    private InvoiceResultCache resultCache;
     private InvoiceService invoiceService;
 
     private InvoicePayload testPayload;
     private InvoiceLine testLine;
+    private SimpleMeterRegistry meterRegistry;
+    private InvoiceConfig.RatesConfig ratesConfig;
 
     @BeforeEach
     void setUp() {
-        // Mock InvoiceConfig behavior with lenient stubbing
-        InvoiceConfig.DecimalConfig decimalConfig = mock(InvoiceConfig.DecimalConfig.class);
-        InvoiceConfig.ErrorConfig errorConfig = mock(InvoiceConfig.ErrorConfig.class);
-        
-        lenient().when(decimalConfig.moneyScale()).thenReturn(2);
-        lenient().when(decimalConfig.rateScale()).thenReturn(4);
-        lenient().when(invoiceConfig.decimal()).thenReturn(decimalConfig);
-        
-        lenient().when(errorConfig.exchangeRateFetchErrorTemplate()).thenReturn("cannot fetch exchange rate for %s->%s on %s");
-        lenient().when(errorConfig.exchangeRateNotFoundTemplate()).thenReturn("exchange rate not found for %s->%s on %s");
-        lenient().when(errorConfig.invalidRateTemplate()).thenReturn("invalid rate for %s->%s on %s");
-        lenient().when(invoiceConfig.error()).thenReturn(errorConfig);
+        InvoiceServiceFixture fixture = new InvoiceServiceFixture();
+        frankfurterClient = fixture.frankfurter;
+        invoiceConfig = fixture.config;
+        requestLog = fixture.requestLog;
+        resultCache = fixture.resultCache;
+        invoiceService = fixture.service;
+        meterRegistry = fixture.meterRegistry;
+        ratesConfig = fixture.ratesConfig;
 
         testLine = new InvoiceLine();
         testLine.description = "Test Item";
@@ -111,8 +118,8 @@ class InvoiceServiceUnitTest {
     void calculateTotal_differentCurrency_callsExchangeRateAPI() {
         // Given
         testLine.currency = "EUR";
-        FrankfurterResponse response = createMockResponse("USD", 1.0850);
-        when(frankfurterClient.getHistoricalRate("2023-01-15", "EUR", "USD"))
+        FrankfurterResponse response = createInverseResponse("EUR", 1.0850);
+        when(frankfurterClient.getHistoricalRate("2023-01-15", "USD", "EUR"))
                 .thenReturn(response);
 
         // When
@@ -120,7 +127,45 @@ class InvoiceServiceUnitTest {
 
         // Then
         assertEquals(new BigDecimal("108.50"), result);
-        verify(frankfurterClient).getHistoricalRate("2023-01-15", "EUR", "USD");
+        verify(frankfurterClient).getHistoricalRate("2023-01-15", "USD", "EUR");
+    }
+
+    @Test
+    void calculateTotal_resubmittedInvoice_answeredWithoutRateLookups() {
+        // Given
+        InvoiceConfig.ResultCacheConfig resultCacheConfig = mock(InvoiceConfig.ResultCacheConfig.class);
+        when(resultCacheConfig.enabled()).thenReturn(true);
+        when(resultCacheConfig.maxLines()).thenReturn(100L);
+        when(resultCacheConfig.currentDateTtl()).thenReturn(Duration.ofSeconds(30));
+        when(invoiceConfig.resultCache()).thenReturn(resultCacheConfig);
+        invoiceService.resultCache = new InvoiceResultCache(invoiceConfig);
+        testLine.currency = "EUR";
+        when(frankfurterClient.getHistoricalRate("2023-01-15", "USD", "EUR"))
+                .thenReturn(createInverseResponse("EUR", 1.0850));
+        BigDecimal first = invoiceService.calculateTotal(testPayload);
+        invoiceService.rateCache = mock(ExchangeRateCache.class);
+
+        InvoiceLine resubmitted = new InvoiceLine();
+        resubmitted.description = "Retry";
+        resubmitted.currency = " eur";
+        resubmitted.amount = new BigDecimal("100.00");
+        InvoicePayload retry = new InvoicePayload();
+        retry.currency = "usd ";
+        retry.date = LocalDate.of(2023, 1, 15);
+        retry.lines = Arrays.asList(resubmitted);
+
+        // When
+        BigDecimal blocking = invoiceService.calculateTotal(retry);
+        BigDecimal async = invoiceService.calculateTotalAsync(retry).await().indefinitely();
+
+        // Then
+        assertEquals(new BigDecimal("108.50"), first);
+        assertEquals(first, blocking);
+        assertEquals(first, async);
+        verify(frankfurterClient).getHistoricalRate("2023-01-15", "USD", "EUR");
+        verifyNoMoreInteractions(frankfurterClient);
+        verifyNoInteractions(invoiceService.rateCache);
+        assertEquals(2.0, meterRegistry.counter("invoice.results.cache", "result", "hit").count());
     }
 
     @Test
@@ -128,7 +173,7 @@ class InvoiceServiceUnitTest {
         // Given
         testLine.currency = "EUR";
         testLine.amount = new BigDecimal("100.00");
-        FrankfurterResponse response = createMockResponse("USD", 1.123456789);
+        FrankfurterResponse response = createInverseResponse("EUR", 1.123456789);
         when(frankfurterClient.getHistoricalRate(anyString(), anyString(), anyString()))
                 .thenReturn(response);
 
@@ -145,7 +190,7 @@ class InvoiceServiceUnitTest {
         // Given
         testLine.currency = "EUR";
         testLine.amount = new BigDecimal("33.333");
-        FrankfurterResponse response = createMockResponse("USD", 1.1234);
+        FrankfurterResponse response = createInverseResponse("EUR", 1.1234);
         when(frankfurterClient.getHistoricalRate(anyString(), anyString(), anyString()))
                 .thenReturn(response);
 
@@ -162,15 +207,15 @@ class InvoiceServiceUnitTest {
         // Given
         testPayload.date = LocalDate.of(2023, 12, 25);
         testLine.currency = "EUR";
-        FrankfurterResponse response = createMockResponse("USD", 1.0850);
-        when(frankfurterClient.getHistoricalRate("2023-12-25", "EUR", "USD"))
+        FrankfurterResponse response = createInverseResponse("EUR", 1.0850);
+        when(frankfurterClient.getHistoricalRate("2023-12-25", "USD", "EUR"))
                 .thenReturn(response);
 
         // When
         invoiceService.calculateTotal(testPayload);
 
         // Then
-        verify(frankfurterClient).getHistoricalRate("2023-12-25", "EUR", "USD");
+        verify(frankfurterClient).getHistoricalRate("2023-12-25", "USD", "EUR");
     }
 
     @Test
@@ -189,6 +234,48 @@ class InvoiceServiceUnitTest {
         assertTrue(exception.getMessage().contains("2023-01-15"));
     }
 
+    @Test
+    void calculateTotal_noResponse_loggedAsUpstreamCallWithoutStatus() {
+        // Given
+        testLine.currency = "EUR";
+        when(frankfurterClient.getHistoricalRate("2023-01-15", "USD", "EUR"))
+                .thenThrow(new ProcessingException(new SocketTimeoutException("Read timed out")));
+
+        // When
+        assertThrows(NotFoundException.class, () -> invoiceService.calculateTotal(testPayload));
+
+        // Then
+        verify(requestLog).upstream(eq("GET"), eq(URI.create("https://api.frankfurter.app/2023-01-15?from=USD&to=EUR")), eq(0), anyLong());
+    }
+
+    @Test
+    void calculateTotalAsync_noResponse_loggedAsUpstreamCallWithoutStatus() {
+        // Given
+        testLine.currency = "EUR";
+        when(frankfurterClient.getHistoricalRateAsync("2023-01-15", "USD", "EUR"))
+                .thenReturn(Uni.createFrom().failure(new ProcessingException(new ConnectException("Connection refused"))));
+
+        // When
+        assertThrows(NotFoundException.class, () -> invoiceService.calculateTotalAsync(testPayload).await().indefinitely());
+
+        // Then
+        verify(requestLog).upstream(eq("GET"), eq(URI.create("https://api.frankfurter.app/2023-01-15?from=USD&to=EUR")), eq(0), anyLong());
+    }
+
+    @Test
+    void calculateTotal_errorStatus_leftToTheClientFilter() {
+        // Given
+        testLine.currency = "EUR";
+        when(frankfurterClient.getHistoricalRate("2023-01-15", "USD", "EUR"))
+                .thenThrow(new WebApplicationException(Response.status(503).build()));
+
+        // When
+        assertThrows(NotFoundException.class, () -> invoiceService.calculateTotal(testPayload));
+
+        // Then
+        verify(requestLog, never()).upstream(any(), any(), anyInt(), anyLong());
+    }
+
     @Test
     void calculateTotal_nullResponse_throwsNotFoundException() {
         // Given
@@ -240,7 +327,7 @@ class InvoiceServiceUnitTest {
     void calculateTotal_zeroExchangeRate_throwsBadRequestException() {
         // Given
         testLine.currency = "EUR";
-        FrankfurterResponse response = createMockResponse("USD", 0.0);
+        FrankfurterResponse response = createMockResponse("EUR", 0.0);
         when(frankfurterClient.getHistoricalRate(anyString(), anyString(), anyString()))
                 .thenReturn(response);
 
@@ -255,7 +342,7 @@ class InvoiceServiceUnitTest {
     void calculateTotal_negativeExchangeRate_throwsBadRequestException() {
         // Given
         testLine.currency = "EUR";
-        FrankfurterResponse response = createMockResponse("USD", -1.5);
+        FrankfurterResponse response = createMockResponse("EUR", -1.5);
         when(frankfurterClient.getHistoricalRate(anyString(), anyString(), anyString()))
                 .thenReturn(response);
 
@@ -289,13 +376,13 @@ class InvoiceServiceUnitTest {
         InvoiceLine gbpLine = createLine("GBP Item", "GBP", "25.00");
         testPayload.lines = Arrays.asList(usdLine, eurLine, gbpLine);
 
-        FrankfurterResponse eurResponse = createMockResponse("USD", 1.0850);
-        FrankfurterResponse gbpResponse = createMockResponse("USD", 1.2500);
+        FrankfurterResponse response = new FrankfurterResponse();
+        response.rates = new HashMap<>();
+        response.rates.put("EUR", 1.0 / 1.0850);
+        response.rates.put("GBP", 1.0 / 1.2500);
         
-        when(frankfurterClient.getHistoricalRate("2023-01-15", "EUR", "USD"))
-                .thenReturn(eurResponse);
-        when(frankfurterClient.getHistoricalRate("2023-01-15", "GBP", "USD"))
-                .thenReturn(gbpResponse);
+        when(frankfurterClient.getHistoricalRate("2023-01-15", "USD", "EUR,GBP"))
+                .thenReturn(response);
 
         // When
         BigDecimal result = invoiceService.calculateTotal(testPayload);
@@ -305,6 +392,277 @@ class InvoiceServiceUnitTest {
         assertEquals(new BigDecimal("185.50"), result);
     }
 
+    @Test
+    void calculateTotal_repeatedLookup_servedFromRateCache() {
+        // Given
+        testLine.currency = "EUR";
+        FrankfurterResponse response = createInverseResponse("EUR", 1.0850);
+        when(frankfurterClient.getHistoricalRate("2023-01-15", "USD", "EUR"))
+                .thenReturn(response);
+
+        // When
+        BigDecimal first = invoiceService.calculateTotal(testPayload);
+        BigDecimal second = invoiceService.calculateTotal(testPayload);
+
+        // Then
+        assertEquals(new BigDecimal("108.50"), first);
+        assertEquals(first, second);
+        verify(frankfurterClient, times(1)).getHistoricalRate("2023-01-15", "USD", "EUR");
+    }
+
+    @Test
+    void calculateTotal_failedLookup_isNotCached() {
+        // Given
+        testLine.currency = "EUR";
+        when(frankfurterClient.getHistoricalRate("2023-01-15", "USD", "EUR"))
+                .thenThrow(new RuntimeException("Network error"))
+                .thenReturn(createInverseResponse("EUR", 1.0850));
+
+        // When & Then
+        assertThrows(NotFoundException.class, () -> invoiceService.calculateTotal(testPayload));
+        assertEquals(new BigDecimal("108.50"), invoiceService.calculateTotal(testPayload));
+        verify(frankfurterClient, times(2)).getHistoricalRate("2023-01-15", "USD", "EUR");
+    }
+
+    @Test
+    void calculateTotal_repeatedCurrencies_fetchesEachCurrencyOnce() {
+        // Given
+        testPayload.lines = Arrays.asList(
+                createLine("EUR Item 1", "EUR", "10.00"),
+                createLine("GBP Item", "gbp", "20.00"),
+                createLine("EUR Item 2", " eur ", "30.00"),
+                createLine("USD Item", "USD", "5.00"));
+
+        FrankfurterResponse response = new FrankfurterResponse();
+        response.rates = new HashMap<>();
+        response.rates.put("EUR", 1.0 / 1.0850);
+        response.rates.put("GBP", 1.0 / 1.2500);
+        when(frankfurterClient.getHistoricalRate("2023-01-15", "USD", "EUR,GBP"))
+                .thenReturn(response);
+
+        // When
+        BigDecimal result = invoiceService.calculateTotal(testPayload);
+
+        // Then
+        // 10.85 + 25.00 + 32.55 + 5.00 = 73.40
+        assertEquals(new BigDecimal("73.40"), result);
+        verify(frankfurterClient, times(1)).getHistoricalRate(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void calculateTotal_partiallyCachedCurrencies_fetchesOnlyMissing() {
+        // Given
+        testLine.currency = "EUR";
+        when(frankfurterClient.getHistoricalRate("2023-01-15", "USD", "EUR"))
+                .thenReturn(createInverseResponse("EUR", 1.0850));
+        invoiceService.calculateTotal(testPayload);
+
+        testPayload.lines = Arrays.asList(
+                createLine("EUR Item", "EUR", "100.00"),
+                createLine("GBP Item", "GBP", "100.00"));
+        when(frankfurterClient.getHistoricalRate("2023-01-15", "USD", "GBP"))
+                .thenReturn(createInverseResponse("GBP", 1.2500));
+
+        // When
+        BigDecimal result = invoiceService.calculateTotal(testPayload);
+
+        // Then
+        assertEquals(new BigDecimal("233.50"), result);
+        verify(frankfurterClient, times(1)).getHistoricalRate("2023-01-15", "USD", "EUR");
+        verify(frankfurterClient, times(1)).getHistoricalRate("2023-01-15", "USD", "GBP");
+    }
+
+    @Test
+    void calculateTotal_recordsCalculationCacheAndUpstreamMeters() {
+        // Given
+        testLine.currency = "EUR";
+        when(frankfurterClient.getHistoricalRate("2023-01-15", "USD", "EUR"))
+                .thenReturn(createInverseResponse("EUR", 1.0850));
+
+        // When
+        invoiceService.calculateTotal(testPayload);
+        invoiceService.calculateTotal(testPayload);
+
+        // Then
+        assertEquals(2, meterRegistry.get("invoice.calculation").tag("lines", "1").timer().count());
+        assertEquals(2.0, meterRegistry.get("invoice.lines").counter().count());
+        assertEquals(1.0, meterRegistry.get("invoice.rates.cache").tag("result", "miss").counter().count());
+        assertEquals(1.0, meterRegistry.get("invoice.rates.cache").tag("result", "hit").counter().count());
+        assertEquals(1, meterRegistry.get("invoice.rates.upstream").tag("status", "200").timer().count());
+    }
+
+    @Test
+    void calculateTotal_upstreamStatusError_recordsStatusTag() {
+        // Given
+        testLine.currency = "EUR";
+        when(frankfurterClient.getHistoricalRate(anyString(), anyString(), anyString()))
+                .thenThrow(new NotFoundException("not found"));
+
+        // When
+        assertThrows(NotFoundException.class, () -> invoiceService.calculateTotal(testPayload));
+
+        // Then
+        assertEquals(1, meterRegistry.get("invoice.rates.upstream").tag("status", "404").timer().count());
+        assertEquals(0, meterRegistry.get("invoice.calculation").tag("lines", "1").timer().count());
+    }
+
+    @Test
+    void prefetchExchangeRates_sameDateAndBase_fetchesUnionOnce() {
+        // Given
+        InvoicePayload eurInvoice = createPayload("USD", LocalDate.of(2023, 1, 15), createLine("EUR Item", "EUR", "10.00"));
+        InvoicePayload gbpInvoice = createPayload("usd", LocalDate.of(2023, 1, 15), createLine("GBP Item", "GBP", "10.00"));
+        InvoicePayload otherDate = createPayload("USD", LocalDate.of(2023, 1, 16), createLine("EUR Item", "EUR", "10.00"));
+
+        FrankfurterResponse response = new FrankfurterResponse();
+        response.rates = new HashMap<>();
+        response.rates.put("EUR", 1.0 / 1.0850);
+        response.rates.put("GBP", 1.0 / 1.2500);
+        when(frankfurterClient.getHistoricalRateAsync("2023-01-15", "USD", "EUR,GBP"))
+                .thenReturn(Uni.createFrom().item(response));
+        when(frankfurterClient.getHistoricalRateAsync("2023-01-16", "USD", "EUR"))
+                .thenReturn(Uni.createFrom().item(createInverseResponse("EUR", 1.0900)));
+
+        // When
+        invoiceService.prefetchExchangeRates(Arrays.asList(eurInvoice, gbpInvoice, otherDate));
+
+        // Then
+        assertEquals(new BigDecimal("10.85"), invoiceService.calculateTotal(eurInvoice));
+        assertEquals(new BigDecimal("12.50"), invoiceService.calculateTotal(gbpInvoice));
+        assertEquals(new BigDecimal("10.90"), invoiceService.calculateTotal(otherDate));
+        verify(frankfurterClient, times(2)).getHistoricalRateAsync(anyString(), anyString(), anyString());
+        verify(frankfurterClient, never()).getHistoricalRate(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void prefetchExchangeRates_manyDates_fetchesConcurrentlyWithinParallelism() {
+        // Given
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        when(frankfurterClient.getHistoricalRateAsync(anyString(), eq("USD"), eq("EUR")))
+                .thenAnswer(invocation -> Uni.createFrom().item(createInverseResponse("EUR", 1.0850))
+                        .onSubscription().invoke(() -> peak.accumulateAndGet(active.incrementAndGet(), Math::max))
+                        .onItem().delayIt().by(Duration.ofMillis(50))
+                        .onTermination().invoke(active::decrementAndGet));
+        InvoicePayload[] invoices = new InvoicePayload[6];
+        for (int i = 0; i < invoices.length; i++) {
+            invoices[i] = createPayload("USD", LocalDate.of(2023, 1, 10 + i), createLine("EUR Item", "EUR", "10.00"));
+        }
+
+        // When
+        invoiceService.prefetchExchangeRates(Arrays.asList(invoices));
+
+        // Then
+        assertEquals(2, peak.get());
+        verify(frankfurterClient, times(6)).getHistoricalRateAsync(anyString(), anyString(), anyString());
+        for (InvoicePayload invoice : invoices) {
+            assertEquals(new BigDecimal("10.85"), invoiceService.calculateTotal(invoice));
+        }
+        verify(frankfurterClient, never()).getHistoricalRate(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void prefetchExchangeRates_upstreamFailure_doesNotThrow() {
+        // Given
+        testLine.currency = "EUR";
+        when(frankfurterClient.getHistoricalRateAsync(anyString(), anyString(), anyString()))
+                .thenReturn(Uni.createFrom().failure(new RuntimeException("Network error")));
+
+        // When & Then
+        assertDoesNotThrow(() -> invoiceService.prefetchExchangeRates(Arrays.asList(testPayload)));
+    }
+
+    @Test
+    void calculateTotalAsync_mixedCurrencies_convertsAndSums() {
+        // Given
+        testPayload.lines = Arrays.asList(
+                createLine("USD Item", "USD", "100.00"),
+                createLine("EUR Item", "EUR", "50.00"),
+                createLine("GBP Item", "GBP", "25.00"));
+
+        FrankfurterResponse response = new FrankfurterResponse();
+        response.rates = new HashMap<>();
+        response.rates.put("EUR", 1.0 / 1.0850);
+        response.rates.put("GBP", 1.0 / 1.2500);
+        when(frankfurterClient.getHistoricalRateAsync("2023-01-15", "USD", "EUR,GBP"))
+                .thenReturn(Uni.createFrom().item(response));
+
+        // When
+        BigDecimal result = invoiceService.calculateTotalAsync(testPayload).await().indefinitely();
+
+        // Then
+        assertEquals(new BigDecimal("185.50"), result);
+        verify(frankfurterClient, never()).getHistoricalRate(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void calculateTotalAsync_sameCurrenciesInOppositeOrder_shareOneUpstreamCall() throws Exception {
+        // Given
+        FrankfurterResponse response = new FrankfurterResponse();
+        response.rates = new HashMap<>();
+        response.rates.put("EUR", 1.0 / 1.0850);
+        response.rates.put("GBP", 1.0 / 1.2500);
+        CompletableFuture<FrankfurterResponse> upstream = new CompletableFuture<>();
+        when(frankfurterClient.getHistoricalRateAsync("2023-01-15", "USD", "EUR,GBP"))
+                .thenReturn(Uni.createFrom().completionStage(upstream));
+        InvoicePayload eurFirst = createPayload("USD", LocalDate.of(2023, 1, 15),
+                createLine("EUR Item", "EUR", "10.00"), createLine("GBP Item", "GBP", "10.00"));
+        InvoicePayload gbpFirst = createPayload("USD", LocalDate.of(2023, 1, 15),
+                createLine("GBP Item", "GBP", "20.00"), createLine("EUR Item", "EUR", "20.00"));
+
+        // When
+        CompletableFuture<BigDecimal> first = invoiceService.calculateTotalAsync(eurFirst).subscribeAsCompletionStage();
+        CompletableFuture<BigDecimal> second = invoiceService.calculateTotalAsync(gbpFirst).subscribeAsCompletionStage();
+        upstream.complete(response);
+
+        // Then
+        assertEquals(new BigDecimal("23.35"), first.get(1, TimeUnit.SECONDS));
+        assertEquals(new BigDecimal("46.70"), second.get(1, TimeUnit.SECONDS));
+        verify(frankfurterClient, times(1)).getHistoricalRateAsync(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void calculateTotalAsync_cachedRates_noUpstreamCall() {
+        // Given
+        testLine.currency = "EUR";
+        when(frankfurterClient.getHistoricalRate("2023-01-15", "USD", "EUR"))
+                .thenReturn(createInverseResponse("EUR", 1.0850));
+        invoiceService.calculateTotal(testPayload);
+
+        // When
+        BigDecimal result = invoiceService.calculateTotalAsync(testPayload).await().indefinitely();
+
+        // Then
+        assertEquals(new BigDecimal("108.50"), result);
+        verify(frankfurterClient, never()).getHistoricalRateAsync(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void calculateTotalAsync_upstreamFailure_failsWithNotFoundException() {
+        // Given
+        testLine.currency = "EUR";
+        when(frankfurterClient.getHistoricalRateAsync(anyString(), anyString(), anyString()))
+                .thenReturn(Uni.createFrom().failure(new RuntimeException("Network error")));
+
+        // When & Then
+        NotFoundException exception = assertThrows(NotFoundException.class,
+            () -> invoiceService.calculateTotalAsync(testPayload).await().indefinitely());
+
+        assertTrue(exception.getMessage().contains("cannot fetch exchange rate"));
+        assertTrue(exception.getMessage().contains("EUR->USD"));
+    }
+
+    @Test
+    void calculateTotalAsync_zeroExchangeRate_failsWithBadRequestException() {
+        // Given
+        testLine.currency = "EUR";
+        when(frankfurterClient.getHistoricalRateAsync(anyString(), anyString(), anyString()))
+                .thenReturn(Uni.createFrom().item(createMockResponse("EUR", 0.0)));
+
+        // When & Then
+        assertThrows(BadRequestException.class,
+            () -> invoiceService.calculateTotalAsync(testPayload).await().indefinitely());
+    }
+
     @Test
     void calculateTotal_emptyLinesList_returnsZero() {
         // Given
@@ -344,6 +702,121 @@ class InvoiceServiceUnitTest {
         assertEquals(new BigDecimal("999999999.99"), result);
     }
 
+    @Test
+    void calculateTotals_triangulated_oneAnchorTableServesEveryBase() {
+        // Given
+        when(ratesConfig.source()).thenReturn(InvoiceConfig.RatesConfig.Source.TRIANGULATED);
+        when(frankfurterClient.getHistoricalRate("2023-01-15", "EUR", null))
+                .thenReturn(createAnchorResponse(Map.of("USD", 1.0825, "GBP", 0.8843, "JPY", 140.83)));
+        InvoicePayload usd = createPayload("USD", testPayload.date,
+                createLine("A", "GBP", "100.00"), createLine("B", "EUR", "10.00"));
+        InvoicePayload gbp = createPayload("GBP", testPayload.date,
+                createLine("C", "JPY", "1000"), createLine("D", "USD", "60.00"));
+
+        // When
+        BigDecimal usdTotal = invoiceService.calculateTotal(usd);
+        BigDecimal gbpTotal = invoiceService.calculateTotal(gbp);
+
+        // Then
+        // GBP->USD = 1.0825 / 0.8843 = 1.2241, EUR->USD = 1.0825
+        assertEquals(new BigDecimal("133.24"), usdTotal);
+        // JPY->GBP = 0.8843 / 140.83 = 0.0063, USD->GBP = 0.8843 / 1.0825 = 0.8169
+        assertEquals(new BigDecimal("55.31"), gbpTotal);
+        verify(frankfurterClient, times(1)).getHistoricalRate(anyString(), anyString(), any());
+    }
+
+    @Test
+    void calculateTotal_triangulated_matchesBaseAnchoredRatesWithinRounding() {
+        // Given
+        when(ratesConfig.source()).thenReturn(InvoiceConfig.RatesConfig.Source.TRIANGULATED);
+        when(frankfurterClient.getHistoricalRate("2023-01-15", "EUR", null))
+                .thenReturn(createAnchorResponse(Map.of("USD", 1.0825, "GBP", 0.8843)));
+        testLine.currency = "GBP";
+        testLine.amount = new BigDecimal("1000.00");
+
+        // When
+        BigDecimal result = invoiceService.calculateTotal(testPayload);
+
+        // Then
+        // base-anchored: USD->GBP quote 0.8169 inverted = 1.2241, the same 4 decimal rate
+        BigDecimal baseAnchored = new BigDecimal("1000.00").multiply(new BigDecimal("1.2241"));
+        assertTrue(result.subtract(baseAnchored).abs().compareTo(new BigDecimal("0.01")) <= 0);
+    }
+
+    @Test
+    void calculateTotal_triangulatedMissingCurrency_throwsNotFoundException() {
+        // Given
+        when(ratesConfig.source()).thenReturn(InvoiceConfig.RatesConfig.Source.TRIANGULATED);
+        when(frankfurterClient.getHistoricalRate("2023-01-15", "EUR", null))
+                .thenReturn(createAnchorResponse(Map.of("USD", 1.0825)));
+        testLine.currency = "XAU";
+
+        // When & Then
+        NotFoundException exception = assertThrows(NotFoundException.class,
+            () -> invoiceService.calculateTotal(testPayload));
+
+        assertTrue(exception.getMessage().contains("exchange rate not found for XAU->USD"));
+    }
+
+    @Test
+    void calculateTotal_triangulated_cachesTheAnchorTable() {
+        // Given
+        when(ratesConfig.source()).thenReturn(InvoiceConfig.RatesConfig.Source.TRIANGULATED);
+        when(frankfurterClient.getHistoricalRate("2023-01-15", "EUR", null))
+                .thenReturn(createAnchorResponse(Map.of("USD", 1.0825, "GBP", 0.8843)));
+        testLine.currency = "GBP";
+
+        // When
+        invoiceService.calculateTotal(testPayload);
+        invoiceService.calculateTotal(createPayload("GBP", testPayload.date, createLine("E", "USD", "1.00")));
+
+        // Then
+        verify(frankfurterClient, times(1)).getHistoricalRate(anyString(), anyString(), any());
+        assertEquals(1.0, meterRegistry.get("invoice.rates.cache").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void calculateTotalAsync_triangulated_fetchesTheAnchorTable() {
+        // Given
+        when(ratesConfig.source()).thenReturn(InvoiceConfig.RatesConfig.Source.TRIANGULATED);
+        when(frankfurterClient.getHistoricalRateAsync("2023-01-15", "EUR", null))
+                .thenReturn(Uni.createFrom().item(createAnchorResponse(Map.of("USD", 1.0825, "GBP", 0.8843))));
+        testLine.currency = "GBP";
+
+        // When
+        BigDecimal result = invoiceService.calculateTotalAsync(testPayload).await().indefinitely();
+
+        // Then
+        assertEquals(new BigDecimal("122.41"), result);
+    }
+
+    @Test
+    void warmUpTotal_cachedRates_sameTotalWithoutRecordingIt() {
+        // Given
+        invoiceService.rateCache.load(LocalDate.of(2023, 1, 15), "EUR", "USD", new BigDecimal("1.0850"));
+        InvoicePayload payload = createPayload("USD", LocalDate.of(2023, 1, 15),
+                createLine("A", "EUR", "100.00"), createLine("B", "USD", "10.00"));
+
+        // When
+        BigDecimal total = invoiceService.warmUpTotal(payload);
+
+        // Then
+        assertEquals(new BigDecimal("118.50"), total);
+        assertTrue(meterRegistry.getMeters().stream()
+                .noneMatch(meter -> meter.measure().iterator().next().getValue() > 0));
+        verifyNoInteractions(frankfurterClient, requestLog, resultCache);
+    }
+
+    @Test
+    void warmUpTotal_rateNotCached_failsWithoutCallingFrankfurter() {
+        // Given
+        InvoicePayload payload = createPayload("USD", LocalDate.of(2023, 1, 15), createLine("A", "EUR", "100.00"));
+
+        // When & Then
+        assertThrows(IllegalStateException.class, () -> invoiceService.warmUpTotal(payload));
+        verifyNoInteractions(frankfurterClient);
+    }
+
     private InvoiceLine createLine(String description, String currency, String amount) {
         InvoiceLine line = new InvoiceLine();
         line.description = description;
@@ -352,11 +825,35 @@ class InvoiceServiceUnitTest {
         return line;
     }
 
-    private FrankfurterResponse createMockResponse(String targetCurrency, double rate) {
+    private InvoicePayload createPayload(String currency, LocalDate date, InvoiceLine... lines) {
+        InvoicePayload payload = new InvoicePayload();
+        payload.currency = currency;
+        payload.date = date;
+        payload.lines = Arrays.asList(lines);
+        return payload;
+    }
+
+    private FrankfurterResponse createMockResponse(String currency, double quote) {
         FrankfurterResponse response = new FrankfurterResponse();
         Map<String, Double> rates = new HashMap<>();
-        rates.put(targetCurrency, rate);
+        rates.put(currency, quote);
         response.rates = rates;
         return response;
     }
+
+    /**
+     * Whole table anchored on EUR, as returned without a {@code to} parameter
+     */
+    private FrankfurterResponse createAnchorResponse(Map<String, Double> quotes) {
+        FrankfurterResponse response = new FrankfurterResponse();
+        response.rates = new HashMap<>(quotes);
+        return response;
+    }
+
+    /**
+     * Base-anchored response whose inverted quote is the given rate from {@code currency} to the base
+     */
+    private FrankfurterResponse createInverseResponse(String currency, double rate) {
+        return createMockResponse(currency, 1.0 / rate);
+    }
 }
@@ -0,0 +1,223 @@
+package com.verifyme.invoice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.verifyme.common.client.FrankfurterClient;
+import com.verifyme.common.client.FrankfurterResponse;
+import com.verifyme.invoice.config.InvoiceConfig;
+import com.verifyme.invoice.dto.InvoiceRequest;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.ws.rs.BadRequestException;
+
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class InvoiceStreamReaderUnitTest {
+
+    private FrankfurterClient frankfurterClient;
+    private InvoiceConfig invoiceConfig;
+    private InvoiceService invoiceService;
+    private InvoiceStreamReader invoiceStreamReader;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        InvoiceServiceFixture fixture = new InvoiceServiceFixture();
+        frankfurterClient = fixture.frankfurter;
+        invoiceConfig = fixture.config;
+        invoiceService = fixture.service;
+
+        objectMapper = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+        invoiceStreamReader = new InvoiceStreamReader();
+        invoiceStreamReader.invoiceService = invoiceService;
+        invoiceStreamReader.objectMapper = objectMapper;
+        invoiceStreamReader.invoiceValidator = new InvoiceValidator();
+        invoiceStreamReader.invoiceValidator.validator = Validation.byDefaultProvider().configure()
+                .messageInterpolator(new ParameterMessageInterpolator())
+                .buildValidatorFactory().getValidator();
+        invoiceStreamReader.invoiceValidator.config = invoiceConfig;
+    }
+
+    @Test
+    void readTotal_multiCurrencyInvoice_matchesBoundCalculation() throws Exception {
+        // Given
+        when(frankfurterClient.getHistoricalRate("2023-01-15", "USD", "EUR,GBP"))
+                .thenReturn(quote(Map.of("EUR", 0.9217, "GBP", 0.8123)));
+        String json = """
+                {"invoice": {"currency": "usd", "date": "2023-01-15", "lines": [
+                  {"description": "A", "currency": "EUR", "amount": 100.005},
+                  {"description": "B", "currency": "gbp ", "amount": "19.99"},
+                  {"description": "C", "currency": "USD", "amount": 5},
+                  {"description": "D", "currency": "EUR", "amount": 0.015}
+                ]}}""";
+
+        // When
+        BigDecimal streamed = invoiceStreamReader.readTotal(body(json));
+
+        // Then
+        BigDecimal bound = invoiceService.calculateTotal(objectMapper.readValue(json, InvoiceRequest.class).invoice);
+        assertEquals(bound, streamed);
+        assertEquals(new BigDecimal("138.14"), streamed);
+        verify(frankfurterClient, times(1)).getHistoricalRate(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void readTotal_manyCurrencies_looksRatesUpInOneRequest() {
+        // Given
+        when(frankfurterClient.getHistoricalRate("2023-01-15", "USD", "CHF,EUR,GBP,JPY"))
+                .thenReturn(quote(Map.of("EUR", 0.8, "GBP", 0.5, "JPY", 100.0, "CHF", 1.0)));
+        StringBuilder json = new StringBuilder("{\"invoice\": {\"currency\": \"USD\", \"date\": \"2023-01-15\", \"lines\": [");
+        String[] currencies = {"EUR", "GBP", "USD", "JPY", "CHF"};
+        for (int i = 0; i < 1000; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"description\": \"Item\", \"currency\": \"")
+                    .append(currencies[i % currencies.length]).append("\", \"amount\": 1}");
+        }
+        json.append("]}}");
+
+        // When
+        BigDecimal total = invoiceStreamReader.readTotal(body(json.toString()));
+
+        // Then
+        // 200 lines each of 1.25 + 2.00 + 1.00 + 0.01 + 1.00
+        assertEquals(new BigDecimal("1052.00"), total);
+        verify(frankfurterClient, times(1)).getHistoricalRate(anyString(), anyString(), anyString());
+    }
+
+    @Test
+    void readTotal_linesBeforeCurrencyAndDate_stillComputed() {
+        // Given
+        when(frankfurterClient.getHistoricalRate("2023-01-15", "USD", "EUR")).thenReturn(quote("EUR", 0.8));
+        String json = """
+                {"invoice": {"lines": [{"description": "A", "currency": "EUR", "amount": 10}],
+                             "unknown": {"nested": [1, 2]},
+                             "date": [2023, 1, 15], "currency": "USD"}}""";
+
+        // When
+        BigDecimal total = invoiceStreamReader.readTotal(body(json));
+
+        // Then
+        assertEquals(new BigDecimal("12.50"), total);
+    }
+
+    @Test
+    void readTotal_amountsBeyondFixedPoint_sameAsBoundCalculation() throws Exception {
+        // Given
+        String json = """
+                {"invoice": {"currency": "USD", "date": "2023-01-15", "lines": [
+                  {"description": "A", "currency": "USD", "amount": 90000000000000000.005},
+                  {"description": "B", "currency": "USD", "amount": 90000000000000000.005}
+                ]}}""";
+
+        // When
+        BigDecimal streamed = invoiceStreamReader.readTotal(body(json));
+
+        // Then
+        assertEquals(invoiceService.calculateTotal(objectMapper.readValue(json, InvoiceRequest.class).invoice), streamed);
+        assertEquals(new BigDecimal("180000000000000000.02"), streamed);
+    }
+
+    @Test
+    void readTotal_negativeAmount_throwsSameViolationAsBinding() {
+        // Given
+        String json = """
+                {"invoice": {"currency": "USD", "date": "2023-01-15", "lines": [
+                  {"description": "A", "currency": "USD", "amount": -1}
+                ]}}""";
+
+        // When & Then
+        ConstraintViolationException exception = assertThrows(ConstraintViolationException.class,
+            () -> invoiceStreamReader.readTotal(body(json)));
+
+        ConstraintViolation<?> violation = exception.getConstraintViolations().iterator().next();
+        assertEquals("total.body.invoice.lines[0].amount", violation.getPropertyPath().toString());
+        assertInstanceOf(DecimalMin.class, violation.getConstraintDescriptor().getAnnotation());
+        verifyNoInteractions(frankfurterClient);
+    }
+
+    @Test
+    void readTotal_blankLineCurrency_throwsConstraintViolation() {
+        // Given
+        String json = """
+                {"invoice": {"currency": "USD", "date": "2023-01-15", "lines": [
+                  {"description": "A", "currency": "USD", "amount": 1},
+                  {"description": "B", "currency": "USD", "amount": 2},
+                  {"description": "C", "currency": " ", "amount": 1}
+                ]}}""";
+
+        // When & Then
+        ConstraintViolationException exception = assertThrows(ConstraintViolationException.class,
+            () -> invoiceStreamReader.readTotal(body(json)));
+
+        assertEquals("total.body.invoice.lines[2].currency",
+            exception.getConstraintViolations().iterator().next().getPropertyPath().toString());
+    }
+
+    @Test
+    void readTotal_noLines_throwsSizeViolation() {
+        // Given
+        String json = """
+                {"invoice": {"currency": "USD", "date": "2023-01-15", "lines": []}}""";
+
+        // When & Then
+        ConstraintViolationException exception = assertThrows(ConstraintViolationException.class,
+            () -> invoiceStreamReader.readTotal(body(json)));
+
+        assertEquals("At least one invoice line is required",
+            exception.getConstraintViolations().iterator().next().getMessage());
+    }
+
+    @Test
+    void readTotal_missingInvoiceOrDate_throwsNotNullViolation() {
+        // When & Then
+        ConstraintViolationException noInvoice = assertThrows(ConstraintViolationException.class,
+            () -> invoiceStreamReader.readTotal(body("{\"other\": 1}")));
+        ConstraintViolationException noDate = assertThrows(ConstraintViolationException.class,
+            () -> invoiceStreamReader.readTotal(body("""
+                {"invoice": {"currency": "USD", "lines": [{"description": "A", "currency": "USD", "amount": 1}]}}""")));
+
+        assertEquals("total.body.invoice", noInvoice.getConstraintViolations().iterator().next().getPropertyPath().toString());
+        assertEquals("total.body.invoice.date", noDate.getConstraintViolations().iterator().next().getPropertyPath().toString());
+    }
+
+    @Test
+    void readTotal_malformedJson_throwsBadRequest() {
+        // When & Then
+        assertThrows(BadRequestException.class, () -> invoiceStreamReader.readTotal(body("[1, 2]")));
+        assertThrows(BadRequestException.class, () -> invoiceStreamReader.readTotal(body("{\"invoice\": {\"lines\": [")));
+        assertThrows(BadRequestException.class, () -> invoiceStreamReader.readTotal(body("""
+                {"invoice": {"currency": "USD", "date": "15/01/2023", "lines": []}}""")));
+    }
+
+    private static ByteArrayInputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static FrankfurterResponse quote(String currency, double quote) {
+        return quote(Map.of(currency, quote));
+    }
+
+    private static FrankfurterResponse quote(Map<String, Double> quotes) {
+        FrankfurterResponse response = new FrankfurterResponse();
+        response.rates = new HashMap<>(quotes);
+        return response;
+    }
+}
@@ -0,0 +1,182 @@
+package com.verifyme.invoice.service;
+
+import com.verifyme.invoice.config.InvoiceConfig;
+import com.verifyme.invoice.dto.InvoicePayload;
+import com.verifyme.invoice.dto.InvoiceRequest;
+import com.verifyme.invoice.model.InvoiceLine;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+import net.jqwik.api.Example;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.Provide;
+
+import org.hibernate.validator.messageinterpolation.ParameterMessageInterpolator;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * The fast path must accept exactly the invoices Hibernate Validator accepts, and invalid ones must
+ * be reported as {@code @Valid} on the endpoint parameter reports them
+ */
+class InvoiceValidatorUnitTest {
+
+    private final Validator hibernateValidator = Validation.byDefaultProvider().configure()
+            .messageInterpolator(new ParameterMessageInterpolator())
+            .buildValidatorFactory().getValidator();
+
+    private final InvoiceConfig.ValidationConfig validationConfig = mock(InvoiceConfig.ValidationConfig.class);
+
+    private final InvoiceValidator invoiceValidator = new InvoiceValidator();
+
+    InvoiceValidatorUnitTest() {
+        InvoiceConfig invoiceConfig = mock(InvoiceConfig.class);
+        when(validationConfig.fastPath()).thenReturn(true);
+        when(invoiceConfig.validation()).thenReturn(validationConfig);
+        invoiceValidator.config = invoiceConfig;
+        invoiceValidator.validator = hibernateValidator;
+    }
+
+    @Property(tries = 1000)
+    void isValid_payload_agreesWithHibernateValidator(@ForAll("payloads") InvoicePayload payload) {
+        // When
+        boolean fast = InvoiceValidator.isValid(payload);
+
+        // Then
+        assertEquals(hibernateValidator.validate(payload).isEmpty(), fast);
+    }
+
+    @Property(tries = 200)
+    void isValid_request_agreesWithHibernateValidator(@ForAll("payloads") InvoicePayload payload,
+                                                      @ForAll boolean withoutInvoice) {
+        // Given
+        InvoiceRequest request = new InvoiceRequest();
+        request.invoice = withoutInvoice ? null : payload;
+
+        // When
+        boolean fast = InvoiceValidator.isValid(request);
+
+        // Then
+        assertEquals(hibernateValidator.validate(request).isEmpty(), fast);
+    }
+
+    @Example
+    void validateBody_invalidInvoice_reportsMethodValidationPaths() {
+        // Given
+        InvoiceRequest request = new InvoiceRequest();
+        request.invoice = payload("USD", LocalDate.of(2023, 1, 15), line("A", "EUR", "-1"), line(" ", "EUR", "1"));
+
+        // When
+        Set<String> paths = invoiceValidator.validateBody("total", request).stream()
+                .map(violation -> violation.getPropertyPath().toString())
+                .collect(Collectors.toSet());
+
+        // Then
+        assertEquals(Set.of("total.body.invoice.lines[0].amount", "total.body.invoice.lines[1].description"), paths);
+    }
+
+    @Example
+    void validateBody_missingInvoice_reportsNotNullOnTheEndpointPath() {
+        // When
+        Set<? extends ConstraintViolation<?>> violations = invoiceValidator.validateBody("totalAsync", new InvoiceRequest());
+
+        // Then
+        assertEquals(1, violations.size());
+        assertEquals("totalAsync.body.invoice", violations.iterator().next().getPropertyPath().toString());
+    }
+
+    @Example
+    void validateLine_invalidLine_sameViolationsAsInTheWholeBody() {
+        // Given
+        InvoiceLine invalid = line(" ", "EUR", "-1");
+        InvoiceRequest request = new InvoiceRequest();
+        request.invoice = payload("USD", LocalDate.of(2023, 1, 15), line("A", "EUR", "1"), line("B", "EUR", "1"), invalid);
+
+        // When
+        Set<String> alone = invoiceValidator.validateLine("total", 2, invalid).stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .collect(Collectors.toSet());
+
+        // Then
+        Set<String> inBody = invoiceValidator.validateBody("total", request).stream()
+                .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                .collect(Collectors.toSet());
+        assertEquals(inBody, alone);
+        assertEquals(2, alone.size());
+        assertTrue(invoiceValidator.validateLine("total", 2, line("A", "EUR", "1")).isEmpty());
+    }
+
+    @Example
+    void validate_fastPathOff_alwaysAsksHibernateValidator() {
+        // Given
+        Validator spy = spy(hibernateValidator);
+        invoiceValidator.validator = spy;
+        when(validationConfig.fastPath()).thenReturn(false);
+        InvoicePayload payload = payload("USD", LocalDate.of(2023, 1, 15), line("A", "EUR", "1"));
+
+        // When
+        Set<ConstraintViolation<InvoicePayload>> violations = invoiceValidator.validate(payload);
+
+        // Then
+        assertTrue(violations.isEmpty());
+        verify(spy).validate(payload);
+    }
+
+    @Provide
+    Arbitrary<InvoicePayload> payloads() {
+        Arbitrary<String> texts = Arbitraries.of(null, "", " ", "\t\n", " ", "USD", " eur ", "x");
+        Arbitrary<BigDecimal> amounts = Arbitraries.of(null, "-1", "-0.001", "0", "0.0", "-0.00", "0.001", "125.50")
+                .map(amount -> amount == null ? null : new BigDecimal(amount));
+        Arbitrary<InvoiceLine> lines = Combinators.combine(texts, texts, amounts)
+                .as((description, currency, amount) -> {
+                    InvoiceLine line = new InvoiceLine();
+                    line.description = description;
+                    line.currency = currency;
+                    line.amount = amount;
+                    return line;
+                })
+                .injectNull(0.05);
+        Arbitrary<List<InvoiceLine>> lineLists = lines.list().ofMaxSize(4)
+                .map(list -> (List<InvoiceLine>) new ArrayList<>(list))
+                .injectNull(0.1);
+        Arbitrary<LocalDate> dates = Arbitraries.of(LocalDate.of(2023, 1, 15)).injectNull(0.1);
+
+        return Combinators.combine(texts, dates, lineLists).as((currency, date, lineList) -> {
+            InvoicePayload payload = new InvoicePayload();
+            payload.currency = currency;
+            payload.date = date;
+            payload.lines = lineList;
+            return payload;
+        });
+    }
+
+    private static InvoicePayload payload(String currency, LocalDate date, InvoiceLine... lines) {
+        InvoicePayload payload = new InvoicePayload();
+        payload.currency = currency;
+        payload.date = date;
+        payload.lines = List.of(lines);
+        return payload;
+    }
+
+    private static InvoiceLine line(String description, String currency, String amount) {
+        InvoiceLine line = new InvoiceLine();
+        line.description = description;
+        line.currency = currency;
+        line.amount = new BigDecimal(amount);
+        return line;
+    }
+}
@@ -0,0 +1,165 @@
+package com.verifyme.invoice.service;
+
+import com.verifyme.common.client.FrankfurterClient;
+import com.verifyme.common.client.FrankfurterTimeSeriesResponse;
+import com.verifyme.invoice.config.InvoiceConfig;
+import com.verifyme.invoice.dto.RatePreloadResult;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RatePreloaderUnitTest {
+
+    private static final LocalDate TODAY = LocalDate.now(ExchangeRateCache.PUBLICATION_ZONE);
+
+    @Mock
+    private FrankfurterClient frankfurterClient;
+
+    @Mock
+    private InvoiceConfig invoiceConfig;
+
+    @InjectMocks
+    private RatePreloader ratePreloader;
+
+    private ExchangeRateCache rateCache;
+
+    private InvoiceConfig.RatesConfig ratesConfig;
+
+    @BeforeEach
+    void setUp() {
+        InvoiceConfig.DecimalConfig decimalConfig = mock(InvoiceConfig.DecimalConfig.class);
+        InvoiceConfig.RateCacheConfig rateCacheConfig = mock(InvoiceConfig.RateCacheConfig.class);
+        InvoiceConfig.PreloadConfig preloadConfig = mock(InvoiceConfig.PreloadConfig.class);
+        ratesConfig = mock(InvoiceConfig.RatesConfig.class);
+
+        lenient().when(decimalConfig.rateScale()).thenReturn(4);
+        lenient().when(invoiceConfig.decimal()).thenReturn(decimalConfig);
+
+        lenient().when(rateCacheConfig.maxSize()).thenReturn(1000L);
+        lenient().when(rateCacheConfig.currentDateTtl()).thenReturn(Duration.ofMinutes(5));
+        lenient().when(invoiceConfig.rateCache()).thenReturn(rateCacheConfig);
+
+        lenient().when(preloadConfig.baseCurrencies()).thenReturn(List.of("usd"));
+        lenient().when(preloadConfig.currencies()).thenReturn(List.of("EUR", "GBP", "USD"));
+        lenient().when(preloadConfig.days()).thenReturn(10);
+        lenient().when(preloadConfig.chunkDays()).thenReturn(7);
+        lenient().when(invoiceConfig.preload()).thenReturn(preloadConfig);
+
+        lenient().when(ratesConfig.source()).thenReturn(InvoiceConfig.RatesConfig.Source.BASE);
+        lenient().when(ratesConfig.anchor()).thenReturn("USD");
+        lenient().when(invoiceConfig.rates()).thenReturn(ratesConfig);
+
+        rateCache = new ExchangeRateCache(invoiceConfig);
+        ratePreloader.rateCache = rateCache;
+    }
+
+    @Test
+    void preload_window_fetchesOneRangePerChunkAndBase() {
+        // Given
+        when(frankfurterClient.getTimeSeries(anyString(), anyString(), eq("USD"), eq("EUR,GBP")))
+                .thenReturn(publishedEveryDayExcept());
+
+        // When
+        RatePreloadResult result = ratePreloader.preload();
+
+        // Then
+        assertEquals(TODAY.minusDays(9), result.startDate);
+        assertEquals(TODAY, result.endDate);
+        assertEquals(2, result.requests);
+        assertEquals(20, result.rates);
+        verify(frankfurterClient).getTimeSeries(
+                TODAY.minusDays(9 + RatePreloader.MAX_UNPUBLISHED_DAYS).toString(), TODAY.minusDays(3).toString(), "USD", "EUR,GBP");
+        verify(frankfurterClient).getTimeSeries(
+                TODAY.minusDays(2 + RatePreloader.MAX_UNPUBLISHED_DAYS).toString(), TODAY.toString(), "USD", "EUR,GBP");
+        assertEquals(new BigDecimal("1.2500"), rateCache.get(TODAY.minusDays(3), "EUR", "USD"));
+        assertEquals(new BigDecimal("1.6000"), rateCache.get(TODAY.minusDays(3), "GBP", "USD"));
+    }
+
+    @Test
+    void preload_unpublishedDays_filledWithLastPublishedRates() {
+        // Given
+        LocalDate saturday = TODAY.minusDays(5);
+        LocalDate sunday = TODAY.minusDays(4);
+        when(frankfurterClient.getTimeSeries(anyString(), anyString(), anyString(), anyString()))
+                .thenReturn(publishedEveryDayExcept(saturday, sunday));
+
+        // When
+        ratePreloader.preload();
+
+        // Then
+        BigDecimal friday = rateCache.get(TODAY.minusDays(6), "EUR", "USD");
+        assertNotNull(friday);
+        assertEquals(friday, rateCache.get(saturday, "EUR", "USD"));
+        assertEquals(friday, rateCache.get(sunday, "EUR", "USD"));
+    }
+
+    @Test
+    void preload_failedChunk_keepsOtherChunks() {
+        // Given
+        when(frankfurterClient.getTimeSeries(anyString(), anyString(), anyString(), anyString()))
+                .thenThrow(new RuntimeException("Network error"))
+                .thenReturn(publishedEveryDayExcept());
+
+        // When
+        RatePreloadResult result = ratePreloader.preload();
+
+        // Then
+        assertEquals(2, result.requests);
+        assertEquals(6, result.rates);
+        assertNull(rateCache.get(TODAY.minusDays(9), "EUR", "USD"));
+        assertNotNull(rateCache.get(TODAY.minusDays(1), "EUR", "USD"));
+    }
+
+    @Test
+    void preload_triangulated_cachesWholeAnchorTablesPerDay() {
+        // Given
+        when(ratesConfig.source()).thenReturn(InvoiceConfig.RatesConfig.Source.TRIANGULATED);
+        when(frankfurterClient.getTimeSeries(anyString(), anyString(), eq("USD"), isNull()))
+                .thenReturn(publishedEveryDayExcept());
+
+        // When
+        RatePreloadResult result = ratePreloader.preload();
+
+        // Then
+        assertEquals(2, result.requests);
+        assertEquals(20, result.rates);
+        verify(frankfurterClient, never()).getTimeSeries(anyString(), anyString(), anyString(), anyString());
+        AnchorRateTable table = rateCache.getTable(TODAY.minusDays(3));
+        assertNotNull(table);
+        assertEquals(new BigDecimal("0.7813"), table.crossRate("EUR", "GBP", 4));
+        assertNull(rateCache.get(TODAY.minusDays(3), "EUR", "USD"));
+    }
+
+    /**
+     * USD-anchored quotes for the last 20 days, EUR at 0.8 and GBP at 0.625
+     */
+    private FrankfurterTimeSeriesResponse publishedEveryDayExcept(LocalDate... unpublished) {
+        FrankfurterTimeSeriesResponse response = new FrankfurterTimeSeriesResponse();
+        response.base = "USD";
+        response.rates = new HashMap<>();
+        for (int i = 0; i < 20; i++) {
+            LocalDate date = TODAY.minusDays(i);
+            if (List.of(unpublished).contains(date)) {
+                continue;
+            }
+            response.rates.put(date.toString(), new HashMap<>(Map.of("EUR", 0.8, "GBP", 0.625)));
+        }
+        return response;
+    }
+}
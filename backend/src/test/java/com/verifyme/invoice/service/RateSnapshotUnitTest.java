@@ -0,0 +1,156 @@
+package com.verifyme.invoice.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateSnapshotUnitTest {
+
+    private static final LocalDate DATE = LocalDate.of(2023, 1, 15);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void open_afterAppend_restoresRates() throws Exception {
+        // Given
+        Path file = dir.resolve("rates.bin");
+        try (RateSnapshot snapshot = RateSnapshot.open(file, 4)) {
+            snapshot.append(DATE, "EUR", "USD", new BigDecimal("1.0850"));
+            snapshot.append(DATE.plusDays(1), "GBP", "USD", new BigDecimal("1.2500"));
+        }
+
+        // When
+        try (RateSnapshot snapshot = RateSnapshot.open(file, 4)) {
+            // Then
+            assertEquals(2, snapshot.size());
+            assertEquals(new BigDecimal("1.0850"), snapshot.get(DATE, "EUR", "USD"));
+            assertEquals(new BigDecimal("1.2500"), snapshot.get(DATE.plusDays(1), "GBP", "USD"));
+            assertNull(snapshot.get(DATE, "USD", "EUR"));
+            assertNull(snapshot.get(DATE.plusDays(1), "EUR", "USD"));
+        }
+        assertEquals(RateSnapshot.HEADER_BYTES + 2 * RateSnapshot.RECORD_BYTES, Files.size(file));
+    }
+
+    @Test
+    void append_samePairTwice_writesOneRecord() throws Exception {
+        // Given
+        Path file = dir.resolve("rates.bin");
+        try (RateSnapshot snapshot = RateSnapshot.open(file, 4)) {
+            // When
+            snapshot.append(DATE, "EUR", "USD", new BigDecimal("1.0850"));
+            snapshot.append(DATE, "EUR", "USD", new BigDecimal("1.0850"));
+            snapshot.append(DATE, "EURO", "USD", new BigDecimal("1.0850"));
+        }
+
+        // Then
+        assertEquals(RateSnapshot.HEADER_BYTES + RateSnapshot.RECORD_BYTES, Files.size(file));
+    }
+
+    @Test
+    void open_tornTrailingRecord_isCutOff() throws Exception {
+        // Given
+        Path file = dir.resolve("rates.bin");
+        try (RateSnapshot snapshot = RateSnapshot.open(file, 4)) {
+            snapshot.append(DATE, "EUR", "USD", new BigDecimal("1.0850"));
+        }
+        Files.write(file, new byte[] {1, 2, 3}, StandardOpenOption.APPEND);
+
+        // When
+        try (RateSnapshot snapshot = RateSnapshot.open(file, 4)) {
+            snapshot.append(DATE, "GBP", "USD", new BigDecimal("1.2500"));
+        }
+
+        // Then
+        try (RateSnapshot snapshot = RateSnapshot.open(file, 4)) {
+            assertEquals(new BigDecimal("1.0850"), snapshot.get(DATE, "EUR", "USD"));
+            assertEquals(new BigDecimal("1.2500"), snapshot.get(DATE, "GBP", "USD"));
+        }
+    }
+
+    @Test
+    void open_otherRateScale_startsOver() throws Exception {
+        // Given
+        Path file = dir.resolve("rates.bin");
+        try (RateSnapshot snapshot = RateSnapshot.open(file, 4)) {
+            snapshot.append(DATE, "EUR", "USD", new BigDecimal("1.0850"));
+        }
+
+        // When
+        try (RateSnapshot snapshot = RateSnapshot.open(file, 6)) {
+            // Then
+            assertEquals(0, snapshot.size());
+            assertNull(snapshot.get(DATE, "EUR", "USD"));
+        }
+        try (FileChannel channel = FileChannel.open(file)) {
+            assertEquals(RateSnapshot.HEADER_BYTES, channel.size());
+        }
+    }
+
+    @Test
+    void open_manyRecords_indexesAll() throws Exception {
+        // Given
+        Path file = dir.resolve("rates.bin");
+        String[] currencies = {"USD", "GBP", "JPY", "CHF", "AUD"};
+        try (RateSnapshot snapshot = RateSnapshot.open(file, 4)) {
+            for (int day = 0; day < 2000; day++) {
+                for (String from : currencies) {
+                    snapshot.append(DATE.minusDays(day), from, "EUR", BigDecimal.valueOf(day + 1, 4));
+                }
+            }
+        }
+
+        // When
+        try (RateSnapshot snapshot = RateSnapshot.open(file, 4)) {
+            // Then
+            assertEquals(10_000, snapshot.size());
+            assertEquals(new BigDecimal("0.1234"), snapshot.get(DATE.minusDays(1233), "JPY", "EUR"));
+        }
+    }
+
+    @Test
+    void read_snapshotStream_returnsEveryRate() throws Exception {
+        // Given
+        Path file = dir.resolve("rates.bin");
+        try (RateSnapshot snapshot = RateSnapshot.open(file, 4)) {
+            snapshot.append(DATE, "EUR", "USD", new BigDecimal("1.0850"));
+            snapshot.append(DATE.plusDays(1), "ZAR", "AUD", new BigDecimal("0.0821"));
+        }
+        Map<String, BigDecimal> rates = new LinkedHashMap<>();
+
+        // When
+        int read;
+        try (InputStream in = Files.newInputStream(file)) {
+            read = RateSnapshot.read(in, 4, (date, from, to, rate) -> rates.put(date + " " + from + to, rate));
+        }
+
+        // Then
+        assertEquals(2, read);
+        assertEquals(Map.of("2023-01-15 EURUSD", new BigDecimal("1.0850"),
+                            "2023-01-16 ZARAUD", new BigDecimal("0.0821")), rates);
+    }
+
+    @Test
+    void read_otherRateScale_throws() throws Exception {
+        // Given
+        Path file = dir.resolve("rates.bin");
+        RateSnapshot.open(file, 4).close();
+
+        // When & Then
+        try (InputStream in = Files.newInputStream(file)) {
+            assertThrows(IOException.class, () -> RateSnapshot.read(in, 6, (date, from, to, rate) -> {}));
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.verifyme.invoice.service;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.verifyme.invoice.config.InvoiceConfig;
+import com.verifyme.invoice.dto.InvoicePayload;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RateWarmupUnitTest {
+
+    private static final LocalDate DATE = LocalDate.of(2023, 1, 16);
+
+    @Mock
+    private InvoiceConfig invoiceConfig;
+
+    @Mock
+    private ExchangeRateCache rateCache;
+
+    @Mock
+    private InvoiceService invoiceService;
+
+    @Mock
+    private InvoiceValidator invoiceValidator;
+
+    @InjectMocks
+    private RateWarmup rateWarmup;
+
+    @TempDir
+    Path dir;
+
+    private InvoiceConfig.WarmupConfig warmupConfig;
+    private InvoiceConfig.RatesConfig ratesConfig;
+
+    @BeforeEach
+    void setUp() {
+        InvoiceConfig.DecimalConfig decimalConfig = mock(InvoiceConfig.DecimalConfig.class);
+        warmupConfig = mock(InvoiceConfig.WarmupConfig.class);
+        ratesConfig = mock(InvoiceConfig.RatesConfig.class);
+
+        lenient().when(decimalConfig.rateScale()).thenReturn(4);
+        lenient().when(invoiceConfig.decimal()).thenReturn(decimalConfig);
+        lenient().when(warmupConfig.iterations()).thenReturn(3);
+        lenient().when(invoiceConfig.warmup()).thenReturn(warmupConfig);
+        lenient().when(ratesConfig.source()).thenReturn(InvoiceConfig.RatesConfig.Source.BASE);
+        lenient().when(invoiceConfig.rates()).thenReturn(ratesConfig);
+
+        rateWarmup.objectMapper = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+    }
+
+    @Test
+    void warmUp_bakedRates_loadsThemAndComputesInvoicesOverThem() throws Exception {
+        // Given
+        InputStream baked = snapshot();
+
+        // When
+        int calculations = rateWarmup.warmUp(baked, "rates.bin");
+
+        // Then
+        verify(rateCache).load(DATE, "EUR", "USD", new BigDecimal("1.0850"));
+        verify(rateCache).load(DATE, "GBP", "USD", new BigDecimal("1.2500"));
+        verify(rateCache).load(DATE.minusDays(1), "USD", "EUR", new BigDecimal("0.9200"));
+        assertEquals(2 * 3, calculations); // 2 (date, base) groups, 3 rounds
+
+        ArgumentCaptor<InvoicePayload> payloads = ArgumentCaptor.forClass(InvoicePayload.class);
+        verify(invoiceService, times(6)).warmUpTotal(payloads.capture());
+        InvoicePayload latest = payloads.getAllValues().get(0);
+        assertEquals("USD", latest.currency);
+        assertEquals(DATE, latest.date);
+        assertEquals(Set.of("USD", "EUR", "GBP"),
+            Set.copyOf(latest.lines.stream().map(line -> line.currency).toList()));
+        verify(rateCache, never()).put(any(), any(), any(), any());
+        verify(invoiceService, never()).calculateTotal(any());
+    }
+
+    @Test
+    void warmUp_noIterations_onlyLoadsRates() throws Exception {
+        // Given
+        when(warmupConfig.iterations()).thenReturn(0);
+
+        // When
+        int calculations = rateWarmup.warmUp(snapshot(), "rates.bin");
+
+        // Then
+        assertEquals(0, calculations);
+        verify(rateCache, times(3)).load(any(), any(), any(), any());
+        verifyNoInteractions(invoiceService);
+    }
+
+    @Test
+    void warmUp_triangulatedSource_skipsCalculations() throws Exception {
+        // Given
+        when(ratesConfig.source()).thenReturn(InvoiceConfig.RatesConfig.Source.TRIANGULATED);
+
+        // When
+        int calculations = rateWarmup.warmUp(snapshot(), "rates.bin");
+
+        // Then
+        assertEquals(0, calculations);
+        verifyNoInteractions(invoiceService);
+    }
+
+    @Test
+    void warmUp_calculationFails_stopsWithoutFailingStartup() throws Exception {
+        // Given
+        when(invoiceService.warmUpTotal(any())).thenReturn(BigDecimal.ONE).thenThrow(new IllegalStateException("boom"));
+
+        // When
+        int calculations = rateWarmup.warmUp(snapshot(), "rates.bin");
+
+        // Then
+        assertEquals(1, calculations);
+    }
+
+    @Test
+    void warmUp_notASnapshot_startsCold() {
+        // When
+        int calculations = rateWarmup.warmUp(new ByteArrayInputStream(new byte[] {1, 2, 3}), "rates.bin");
+
+        // Then
+        assertEquals(0, calculations);
+        verifyNoInteractions(rateCache, invoiceService);
+    }
+
+    private InputStream snapshot() throws Exception {
+        Path file = dir.resolve("rates.bin");
+        try (RateSnapshot snapshot = RateSnapshot.open(file, 4)) {
+            snapshot.append(DATE, "EUR", "USD", new BigDecimal("1.0850"));
+            snapshot.append(DATE, "GBP", "USD", new BigDecimal("1.2500"));
+            snapshot.append(DATE.minusDays(1), "USD", "EUR", new BigDecimal("0.9200"));
+        }
+        return new ByteArrayInputStream(Files.readAllBytes(file));
+    }
+}
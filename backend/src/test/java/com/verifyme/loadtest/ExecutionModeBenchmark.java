@@ -0,0 +1,94 @@
+package com.verifyme.loadtest;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compares {@code invoice.execution.mode=worker} with {@code virtual-threads} on {@code POST /invoice/total}.
+ * The packaged application is started once per mode against a {@link FrankfurterStub} with the rate
+ * and result caches disabled, so every request blocks on an upstream call, and admission control off,
+ * so none is shed before it reaches the execution mode. Then driven at each client count.
+ *
+ * <p>Run after {@code ./mvnw package}, from the backend directory, with a Java 21+ {@code java}
+ * (the application needs it for real virtual threads, older JDKs fall back to the worker pool):
+ * <pre>
+ * java -cp target/test-classes com.verifyme.loadtest.ExecutionModeBenchmark
+ * </pre>
+ * Tunables, as system properties: {@code bench.clients} (default 1000,5000,10000), {@code bench.warmup}
+ * and {@code bench.duration} in seconds (10 and 30), {@code bench.latency} of the stub in ms (50),
+ * {@code bench.java} to start the application with (this JVM). 10k clients need as many open files.
+ */
+public final class ExecutionModeBenchmark {
+
+  private static final LocalDate FIRST_DATE = LocalDate.of(2015, 1, 1);
+
+  public static void main(String[] args) throws Exception {
+    List<Integer> clientCounts = new ArrayList<>();
+    for (String count : System.getProperty("bench.clients", "1000,5000,10000").split(",")) {
+      clientCounts.add(Integer.parseInt(count.trim()));
+    }
+    Duration warmUp = Duration.ofSeconds(Long.getLong("bench.warmup", 10));
+    Duration measured = Duration.ofSeconds(Long.getLong("bench.duration", 30));
+    long latency = Long.getLong("bench.latency", 50);
+    String java = System.getProperty("bench.java",
+        Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    Path app = Path.of(System.getProperty("bench.app", "target/quarkus-app/quarkus-run.jar"));
+
+    List<String> rows = new ArrayList<>();
+    try (FrankfurterStub stub = FrankfurterStub.start(0, latency)) {
+      for (String mode : List.of("worker", "virtual-threads")) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("com.verifyme.common.client.FrankfurterClient/mp-rest/url", stub.url());
+        properties.put("quarkus.rest-client.connection-pool-size",
+            String.valueOf(clientCounts.stream().max(Integer::compare).orElse(1000)));
+        properties.put("invoice.rate-cache.max-size", "0");
+        properties.put("invoice.result-cache.enabled", "false");
+        properties.put("invoice.admission.enabled", "false");
+        properties.put("invoice.execution.mode", mode);
+        properties.put("quarkus.log.level", "WARN");
+        try (ApplicationProcess process = ApplicationProcess.start(java, app, properties,
+            Path.of("target", "benchmark-" + mode + ".log"))) {
+          URI target = process.uri("/invoice/total");
+          process.awaitReady(target, invoice(0));
+          LoadGenerator load = new LoadGenerator(target, ExecutionModeBenchmark::invoice);
+          for (int clients : clientCounts) {
+            LoadGenerator.Result result = load.run(clients, warmUp, measured);
+            String row = String.format(Locale.ROOT, "| %s | %d | %.0f | %.1f | %.1f | %d |",
+                mode, clients, result.throughput(), result.p50(), result.p99(), result.errors());
+            System.out.println(row);
+            rows.add(row);
+          }
+        }
+      }
+    }
+
+    String report = "# Execution mode benchmark\n\n"
+        + String.format(Locale.ROOT, "Stub latency %d ms, warm-up %d s, measured %d s, Java %s, %d CPUs%n%n",
+            latency, warmUp.toSeconds(), measured.toSeconds(), System.getProperty("java.version"),
+            Runtime.getRuntime().availableProcessors())
+        + "| mode | clients | req/s | p50 ms | p99 ms | errors |\n"
+        + "|------|--------:|------:|-------:|-------:|-------:|\n"
+        + String.join("\n", rows) + "\n";
+    Path out = Path.of("target", "benchmarks", "execution-mode.md");
+    Files.createDirectories(out.getParent());
+    Files.writeString(out, report);
+    System.out.println("Report written to " + out);
+  }
+
+  /** an invoice on its own date, so no two requests share an upstream call */
+  static String invoice(int n) {
+    LocalDate date = FIRST_DATE.plusDays(n % 3650);
+    return "{\"invoice\":{\"currency\":\"USD\",\"date\":\"" + date + "\",\"lines\":["
+        + "{\"description\":\"Hosting\",\"currency\":\"EUR\",\"amount\":120.50},"
+        + "{\"description\":\"Support\",\"currency\":\"GBP\",\"amount\":80.00},"
+        + "{\"description\":\"Licences\",\"currency\":\"USD\",\"amount\":42.10}]}}";
+  }
+}
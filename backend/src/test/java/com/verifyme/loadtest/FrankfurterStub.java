@@ -0,0 +1,177 @@
+package com.verifyme.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local stand-in for api.frankfurter.app answering {@code GET /{date}?from=X&to=A,B} and the
+ * weekday time series of {@code GET /{start}..{end}?from=X&to=A,B} with stable made-up rates. The response is delayed by a fixed latency plus an optional random jitter without
+ * holding a thread, so the stub never becomes the bottleneck of a benchmark whatever the number of
+ * calls waiting on it. A share of the requests can be answered 503 to see how errors upstream show
+ * up downstream.
+ */
+public final class FrankfurterStub implements AutoCloseable {
+
+  private final HttpServer server;
+  private final ExecutorService handlers = Executors.newFixedThreadPool(4);
+  private final ScheduledExecutorService delays = Executors.newScheduledThreadPool(2);
+  private final long latencyMillis;
+  private final long jitterMillis;
+  private final double errorRate;
+  private final LongAdder requests = new LongAdder();
+  private final LongAdder errors = new LongAdder();
+
+  private FrankfurterStub(HttpServer server, long latencyMillis, long jitterMillis, double errorRate) {
+    this.server = server;
+    this.latencyMillis = latencyMillis;
+    this.jitterMillis = jitterMillis;
+    this.errorRate = errorRate;
+  }
+
+  /**
+   * Start the stub on {@code port}, 0 picks a free port
+   */
+  public static FrankfurterStub start(int port, long latencyMillis) throws IOException {
+    return start(port, latencyMillis, 0, 0);
+  }
+
+  /**
+   * Start the stub on {@code port}, 0 picks a free port
+   *
+   * @param jitterMillis extra latency of each response, drawn uniformly from 0 to this value
+   * @param errorRate share of the requests answered 503 instead of rates, from 0 to 1
+   */
+  public static FrankfurterStub start(int port, long latencyMillis, long jitterMillis, double errorRate)
+      throws IOException {
+    // the JDK server closes pooled connections beyond 200 idle ones, which callers see as resets
+    System.setProperty("sun.net.httpserver.maxIdleConnections", "100000");
+    HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 4096);
+    FrankfurterStub stub = new FrankfurterStub(server, latencyMillis, jitterMillis, errorRate);
+    server.createContext("/", stub::handle);
+    server.setExecutor(stub.handlers);
+    server.start();
+    return stub;
+  }
+
+  public String url() {
+    return "http://127.0.0.1:" + server.getAddress().getPort();
+  }
+
+  /** number of rate requests served so far */
+  public long requests() {
+    return requests.sum();
+  }
+
+  /** number of rate requests answered 503 so far */
+  public long errors() {
+    return errors.sum();
+  }
+
+  @Override
+  public void close() {
+    server.stop(0);
+    delays.shutdownNow();
+    handlers.shutdownNow();
+  }
+
+  private void handle(HttpExchange exchange) {
+    requests.increment();
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    final boolean fail = errorRate > 0 && random.nextDouble() < errorRate;
+    if (fail) {
+      errors.increment();
+    }
+    final int status = fail ? 503 : 200;
+    final byte[] body = (fail ? "{\"message\":\"service unavailable\"}" : respond(exchange.getRequestURI()))
+        .getBytes(StandardCharsets.UTF_8);
+    final long delay = latencyMillis + (jitterMillis > 0 ? random.nextLong(jitterMillis + 1) : 0);
+    if (delay > 0) {
+      delays.schedule(() -> send(exchange, status, body), delay, TimeUnit.MILLISECONDS);
+    } else {
+      send(exchange, status, body);
+    }
+  }
+
+  private static String respond(URI uri) {
+    String path = uri.getPath().substring(1);
+    String from = "EUR";
+    String to = "";
+    if (uri.getQuery() != null) {
+      for (String param : uri.getQuery().split("&")) {
+        if (param.startsWith("from=")) {
+          from = param.substring(5);
+        } else if (param.startsWith("to=")) {
+          to = param.substring(3);
+        }
+      }
+    }
+
+    String[] symbols = to.isEmpty() ? new String[0] : to.split(",");
+
+    int range = path.indexOf("..");
+    if (range < 0) {
+      StringBuilder json = new StringBuilder(128)
+          .append("{\"amount\":1.0,\"base\":\"").append(from)
+          .append("\",\"date\":\"").append(path).append("\",\"rates\":");
+      return appendRates(json, path, from, symbols).append('}').toString();
+    }
+
+    LocalDate start = LocalDate.parse(path.substring(0, range));
+    LocalDate end = LocalDate.parse(path.substring(range + 2));
+    StringBuilder json = new StringBuilder(4096)
+        .append("{\"amount\":1.0,\"base\":\"").append(from)
+        .append("\",\"start_date\":\"").append(start).append("\",\"end_date\":\"").append(end)
+        .append("\",\"rates\":{");
+    boolean first = true;
+    for (LocalDate date = start; !date.isAfter(end); date = date.plusDays(1)) {
+      if (date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY) {
+        continue; // not published, like the ECB
+      }
+      json.append(first ? "" : ",").append('"').append(date).append("\":");
+      appendRates(json, date.toString(), from, symbols);
+      first = false;
+    }
+    return json.append("}}").toString();
+  }
+
+  private static StringBuilder appendRates(StringBuilder json, String date, String from, String[] symbols) {
+    json.append('{');
+    for (int i = 0; i < symbols.length; i++) {
+      json.append(i == 0 ? "" : ",").append('"').append(symbols[i]).append("\":")
+          .append(rate(date, from, symbols[i]));
+    }
+    return json.append('}');
+  }
+
+  /** a rate between 0.5 and 2.0 that only depends on the date and the pair */
+  static double rate(String date, String from, String to) {
+    int hash = (date + from + to).hashCode() & 0x7FFFFFFF;
+    return 0.5 + (hash % 15000) / 10000.0;
+  }
+
+  private static void send(HttpExchange exchange, int status, byte[] body) {
+    try (OutputStream out = exchange.getResponseBody()) {
+      exchange.getResponseHeaders().set("Content-Type", "application/json");
+      exchange.sendResponseHeaders(status, body.length);
+      out.write(body);
+    } catch (IOException e) {
+      // the caller went away
+    } finally {
+      exchange.close();
+    }
+  }
+}
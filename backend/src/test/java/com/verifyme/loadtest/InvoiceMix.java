@@ -0,0 +1,92 @@
+package com.verifyme.loadtest;
+
+import java.time.LocalDate;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * Invoice bodies for {@code POST /invoice/total} drawn from a weighted mix of shapes:
+ * <ul>
+ *   <li>small: 1 to 3 lines in 1 or 2 currencies, most invoices</li>
+ *   <li>medium: 10 to 30 lines in up to 5 currencies</li>
+ *   <li>large: 200 to 500 lines in up to 8 currencies</li>
+ * </ul>
+ * Most invoices are dated within the last 30 days before {@link #LAST_DATE}, so their rates are soon
+ * cached, the others anywhere in the 10 years before, so they keep missing the cache. The n-th
+ * body only depends on n and the weights, so two runs send the same sequence.
+ */
+public final class InvoiceMix implements IntFunction<String> {
+
+  /** most recent invoice date, fixed so runs stay comparable */
+  static final LocalDate LAST_DATE = LocalDate.of(2024, 12, 31);
+
+  private static final String[] BASES = {"USD", "USD", "USD", "EUR", "EUR", "GBP"};
+  private static final String[] CURRENCIES = {"EUR", "USD", "GBP", "JPY", "CHF", "CAD", "AUD", "SEK"};
+  private static final double RECENT_SHARE = 0.8;
+
+  private final int[] weights;
+  private final int totalWeight;
+
+  /**
+   * Relative weights of small, medium and large invoices, e.g. 70, 25, 5
+   */
+  public InvoiceMix(int small, int medium, int large) {
+    if (small < 0 || medium < 0 || large < 0 || small + medium + large == 0) {
+      throw new IllegalArgumentException("invoice mix weights must be positive, got "
+          + small + "," + medium + "," + large);
+    }
+    this.weights = new int[] {small, medium, large};
+    this.totalWeight = small + medium + large;
+  }
+
+  /**
+   * @param weights "small,medium,large", e.g. "70,25,5"
+   */
+  public static InvoiceMix parse(String weights) {
+    String[] parts = weights.split(",");
+    if (parts.length != 3) {
+      throw new IllegalArgumentException("invoice mix must be small,medium,large weights, got " + weights);
+    }
+    return new InvoiceMix(Integer.parseInt(parts[0].trim()), Integer.parseInt(parts[1].trim()),
+        Integer.parseInt(parts[2].trim()));
+  }
+
+  @Override
+  public String apply(int n) {
+    Random random = new Random(0x5DEECE66DL * n + 11);
+
+    int pick = random.nextInt(totalWeight);
+    int lines;
+    int currencies;
+    if (pick < weights[0]) {
+      lines = 1 + random.nextInt(3);
+      currencies = 1 + random.nextInt(2);
+    } else if (pick < weights[0] + weights[1]) {
+      lines = 10 + random.nextInt(21);
+      currencies = 1 + random.nextInt(5);
+    } else {
+      lines = 200 + random.nextInt(301);
+      currencies = 1 + random.nextInt(CURRENCIES.length);
+    }
+
+    LocalDate date = random.nextDouble() < RECENT_SHARE
+        ? LAST_DATE.minusDays(random.nextInt(30))
+        : LAST_DATE.minusDays(30 + random.nextInt(3620));
+    String base = BASES[random.nextInt(BASES.length)];
+    int firstCurrency = random.nextInt(CURRENCIES.length);
+
+    StringBuilder json = new StringBuilder(64 + lines * 72)
+        .append("{\"invoice\":{\"currency\":\"").append(base)
+        .append("\",\"date\":\"").append(date).append("\",\"lines\":[");
+    for (int i = 0; i < lines; i++) {
+      String currency = CURRENCIES[(firstCurrency + random.nextInt(currencies)) % CURRENCIES.length];
+      json.append(i == 0 ? "" : ",")
+          .append("{\"description\":\"Item ").append(i)
+          .append("\",\"currency\":\"").append(currency)
+          .append("\",\"amount\":").append(String.format(Locale.ROOT, "%.2f", random.nextInt(1_000_000) / 100.0))
+          .append('}');
+    }
+    return json.append("]}}").toString();
+  }
+}
@@ -0,0 +1,156 @@
+package com.verifyme.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+/**
+ * Closed-loop load: every client sends its next request as soon as the previous one answered,
+ * so the number of requests in flight stays at the number of clients. Requests sent during the
+ * warm-up are discarded, every request sent in the measured window counts however late it
+ * answers, and a run waits for the last of them before it computes the percentiles.
+ */
+public final class LoadGenerator {
+
+  /**
+   * Outcome of one run, latencies in milliseconds of the successful requests. {@code requests}
+   * counts successful requests only, {@code throughput} is their number per second of the measured
+   * window; {@code errors} counts the other statuses, timeouts and connection failures.
+   */
+  public record Result(int clients, long requests, long errors, double throughput,
+                       double p50, double p95, double p99, double p999) {
+
+    /** share of the measured requests that failed, from 0 to 1 */
+    public double errorRate() {
+      long answered = requests + errors;
+      return answered == 0 ? 0 : (double) errors / answered;
+    }
+  }
+
+  private final HttpClient http = HttpClient.newBuilder()
+      .version(HttpClient.Version.HTTP_1_1)
+      .connectTimeout(Duration.ofSeconds(30))
+      .executor(Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors()), task -> {
+        Thread thread = new Thread(task, "load-generator");
+        thread.setDaemon(true); // lets the JVM exit when the run is over
+        return thread;
+      }))
+      .build();
+
+  private final URI target;
+  private final IntFunction<String> bodies;
+
+  /**
+   * @param bodies JSON body of the n-th request sent by a run
+   */
+  public LoadGenerator(URI target, IntFunction<String> bodies) {
+    this.target = target;
+    this.bodies = bodies;
+  }
+
+  public Result run(int clients, Duration warmUp, Duration measured) throws InterruptedException {
+    final long start = System.nanoTime();
+    final long measureFrom = start + warmUp.toNanos();
+    final long end = measureFrom + measured.toNanos();
+
+    Client[] all = new Client[clients];
+    CountDownLatch done = new CountDownLatch(clients);
+    for (int i = 0; i < clients; i++) {
+      all[i] = new Client(i, clients, measureFrom, end, done);
+      all[i].next();
+    }
+    // a client counts down once its last request answered or timed out, the requests still in
+    // flight at the end of the window are in the result
+    if (!done.await(measured.plus(warmUp).toSeconds() + 120, TimeUnit.SECONDS)) {
+      throw new IllegalStateException("clients still waiting on responses two minutes after the run");
+    }
+
+    int total = 0;
+    long errors = 0;
+    for (Client client : all) {
+      total += client.count;
+      errors += client.errors;
+    }
+    long[] latencies = new long[total];
+    int offset = 0;
+    for (Client client : all) {
+      System.arraycopy(client.latencies, 0, latencies, offset, client.count);
+      offset += client.count;
+    }
+    Arrays.sort(latencies);
+
+    return new Result(clients, total, errors, total / (measured.toNanos() / 1e9),
+        percentile(latencies, 0.50), percentile(latencies, 0.95), percentile(latencies, 0.99),
+        percentile(latencies, 0.999));
+  }
+
+  static double percentile(long[] sortedNanos, double quantile) {
+    if (sortedNanos.length == 0) {
+      return Double.NaN;
+    }
+    int rank = (int) Math.ceil(quantile * sortedNanos.length) - 1;
+    return sortedNanos[Math.max(0, rank)] / 1e6;
+  }
+
+  /** one closed-loop client, its callbacks never overlap so its state needs no locking */
+  private final class Client {
+    private final int id;
+    private final int stride;
+    private final long measureFrom;
+    private final long end;
+    private final CountDownLatch done;
+    private int sent;
+    private long[] latencies = new long[256];
+    private int count;
+    private long errors;
+
+    Client(int id, int stride, long measureFrom, long end, CountDownLatch done) {
+      this.id = id;
+      this.stride = stride;
+      this.measureFrom = measureFrom;
+      this.end = end;
+      this.done = done;
+    }
+
+    void next() {
+      long sentAt = System.nanoTime();
+      if (sentAt >= end) {
+        done.countDown();
+        return;
+      }
+      HttpRequest request = HttpRequest.newBuilder(target)
+          .timeout(Duration.ofSeconds(60))
+          .header("Content-Type", "application/json")
+          .POST(HttpRequest.BodyPublishers.ofString(bodies.apply(id + stride * sent++)))
+          .build();
+      http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+          .whenComplete((response, failure) -> {
+            long answeredAt = System.nanoTime();
+            // counted by when it was sent: a request that answers after the window, or times out,
+            // is the slow tail the percentiles are there to show
+            if (sentAt >= measureFrom) {
+              if (failure != null || response.statusCode() != 200) {
+                errors++;
+              } else {
+                record(answeredAt - sentAt);
+              }
+            }
+            next();
+          });
+    }
+
+    private void record(long nanos) {
+      if (count == latencies.length) {
+        latencies = Arrays.copyOf(latencies, count * 2);
+      }
+      latencies[count++] = nanos;
+    }
+  }
+}
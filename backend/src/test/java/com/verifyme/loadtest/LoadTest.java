@@ -0,0 +1,141 @@
+package com.verifyme.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Throughput and latency of {@code POST /invoice/total} under an {@link InvoiceMix} of invoices. The
+ * packaged application is started with its default settings, rate cache included, against a
+ * {@link FrankfurterStub} with latency, jitter and injected errors, then driven at each client count.
+ *
+ * <p>Run from the backend directory with {@code ./load-test.sh}, which packages the application
+ * first, or after {@code ./mvnw package}:
+ * <pre>
+ * java -cp target/test-classes com.verifyme.loadtest.LoadTest
+ * </pre>
+ * Tunables, as system properties: {@code bench.clients} (default 16,64,256), {@code bench.warmup}
+ * and {@code bench.duration} in seconds (10 and 30), {@code bench.latency} and {@code bench.jitter}
+ * of the stub in ms (50 and 25), {@code bench.error-rate} of the stub (0.01), {@code bench.mix} as
+ * small,medium,large weights (70,25,5), {@code bench.java} to start the application with (this JVM),
+ * {@code bench.baseline} the {@code load-test.tsv} of a previous run to compare with.
+ *
+ * <p>Writes {@code target/benchmarks/load-test.md} for reading and {@code load-test.tsv} to keep as
+ * the baseline of the next release.
+ */
+public final class LoadTest {
+
+  private static final String TSV_HEADER = "clients\treq/s\tp50\tp95\tp99\tp999\terror_rate";
+
+  public static void main(String[] args) throws Exception {
+    List<Integer> clientCounts = new ArrayList<>();
+    for (String count : System.getProperty("bench.clients", "16,64,256").split(",")) {
+      clientCounts.add(Integer.parseInt(count.trim()));
+    }
+    Duration warmUp = Duration.ofSeconds(Long.getLong("bench.warmup", 10));
+    Duration measured = Duration.ofSeconds(Long.getLong("bench.duration", 30));
+    long latency = Long.getLong("bench.latency", 50);
+    long jitter = Long.getLong("bench.jitter", 25);
+    double errorRate = Double.parseDouble(System.getProperty("bench.error-rate", "0.01"));
+    String mixWeights = System.getProperty("bench.mix", "70,25,5");
+    InvoiceMix mix = InvoiceMix.parse(mixWeights);
+    String java = System.getProperty("bench.java",
+        Path.of(System.getProperty("java.home"), "bin", "java").toString());
+    Path app = Path.of(System.getProperty("bench.app", "target/quarkus-app/quarkus-run.jar"));
+    String baselinePath = System.getProperty("bench.baseline");
+    Map<Integer, String[]> baseline = baselinePath == null ? Map.of() : readBaseline(Path.of(baselinePath));
+
+    List<LoadGenerator.Result> results = new ArrayList<>();
+    long upstreamRequests;
+    long upstreamErrors;
+    try (FrankfurterStub stub = FrankfurterStub.start(0, latency, jitter, errorRate)) {
+      Map<String, String> properties = new LinkedHashMap<>();
+      properties.put("com.verifyme.common.client.FrankfurterClient/mp-rest/url", stub.url());
+      properties.put("quarkus.rest-client.connection-pool-size",
+          String.valueOf(clientCounts.stream().max(Integer::compare).orElse(256)));
+      properties.put("quarkus.log.level", "WARN");
+      try (ApplicationProcess process = ApplicationProcess.start(java, app, properties,
+          Path.of("target", "load-test.log"))) {
+        var target = process.uri("/invoice/total");
+        process.awaitReady(target, mix.apply(0));
+        LoadGenerator load = new LoadGenerator(target, mix);
+        for (int clients : clientCounts) {
+          LoadGenerator.Result result = load.run(clients, warmUp, measured);
+          System.out.println(row(result, baseline.get(clients)));
+          results.add(result);
+        }
+      }
+      upstreamRequests = stub.requests();
+      upstreamErrors = stub.errors();
+    }
+
+    StringBuilder report = new StringBuilder("# Load test\n\n")
+        .append(String.format(Locale.ROOT,
+            "Invoice mix %s (small,medium,large), stub latency %d ms + up to %d ms, stub error rate %.2f%%, "
+                + "warm-up %d s, measured %d s, Java %s, %d CPUs%n%n",
+            mixWeights, latency, jitter, errorRate * 100, warmUp.toSeconds(), measured.toSeconds(),
+            System.getProperty("java.version"), Runtime.getRuntime().availableProcessors()))
+        .append(String.format(Locale.ROOT, "Frankfurter stub: %d requests, %d answered 503%n%n",
+            upstreamRequests, upstreamErrors));
+    if (baselinePath != null) {
+      report.append("Compared with ").append(baselinePath).append(", change in brackets\n\n");
+    }
+    report.append("| clients | req/s | p50 ms | p95 ms | p99 ms | p999 ms | error rate |\n")
+        .append("|--------:|------:|-------:|-------:|-------:|--------:|-----------:|\n");
+    StringBuilder tsv = new StringBuilder(TSV_HEADER).append('\n');
+    for (LoadGenerator.Result result : results) {
+      report.append(row(result, baseline.get(result.clients()))).append('\n');
+      tsv.append(String.format(Locale.ROOT, "%d\t%.1f\t%.3f\t%.3f\t%.3f\t%.3f\t%.5f%n", result.clients(),
+          result.throughput(), result.p50(), result.p95(), result.p99(), result.p999(), result.errorRate()));
+    }
+
+    Path out = Path.of("target", "benchmarks");
+    Files.createDirectories(out);
+    Files.writeString(out.resolve("load-test.md"), report);
+    Files.writeString(out.resolve("load-test.tsv"), tsv);
+    System.out.println("Report written to " + out.resolve("load-test.md"));
+  }
+
+  /**
+   * @param previous the baseline row of the same client count, null when there is none
+   */
+  private static String row(LoadGenerator.Result result, String[] previous) {
+    double[] values = {result.throughput(), result.p50(), result.p95(), result.p99(), result.p999()};
+    StringBuilder row = new StringBuilder("| ").append(result.clients());
+    for (int i = 0; i < values.length; i++) {
+      row.append(String.format(Locale.ROOT, i == 0 ? " | %.0f" : " | %.1f", values[i]));
+      if (previous != null) {
+        double before = Double.parseDouble(previous[i + 1]);
+        row.append(String.format(Locale.ROOT, " (%+.0f%%)", (values[i] - before) / before * 100));
+      }
+    }
+    row.append(String.format(Locale.ROOT, " | %.2f%%", result.errorRate() * 100));
+    if (previous != null) {
+      row.append(String.format(Locale.ROOT, " (%.2f%%)", Double.parseDouble(previous[6]) * 100));
+    }
+    return row.append(" |").toString();
+  }
+
+  /** rows of a previous {@code load-test.tsv} by client count */
+  private static Map<Integer, String[]> readBaseline(Path file) throws IOException {
+    List<String> lines = Files.readAllLines(file);
+    if (lines.isEmpty() || !lines.get(0).equals(TSV_HEADER)) {
+      throw new IllegalArgumentException(file + " is not a load-test.tsv report");
+    }
+    Map<Integer, String[]> rows = new HashMap<>();
+    for (String line : lines.subList(1, lines.size())) {
+      if (!line.isBlank()) {
+        String[] columns = line.split("\t");
+        rows.put(Integer.parseInt(columns[0]), columns);
+      }
+    }
+    return rows;
+  }
+}